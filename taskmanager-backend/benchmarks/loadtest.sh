@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Runs LoadTest against the backend twice, once on platform threads and once on virtual threads.
+# Needs the MySQL database from application.properties and a built backend:
+#   (cd .. && mvn package -DskipTests) && mvn package && ./loadtest.sh [scenario] [concurrency] [duration]
+set -euo pipefail
+cd "$(dirname "$0")"
+
+SCENARIO=${1:-list}
+CONCURRENCY=${2:-400}
+DURATION=${3:-30}
+PORT=${PORT:-18080}
+APP_JAR=$(ls ../target/*-exec.jar | head -1)
+
+for VIRTUAL in false true; do
+  echo "=== spring.threads.virtual.enabled=$VIRTUAL ==="
+  java -jar "$APP_JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$VIRTUAL" \
+       --diagnostics.pinning.enabled="$VIRTUAL" --logging.level.root=WARN > "target/app-virtual-$VIRTUAL.log" 2>&1 &
+  APP_PID=$!
+  trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+  # Any HTTP status means Tomcat is up
+  until curl -s -o /dev/null "http://localhost:$PORT/api/auth/login"; do sleep 1; done
+
+  java -cp target/benchmarks.jar com.example.taskmanager.benchmarks.LoadTest \
+       --url "http://localhost:$PORT" --scenario "$SCENARIO" --concurrency "$CONCURRENCY" --duration "$DURATION"
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  grep -i "pinned" "target/app-virtual-$VIRTUAL.log" || true
+done
@@ -0,0 +1,103 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.security.JwtAuthenticationFilter;
+import com.example.taskmanager.security.JwtTokenCache;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter end to end for one request, with an in-memory UserDetailsService in
+ * place of the database: a warm token cache, a cold one (signature check plus user lookup),
+ * and a request without a token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthFilterBenchmark {
+
+    // OncePerRequestFilter marks the request; clearing the mark lets one request object be reused
+    private static final String ALREADY_FILTERED = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+    private JwtAuthenticationFilter filter;
+    private JwtTokenCache tokenCache;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = Fixtures.jwtUtil();
+        UserPrincipal principal = Fixtures.principal();
+        Map<String, UserPrincipal> users = Map.of(principal.getUsername(), principal);
+        UserDetailsService userDetailsService = username -> {
+            UserPrincipal user = users.get(username);
+            if (user == null) {
+                throw new UsernameNotFoundException("User Not Found with username: " + username);
+            }
+            return user;
+        };
+
+        tokenCache = new JwtTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 10_000);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+
+        String token = jwtUtil.generateJwtToken(Fixtures.authentication(principal));
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/tasks");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/tasks");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws Exception {
+        return filter(authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication uncachedToken() throws Exception {
+        tokenCache.invalidateAll();
+        return filter(authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication noToken() throws Exception {
+        return filter(anonymousRequest);
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, response, chain);
+        request.removeAttribute(ALREADY_FILTERED);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.UserPrincipal;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds application beans the way Spring would, without starting a context
+final class Fixtures {
+
+    // Same length class as the production secret, so HS512 signing cost is representative
+    static final String JWT_SECRET =
+            "BenchmarkSecretKeyForJWTTokenGenerationThatIsLongEnoughForHmacSha512SigningInBenchmarks!!";
+    static final int JWT_EXPIRATION_MS = 86_400_000;
+
+    private Fixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static UserPrincipal principal() {
+        return new UserPrincipal(1L, "alice", "{noop}secret", Role.ROLE_USER);
+    }
+
+    static Authentication authentication(UserPrincipal principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    static List<Task> tasks(int count) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setRole(Role.ROLE_USER);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task number " + i + " with a few more words in it");
+            task.setCompleted(i % 3 == 0);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setUpdatedAt(now);
+            task.setVersion(0L);
+            task.setUser(user);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
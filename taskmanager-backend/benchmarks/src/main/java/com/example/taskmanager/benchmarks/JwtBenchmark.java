@@ -0,0 +1,59 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+// JwtUtil signing (login) and verification (every authenticated request on a token cache miss)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = Fixtures.jwtUtil();
+        authentication = Fixtures.authentication(Fixtures.principal());
+        token = jwtUtil.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String parseUsername() {
+        return jwtUtil.getUserNameFromJwtToken(token);
+    }
+
+    // What the auth filter does: one verification yielding subject and expiry
+    @Benchmark
+    public Claims parseValidClaims() {
+        return jwtUtil.parseValidClaims(token);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.taskmanager.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for a running backend: N concurrent clients, each sending its
+ * next request as soon as the previous one completes, for a fixed duration. Prints throughput and
+ * latency percentiles; loadtest.sh runs it against platform-thread and virtual-thread mode.
+ * <p>
+ * Usage: java -cp benchmarks.jar com.example.taskmanager.benchmarks.LoadTest
+ * [--url http://localhost:8080] [--concurrency 400] [--duration 30] [--scenario list|login|toggle]
+ */
+public final class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        String scenario = options.getOrDefault("scenario", "list");
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // One user with a page worth of tasks
+        String username = "load" + UUID.randomUUID().toString().substring(0, 8);
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"loadtest-pw\"}";
+        send(client, post(url + "/api/auth/register", null,
+                "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"loadtest-pw\"}"));
+        String token = extract(TOKEN, send(client, post(url + "/api/auth/login", null, credentials)).body());
+        long taskId = 0;
+        for (int i = 0; i < 50; i++) {
+            String body = send(client, post(url + "/api/tasks", token,
+                    "{\"title\":\"Load test task " + i + "\",\"description\":\"created by LoadTest\"}")).body();
+            taskId = Long.parseLong(extract(ID, body));
+        }
+
+        HttpRequest request = switch (scenario) {
+            case "list" -> HttpRequest.newBuilder(URI.create(url + "/api/tasks")).header("Authorization", "Bearer " + token).GET().build();
+            case "login" -> post(url + "/api/auth/login", null, credentials);
+            case "toggle" -> HttpRequest.newBuilder(URI.create(url + "/api/tasks/" + taskId))
+                    .header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+                    .header("Prefer", "return=minimal")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"completed\":true}")).build();
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+
+        System.out.printf("Scenario %s against %s: %d clients for %d s%n", scenario, url, concurrency, durationSeconds);
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        List<Future<Recorder>> results = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                results.add(clients.submit(() -> run(client, request, deadline)));
+            }
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> result : results) {
+            total.merge(result.get());
+        }
+        total.print(durationSeconds);
+    }
+
+    private static Recorder run(HttpClient client, HttpRequest request, long deadline) {
+        Recorder recorder = new Recorder();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorder.record(System.nanoTime() - start, response.statusCode() < 400);
+            } catch (Exception e) {
+                recorder.record(System.nanoTime() - start, false);
+            }
+        }
+        return recorder;
+    }
+
+    private static HttpRequest post(String url, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static String extract(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    // Latencies in nanoseconds; each client records into its own instance, merged at the end
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        void print(int durationSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", count, errors, (double) count / durationSeconds);
+            System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
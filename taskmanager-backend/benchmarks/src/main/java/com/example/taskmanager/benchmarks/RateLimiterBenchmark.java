@@ -0,0 +1,68 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.security.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// RateLimiter.tryAcquire as run by RateLimitFilter on every API request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 50_000;
+
+    private RateLimiter limiter;
+    private Long[] userIds;
+
+    @Setup
+    public void setup() {
+        // A rate high enough that buckets never run dry, so every call takes the admit path
+        limiter = new RateLimiter(1_000_000_000, 1_000_000, 100_000);
+        userIds = new Long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            userIds[i] = (long) i;
+            limiter.tryAcquire(userIds[i]);
+        }
+    }
+
+    // One client hammering its own bucket
+    @Benchmark
+    public long singleKey() {
+        return limiter.tryAcquire(userIds[0]);
+    }
+
+    // Requests spread over many users, as in normal traffic
+    @Benchmark
+    public long manyKeys() {
+        return limiter.tryAcquire(userIds[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    // Four threads CAS-ing the same bucket
+    @Benchmark
+    @Threads(4)
+    public long contendedKey() {
+        return limiter.tryAcquire(userIds[0]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long manyKeysParallel() {
+        return limiter.tryAcquire(userIds[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.taskmanager.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the backend in each startup mode several times and reports time to first request (process
+ * launch until the first HTTP response to a login attempt, which goes through security, a controller
+ * and the database) and the resident set size at that moment, read from /proc (Linux only).
+ * <p>
+ * Modes: {@code jvm} (plain jar, default profile), {@code profile} (plain jar, fast-startup profile),
+ * {@code aot} (extracted jar with the Spring AOT code), {@code aot-cds} (the same plus the CDS archive
+ * from the build) and {@code native} (GraalVM binary). Build with {@code mvn -Pfast-startup package}
+ * first; {@code native} is skipped unless {@code target/taskmanager} exists. Every mode except
+ * {@code jvm} needs the schema to exist already, since the fast-startup profile only validates it.
+ * <p>
+ * Usage: java -cp benchmarks.jar com.example.taskmanager.benchmarks.StartupBenchmark
+ * [--backend ..] [--runs 5] [--port 18080] [--modes jvm,profile,aot,aot-cds,native] [--app-args "--k=v ..."]
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path backend = Path.of(options.getOrDefault("backend", "..")).toAbsolutePath().normalize();
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        List<String> modes = List.of(options.getOrDefault("modes", "jvm,profile,aot,aot-cds,native").split(","));
+        String appArgs = options.getOrDefault("app-args", "").trim();
+
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        for (String mode : modes) {
+            List<String> command = command(mode, backend);
+            if (command == null) {
+                System.out.printf("%-8s skipped: not built%n", mode);
+                continue;
+            }
+            command.add("--server.port=" + port);
+            command.add("--logging.level.root=WARN");
+            if (!appArgs.isEmpty()) {
+                command.addAll(Arrays.asList(appArgs.split("\\s+")));
+            }
+            commands.put(mode, command);
+        }
+
+        Path logs = Files.createDirectories(Path.of("target"));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"startup-probe\",\"password\":\"startup-probe\"}"))
+                .build();
+
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "mode", "ttfr p50", "ttfr min", "rss p50", "rss min");
+        for (Map.Entry<String, List<String>> entry : commands.entrySet()) {
+            long[] millis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Path log = logs.resolve("startup-" + entry.getKey() + "-" + run + ".log");
+                long[] result = measure(entry.getValue(), backend, log, client, probe);
+                millis[run] = result[0];
+                rssKb[run] = result[1];
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssKb);
+            System.out.printf("%-8s %8d ms %8d ms %7d MiB %7d MiB%n", entry.getKey(),
+                    millis[runs / 2], millis[0], rssKb[runs / 2] / 1024, rssKb[0] / 1024);
+        }
+    }
+
+    private static List<String> command(String mode, Path backend) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path extracted = backend.resolve("target/app");
+        return switch (mode) {
+            case "jvm" -> execJar(backend.resolve("target")).map(jar -> new ArrayList<>(List.of(java, "-jar", jar))).orElse(null);
+            case "profile" -> execJar(backend.resolve("target"))
+                    .map(jar -> new ArrayList<>(List.of(java, "-jar", jar, "--spring.profiles.active=fast-startup")))
+                    .orElse(null);
+            case "aot" -> execJar(extracted)
+                    .map(jar -> new ArrayList<>(List.of(java, "-Dspring.aot.enabled=true", "-jar", jar,
+                            "--spring.profiles.active=fast-startup")))
+                    .orElse(null);
+            case "aot-cds" -> !Files.exists(extracted.resolve("application.jsa")) ? null : execJar(extracted)
+                    .map(jar -> new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=" + extracted.resolve("application.jsa"),
+                            "-Xlog:cds=off", "-Dspring.aot.enabled=true", "-jar", jar, "--spring.profiles.active=fast-startup")))
+                    .orElse(null);
+            case "native" -> !Files.isExecutable(backend.resolve("target/taskmanager")) ? null
+                    : new ArrayList<>(List.of(backend.resolve("target/taskmanager").toString(),
+                            "--spring.profiles.active=fast-startup"));
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+    }
+
+    private static Optional<String> execJar(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (var files = Files.list(directory)) {
+            return files.map(Path::toString).filter(name -> name.endsWith("-exec.jar")).findFirst();
+        }
+    }
+
+    // Returns {milliseconds to first response, RSS in KiB}
+    private static long[] measure(List<String> command, Path backend, Path log, HttpClient client, HttpRequest probe)
+            throws Exception {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(backend.toFile())
+                .redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No response within " + TIMEOUT.toSeconds() + " s, see " + log);
+                }
+                try {
+                    // Any status counts: a rejected login still went through the whole stack
+                    client.send(probe, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[] {millis, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst().orElse(0);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One user's task search: the inverted index against scanning every title and description
+ * for the text (what a LIKE '%x%' query or client-side filtering amounts to).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "report", "review", "release", "meeting", "invoice", "deploy", "design", "budget", "customer",
+            "database", "migration", "refactor", "onboarding", "interview", "quarterly", "roadmap", "backlog",
+            "sprint", "hotfix", "security", "audit", "payroll", "vendor", "contract", "training", "support"};
+
+    @Param({"50000"})
+    public int tasks;
+
+    private InvertedIndex index;
+    private List<InvertedIndex.Document> documents;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(tasks);
+        for (int i = 1; i <= tasks; i++) {
+            String title = words(random, 3) + " " + i;
+            String description = words(random, 12);
+            documents.add(new InvertedIndex.Document(i, title, description));
+        }
+        index = new InvertedIndex();
+        index.load(() -> documents);
+    }
+
+    @Benchmark
+    public long[] singleTerm() {
+        return index.search("migration", 20, 100);
+    }
+
+    @Benchmark
+    public long[] twoTerms() {
+        return index.search("budget audit", 20, 100);
+    }
+
+    @Benchmark
+    public long[] prefix() {
+        return index.search("re", 20, 100);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int matches = 0;
+        for (InvertedIndex.Document document : documents) {
+            if (document.title().toLowerCase(Locale.ROOT).contains("migration")
+                    || document.description().toLowerCase(Locale.ROOT).contains("migration")) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    // Full rebuild of one user's index, as done at startup
+    @Benchmark
+    public InvertedIndex build() {
+        InvertedIndex fresh = new InvertedIndex();
+        fresh.load(() -> documents);
+        return fresh;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
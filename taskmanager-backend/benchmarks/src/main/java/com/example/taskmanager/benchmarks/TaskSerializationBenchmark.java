@@ -0,0 +1,100 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a task list to JSON bytes: the typed DTOs the controllers return now, against the
+ * per-task HashMap building AdminController used to do (kept here as the baseline).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<Task> tasks;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        tasks = Fixtures.tasks(size);
+        // Configured like Spring Boot's auto-configured mapper (java.time as ISO strings)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] taskResponses() throws JsonProcessingException {
+        List<TaskResponse> body = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            body.add(TaskResponse.from(task));
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] adminTaskResponses() throws JsonProcessingException {
+        List<AdminTaskResponse> body = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            User user = task.getUser();
+            body.add(new AdminTaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                    task.getCreatedAt(), task.getUpdatedAt(), user.getId(), user.getUsername(), user.getEmail()));
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] legacyMaps() throws JsonProcessingException {
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (Task task : tasks) {
+            Map<String, Object> taskInfo = new HashMap<>();
+            taskInfo.put("id", task.getId());
+            taskInfo.put("title", task.getTitle());
+            taskInfo.put("description", task.getDescription());
+            taskInfo.put("completed", task.isCompleted());
+            taskInfo.put("createdAt", task.getCreatedAt());
+            taskInfo.put("updatedAt", task.getUpdatedAt());
+
+            User user = task.getUser();
+            Map<String, Object> userInfo = new HashMap<>();
+            userInfo.put("id", user.getId());
+            userInfo.put("username", user.getUsername());
+            userInfo.put("email", user.getEmail());
+            taskInfo.put("user", userInfo);
+
+            body.add(taskInfo);
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.dto.request.UpdateTaskRequest;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * TaskService per storage engine: the JPA service against an in-memory H2 database, and the
+ * embedded store (log on a temp directory, fsync off to measure the code rather than the disk).
+ * H2 runs in the same process, so the JPA numbers leave out the network round trips a MySQL
+ * server adds and are a lower bound. The read cache is off in both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskStoreBenchmark {
+
+    @Param({"jpa", "embedded"})
+    public String engine;
+
+    @Param({"10000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Path storeDir;
+    private Long userId;
+    private List<Long> taskIds;
+    private int next;
+    private boolean completed;
+
+    @Setup
+    public void setup() throws IOException {
+        storeDir = Files.createTempDirectory("task-store-bench");
+        // Command line arguments, so they override application.properties
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + engine + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--storage.engine=" + engine,
+                        "--storage.embedded.dir=" + storeDir,
+                        "--storage.embedded.fsync=false",
+                        "--tasks.cache.enabled=false",
+                        "--rate-limit.enabled=false",
+                        "--audit.log.dir=" + storeDir.resolve("audit"),
+                        "--logging.level.root=WARN");
+        taskService = context.getBean(TaskService.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setPassword("unused");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        List<CreateTaskRequest> batch = new ArrayList<>();
+        taskIds = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            batch.add(request("task " + i, "description of task " + i));
+            if (batch.size() == 1000 || i == tasks - 1) {
+                taskService.createTasks(batch, userId).forEach(task -> taskIds.add(task.getId()));
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(storeDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public TaskResponse create() {
+        return taskService.createTask(request("created", null), userId);
+    }
+
+    @Benchmark
+    public CursorPage<TaskResponse> listFirstPage() {
+        return taskService.getUserTasks(userId, new TaskQuery());
+    }
+
+    @Benchmark
+    public void toggle() {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setCompleted(completed = !completed);
+        taskService.applyTaskUpdate(taskIds.get(0), request, userId, null);
+    }
+
+    @Benchmark
+    public TaskResponse getById() {
+        next = (next + 1) % taskIds.size();
+        return taskService.getTaskById(taskIds.get(next));
+    }
+
+    private static CreateTaskRequest request(String title, String description) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle(title);
+        request.setDescription(description);
+        return request;
+    }
+}
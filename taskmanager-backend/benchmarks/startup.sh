@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Compares startup modes of the backend: plain jar, fast-startup profile, Spring AOT, AOT + CDS, native.
+# Needs the MySQL database from application.properties with the schema already created (start the
+# plain jar once), and a backend built with the fast-startup profile:
+#   (cd .. && mvn -Pfast-startup package -DskipTests) && mvn package && ./startup.sh [runs] [modes]
+# Launch commands per mode (run from the backend directory):
+#   aot-cds: java -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true \
+#                 -jar target/app/*-exec.jar --spring.profiles.active=fast-startup
+#   native:  target/taskmanager --spring.profiles.active=fast-startup   (mvn -Pnative native:compile)
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${1:-5}
+MODES=${2:-jvm,profile,aot,aot-cds,native}
+PORT=${PORT:-18080}
+
+java -cp target/benchmarks.jar com.example.taskmanager.benchmarks.StartupBenchmark \
+     --backend .. --runs "$RUNS" --modes "$MODES" --port "$PORT" --app-args "${APP_ARGS:-}"
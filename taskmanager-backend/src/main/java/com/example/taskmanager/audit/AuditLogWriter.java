@@ -0,0 +1,264 @@
+package com.example.taskmanager.audit;
+
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.repository.OutboxEventRepository;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends committed outbox events to the audit log on one background thread.
+ * <p>
+ * Events arrive through a bounded queue, are written in batches of up to
+ * {@code audit.batch-size} lines and then deleted from the outbox (acknowledged in the store with
+ * {@code storage.engine=embedded}, where the store is the outbox). The outbox row is the
+ * durable copy: when the queue is full the hand-off is refused and counted instead of
+ * blocking the committing thread, and the recovery sweep queues the row later. A crash
+ * between writing and deleting repeats those lines, so delivery is at-least-once and each
+ * line carries the outbox id. An event that cannot be serialized is marked poisoned: it is
+ * left in the outbox for an operator and not queued again, so it cannot stall the rest.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Set when storage.engine=embedded; written events are then acknowledged in the store
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Value("${audit.log.dir:logs/audit}")
+    private String directory;
+
+    @Value("${audit.log.max-file-size-mb:64}")
+    private long maxFileSizeMb;
+
+    @Value("${audit.log.max-history:0}")
+    private int maxHistory;
+
+    @Value("${audit.log.fsync:true}")
+    private boolean fsync;
+
+    @Value("${audit.queue.capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.batch-size:500}")
+    private int batchSize;
+
+    private BlockingQueue<OutboxEvent> queue;
+    // Ids queued or being written, so the sweep does not queue them a second time
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Ids that failed to serialize; they stay in the outbox and the sweep skips them
+    private final Set<Long> poisoned = ConcurrentHashMap.newKeySet();
+
+    private RollingAuditLog auditLog;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final AtomicLong poisonedCount = new AtomicLong();
+    private volatile Instant lastWriteAt;
+
+    @PostConstruct
+    void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        auditLog = new RollingAuditLog(Path.of(directory), maxFileSizeMb * 1024 * 1024, maxHistory, fsync);
+        writer = Thread.ofPlatform().name("audit-writer").daemon(true).start(this::run);
+        log.info("Audit log writer: {} (queue capacity {}, batch size {})",
+                Path.of(directory).toAbsolutePath(), queueCapacity, batchSize);
+    }
+
+    // Lets the queue drain for a few seconds; what is left stays in the outbox for the next start
+    @PreDestroy
+    void stop() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.interrupt();
+        auditLog.close();
+    }
+
+    // Never blocks; false when the queue is full
+    public boolean offer(OutboxEvent event) {
+        if (poisoned.contains(event.getId()) || !pending.add(event.getId())) {
+            return true;
+        }
+        if (!queue.offer(event)) {
+            pending.remove(event.getId());
+            rejected.incrementAndGet();
+            return false;
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    // Also true for poisoned events, which are never queued again
+    public boolean isPending(Long outboxId) {
+        return pending.contains(outboxId) || poisoned.contains(outboxId);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getWriteErrorCount() {
+        return writeErrors.get();
+    }
+
+    public long getPoisonedCount() {
+        return poisonedCount.get();
+    }
+
+    public long getActiveFileBytes() {
+        return auditLog.size();
+    }
+
+    public Instant getLastWriteAt() {
+        return lastWriteAt;
+    }
+
+    private void run() {
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboxEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Anything unexpected must not end the thread; the rows stay in the outbox for the sweep
+                writeErrors.incrementAndGet();
+                log.error("Audit writer failed on a batch of {} events", batch.size(), e);
+                if (!backOff()) {
+                    return;
+                }
+            } finally {
+                for (OutboxEvent event : batch) {
+                    pending.remove(event.getId());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<OutboxEvent> batch) throws InterruptedException {
+        List<String> lines = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            String line = toLine(event);
+            if (line != null) {
+                lines.add(line);
+                ids.add(event.getId());
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try {
+            auditLog.append(lines);
+        } catch (IOException e) {
+            // The rows stay in the outbox and the sweep retries them; back off so a full disk is not spun on
+            writeErrors.incrementAndGet();
+            log.error("Could not append {} events to the audit log", lines.size(), e);
+            Thread.sleep(1000);
+            return;
+        }
+        written.addAndGet(lines.size());
+        lastWriteAt = Instant.now();
+
+        try {
+            if (embeddedStore != null) {
+                embeddedStore.acknowledgeAudit(ids);
+            } else {
+                outboxEventRepository.deleteAllByIdInBatch(ids);
+            }
+        } catch (RuntimeException e) {
+            // Already in the file: the sweep will write these again, which readers dedupe by id
+            log.error("Could not delete {} audited events from the outbox", ids.size(), e);
+        }
+    }
+
+    // Null for a poisoned event, which the rest of the batch is written without
+    private String toLine(OutboxEvent event) {
+        try {
+            return objectMapper.writeValueAsString(new AuditRecord(event.getId(), event.getType(),
+                    event.getOccurredAt(), event.getUserId(), event.getEntityId(), event.getPayload()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            poisoned.add(event.getId());
+            poisonedCount.incrementAndGet();
+            log.error("Could not serialize audit event {}; leaving it in the outbox", event.getId(), e);
+            return null;
+        }
+    }
+
+    private boolean backOff() {
+        try {
+            Thread.sleep(1000);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /** One line of the audit log; data is the event JSON as stored in the outbox. */
+    private record AuditRecord(Long id, String type, LocalDateTime occurredAt, Long userId, Long entityId,
+                               @JsonRawValue String data) {
+    }
+}
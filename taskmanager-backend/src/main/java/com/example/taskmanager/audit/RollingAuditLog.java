@@ -0,0 +1,165 @@
+package com.example.taskmanager.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only JSON-lines file, {@code audit.log}, rotated when it passes the size limit or the
+ * day changes. A rotated file is renamed to {@code audit-<date>.<n>.log} and gzip-compressed in
+ * the background; files left uncompressed by a crash are compressed at startup. Not thread-safe:
+ * only the audit writer thread appends.
+ */
+@Slf4j
+class RollingAuditLog implements AutoCloseable {
+
+    private static final String ACTIVE = "audit.log";
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxHistory;
+    private final boolean fsync;
+
+    private final ExecutorService compressor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("audit-compress").daemon(true).factory());
+
+    private FileChannel channel;
+    private LocalDate day;
+    private volatile long size;
+
+    // maxHistory 0 keeps every rotated file
+    RollingAuditLog(Path directory, long maxFileBytes, int maxHistory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxHistory = maxHistory;
+        this.fsync = fsync;
+
+        Files.createDirectories(directory);
+        Path active = directory.resolve(ACTIVE);
+        day = Files.exists(active)
+                ? LocalDate.ofInstant(Files.getLastModifiedTime(active).toInstant(), ZoneId.systemDefault())
+                : LocalDate.now();
+        open();
+
+        for (Path leftover : list("audit-*.log")) {
+            compressor.execute(() -> compress(leftover));
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    // Lines are written in one call and flushed (and forced to disk with fsync) before returning
+    void append(List<String> lines) throws IOException {
+        if (size >= maxFileBytes || !LocalDate.now().equals(day)) {
+            rotate();
+        }
+
+        StringBuilder text = new StringBuilder(lines.size() * 256);
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        size = channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(directory.resolve(ACTIVE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        if (size > 0) {
+            Path rotated = nextRotatedName();
+            Files.move(directory.resolve(ACTIVE), rotated, StandardCopyOption.ATOMIC_MOVE);
+            compressor.execute(() -> compress(rotated));
+        }
+        day = LocalDate.now();
+        open();
+    }
+
+    private Path nextRotatedName() {
+        for (int n = 1; ; n++) {
+            String name = "audit-" + day + "." + n + ".log";
+            if (!Files.exists(directory.resolve(name)) && !Files.exists(directory.resolve(name + ".gz"))) {
+                return directory.resolve(name);
+            }
+        }
+    }
+
+    private void compress(Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        Path partial = file.resolveSibling(file.getFileName() + ".gz.tmp");
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(file);
+            pruneHistory();
+        } catch (IOException e) {
+            // The uncompressed file stays and is retried at the next startup
+            log.error("Could not compress audit log {}", file, e);
+        }
+    }
+
+    private void pruneHistory() throws IOException {
+        if (maxHistory <= 0) {
+            return;
+        }
+        // Oldest first; names do not sort past rotation 9 of a day
+        List<Path> archives = list("audit-*.log.gz");
+        archives.sort(Comparator.comparing(path -> path.toFile().lastModified()));
+        for (int i = 0; i < archives.size() - maxHistory; i++) {
+            Files.deleteIfExists(archives.get(i));
+        }
+    }
+
+    private List<Path> list(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// The cache provider and its size/TTL come from spring.cache.* in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASK_PAGES = "taskPages";
+    public static final String TASKS = "tasks";
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The in-process task store behind {@code storage.engine=embedded}. Opening it replays the newest
+ * snapshot and the write-ahead log after it; closing it on shutdown writes a fresh snapshot, so
+ * the next start replays nothing.
+ * <p>
+ * The store also holds users with their credentials and the audit outbox, so requests do not use
+ * the datasource in this mode; it is read once at startup to take over existing accounts.
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.engine", havingValue = "embedded")
+public class EmbeddedStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedTaskStore embeddedTaskStore(@Value("${storage.embedded.dir:data/store}") String directory,
+                                               @Value("${storage.embedded.segment-size-mb:64}") int segmentSizeMb,
+                                               @Value("${storage.embedded.fsync:true}") boolean fsync) throws IOException {
+        return EmbeddedTaskStore.open(Path.of(directory), segmentSizeMb * 1024 * 1024, fsync);
+    }
+
+    @Bean
+    public MeterBinder embeddedStoreMetrics(EmbeddedTaskStore store) {
+        return registry -> {
+            Gauge.builder("app.store.tasks", store, EmbeddedTaskStore::count)
+                    .description("Tasks held by the embedded store").register(registry);
+            Gauge.builder("app.store.wal.bytes", store, EmbeddedTaskStore::getWalBytes)
+                    .description("Write-ahead log bytes not yet covered by a snapshot").register(registry);
+            Gauge.builder("app.store.snapshot.seq", store, EmbeddedTaskStore::getSnapshotSeq)
+                    .description("Log sequence number of the newest snapshot").register(registry);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool for virtual-thread mode. With platform threads Tomcat's worker pool caps
+ * concurrency; with virtual threads every request gets a thread and the connection pool becomes
+ * the limit, so it is made fixed-size (min idle = max) and waiting for a connection is bounded.
+ * An explicit spring.datasource.hikari.maximum-pool-size always wins.
+ */
+@Slf4j
+@Component
+public class HikariPoolSizing implements BeanPostProcessor {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // 0 derives the size from the CPU count: (cores * 2) + 1, HikariCP's starting point
+    @Value("${db.pool.virtual.max-size:0}")
+    private int virtualMaxSize;
+
+    @Value("${db.pool.virtual.connection-timeout-ms:3000}")
+    private long virtualConnectionTimeoutMs;
+
+    private final Environment environment;
+
+    public HikariPoolSizing(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource) || !virtualThreads) {
+            return bean;
+        }
+        if (environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            log.info("Virtual threads enabled; keeping configured pool size {}", dataSource.getMaximumPoolSize());
+            return bean;
+        }
+
+        int size = virtualMaxSize > 0 ? virtualMaxSize : Runtime.getRuntime().availableProcessors() * 2 + 1;
+        dataSource.setMaximumPoolSize(size);
+        dataSource.setMinimumIdle(size);
+        dataSource.setConnectionTimeout(virtualConnectionTimeoutMs);
+        log.info("Virtual threads enabled; Hikari pool fixed at {} connections, {} ms connection timeout",
+                size, virtualConnectionTimeoutMs);
+        return bean;
+    }
+}
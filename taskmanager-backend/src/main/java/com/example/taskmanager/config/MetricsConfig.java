@@ -0,0 +1,74 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.audit.AuditLogWriter;
+import com.example.taskmanager.metrics.CountingStatementInspector;
+import com.example.taskmanager.security.JwtTokenCache;
+import com.example.taskmanager.security.PasswordHashingExecutor;
+import com.example.taskmanager.service.ReminderService;
+import com.example.taskmanager.service.TaskStreamService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over the application's own queues and caches. Request, JVM, Hikari pool and Caffeine
+ * cache metrics come from Spring Boot; service, repository, JWT and BCrypt timers from
+ * {@link com.example.taskmanager.metrics.MetricsAspect}. Scraped at /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Per-request SQL statement counts (see RequestMetricsInterceptor)
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingExecutor executor) {
+        return registry -> {
+            Gauge.builder("app.bcrypt.queued", executor, PasswordHashingExecutor::getQueuedCount)
+                    .description("Password hashing jobs waiting for a thread").register(registry);
+            Gauge.builder("app.bcrypt.active", executor, PasswordHashingExecutor::getActiveCount)
+                    .description("Password hashing jobs running").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder auditMetrics(AuditLogWriter writer) {
+        return registry -> {
+            Gauge.builder("app.audit.queue.depth", writer, AuditLogWriter::getQueueDepth)
+                    .description("Committed events waiting for the audit writer").register(registry);
+            FunctionCounter.builder("app.audit.rejected", writer, AuditLogWriter::getRejectedCount)
+                    .description("Events left to the outbox sweep because the queue was full").register(registry);
+            FunctionCounter.builder("app.audit.written", writer, AuditLogWriter::getWrittenCount)
+                    .description("Events appended to the audit log").register(registry);
+            FunctionCounter.builder("app.audit.write.errors", writer, AuditLogWriter::getWriteErrorCount)
+                    .description("Failed audit log appends").register(registry);
+            FunctionCounter.builder("app.audit.poisoned", writer, AuditLogWriter::getPoisonedCount)
+                    .description("Outbox events that could not be serialized").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder taskStreamMetrics(TaskStreamService taskStreamService) {
+        return registry -> Gauge.builder("app.task.streams", taskStreamService, TaskStreamService::getConnectionCount)
+                .description("Open task change streams").register(registry);
+    }
+
+    @Bean
+    public MeterBinder reminderMetrics(ReminderService reminderService) {
+        return registry -> Gauge.builder("app.reminders.scheduled", reminderService, ReminderService::getScheduledCount)
+                .description("Task reminders waiting in the timing wheel").register(registry);
+    }
+
+    @Bean
+    public MeterBinder jwtCacheMetrics(JwtTokenCache tokenCache) {
+        return registry -> Gauge.builder("app.jwt.cache.size", tokenCache, JwtTokenCache::size)
+                .description("Verified tokens held by the authentication filter").register(registry);
+    }
+}
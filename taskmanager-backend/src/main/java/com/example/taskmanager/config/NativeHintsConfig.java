@@ -0,0 +1,67 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.dto.response.AdminStatsResponse;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.ApiResponse;
+import com.example.taskmanager.dto.response.AuditStatsResponse;
+import com.example.taskmanager.dto.response.AuthResponse;
+import com.example.taskmanager.dto.response.CacheStatsResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.ErrorResponse;
+import com.example.taskmanager.dto.response.TaskChangeResponse;
+import com.example.taskmanager.dto.response.TaskChangesResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.dto.response.UserResponse;
+import com.example.taskmanager.dto.response.UserSummary;
+import com.example.taskmanager.dto.response.UserTasksResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.UserLoggedInEvent;
+import com.example.taskmanager.event.UserRegisteredEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection a native image cannot discover from the bean definitions: responses returned as
+ * {@code ResponseEntity<?>} or written by hand with the ObjectMapper (SSE, audit outbox), and the
+ * jjwt implementation classes, which its API module loads by name. Unused on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+        AdminStatsResponse.class, AdminTaskResponse.class, ApiResponse.class, AuditStatsResponse.class,
+        AuthResponse.class, CacheStatsResponse.class, CursorPage.class, ErrorResponse.class,
+        TaskChangeResponse.class, TaskChangesResponse.class, TaskResponse.class, UserResponse.class,
+        UserSummary.class, UserTasksResponse.class,
+        TaskChangedEvent.class, UserLoggedInEvent.class, UserRegisteredEvent.class
+})
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : new String[] {
+                    "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                    "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                    "io.jsonwebtoken.impl.DefaultJwtParser",
+                    "io.jsonwebtoken.impl.DefaultClaims",
+                    "io.jsonwebtoken.impl.DefaultHeader",
+                    "io.jsonwebtoken.impl.DefaultJwsHeader",
+                    "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                    "io.jsonwebtoken.jackson.io.JacksonDeserializer"}) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            // JSON (de)serializer found through ServiceLoader
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+            // AuditLogWriter's private line record
+            hints.reflection().registerType(TypeReference.of("com.example.taskmanager.audit.AuditLogWriter$AuditRecord"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.datasource.ReadYourWritesTracker;
+import com.example.taskmanager.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to read replicas when
+ * {@code db.replicas.urls} is set; without it Spring Boot's single pool is used unchanged.
+ * <p>
+ * The application DataSource is a {@link LazyConnectionDataSourceProxy} over the primary pool. It
+ * fetches the physical connection at the first statement, after the transaction manager has
+ * marked the connection read-only, and takes read-only ones from {@link ReplicaDataSource}.
+ * Writes, read-write transactions and reads outside a transaction all stay on the primary, and
+ * a read-only method joining a read-write transaction uses that transaction's connection.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${db.replicas.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Value("${db.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${db.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${db.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${db.replicas.pool-size:10}")
+    private int poolSize;
+
+    @Value("${db.replicas.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs;
+
+    @Value("${db.replicas.max-lag-seconds:30}")
+    private long maxLagSeconds;
+
+    @Value("${db.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    // Bound like Spring Boot's own pool, so spring.datasource.hikari.* still applies to the primary
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesMs);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReadYourWritesTracker readYourWritesTracker,
+                                               MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeoutMs);
+            config.setReadOnly(true);
+            // A replica that is down at startup is skipped until its health check passes
+            config.setInitializationFailTimeout(-1);
+            // Pool metrics as hikaricp_* with pool="replica-n", next to Spring Boot's for the primary
+            config.setMetricRegistry(meterRegistry);
+            pools.add(new HikariDataSource(config));
+        }
+        log.info("Read-only transactions routed to {} replicas (read-your-writes window {} ms)",
+                pools.size(), readYourWritesMs);
+        return new ReplicaDataSource(pools, primaryDataSource, readYourWritesTracker, maxLagSeconds);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaDataSource replicas, ReadYourWritesTracker readYourWritesTracker) {
+        return registry -> {
+            Gauge.builder("app.db.replicas.healthy", replicas, ReplicaDataSource::getHealthyReplicaCount)
+                    .description("Replicas currently taking read-only connections")
+                    .register(registry);
+            Gauge.builder("app.db.replicas", replicas, ReplicaDataSource::getReplicaCount)
+                    .description("Configured read replicas")
+                    .register(registry);
+            Gauge.builder("app.db.read.your.writes.pinned", readYourWritesTracker, ReadYourWritesTracker::size)
+                    .description("Users whose reads stay on the primary after a recent write")
+                    .register(registry);
+            FunctionCounter.builder("app.db.read.connections", replicas, ReplicaDataSource::getReplicaConnectionCount)
+                    .description("Connections handed out for read-only transactions")
+                    .tag("route", "replica")
+                    .register(registry);
+            FunctionCounter.builder("app.db.read.connections", replicas, ReplicaDataSource::getPinnedConnectionCount)
+                    .description("Connections handed out for read-only transactions")
+                    .tag("route", "primary_pinned")
+                    .register(registry);
+            FunctionCounter.builder("app.db.read.connections", replicas, ReplicaDataSource::getFallbackConnectionCount)
+                    .description("Connections handed out for read-only transactions")
+                    .tag("route", "primary_fallback")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs such as the admin stats reconcile
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
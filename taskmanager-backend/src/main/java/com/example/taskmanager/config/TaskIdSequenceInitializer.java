@@ -0,0 +1,41 @@
+package com.example.taskmanager.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task ids come from a pooled sequence so Hibernate can batch inserts. MySQL has no sequences,
+ * so Hibernate emulates {@code tasks_seq} with a one-row table; when that table is created next
+ * to existing AUTO_INCREMENT rows it starts at 1, so move it past the highest id in use. Created
+ * eagerly even under {@code spring.main.lazy-initialization}, before the first insert can run.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class TaskIdSequenceInitializer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the schema update has created tasks_seq first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void alignSequenceWithExistingIds() {
+        try {
+            int updated = jdbcTemplate.update(
+                    "update tasks_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 1 from tasks))");
+            log.debug("Aligned tasks_seq with existing task ids ({} row)", updated);
+        } catch (DataAccessException e) {
+            // Databases with native sequences have no tasks_seq table
+            log.debug("tasks_seq table not present, skipping alignment: {}", e.getMessage());
+        }
+    }
+}
@@ -1,4 +1,26 @@
 package com.example.taskmanager.config;
 
-public class WebConfig {
+import com.example.taskmanager.metrics.RequestMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${diagnostics.statements.default-budget:20}")
+    private int defaultStatementBudget;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Repository calls and SQL statements per request, by endpoint, checked against @StatementBudget
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry, defaultStatementBudget))
+                .addPathPatterns("/api/**");
+    }
 }
@@ -1,21 +1,37 @@
 package com.example.taskmanager.controller;
 
-import com.example.taskmanager.model.Task;
-import com.example.taskmanager.model.User;
+import com.example.taskmanager.dto.request.ExportFormat;
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.dto.response.AdminStatsResponse;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.AuditStatsResponse;
+import com.example.taskmanager.dto.response.CacheStatsResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.ErrorResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.dto.response.UserResponse;
+import com.example.taskmanager.dto.response.UserTasksResponse;
+import com.example.taskmanager.exception.TooManyRequestsException;
+import com.example.taskmanager.metrics.StatementBudget;
+import com.example.taskmanager.service.AuditService;
+import com.example.taskmanager.service.StatsService;
+import com.example.taskmanager.service.TaskExportService;
 import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskStreamService;
 import com.example.taskmanager.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -29,32 +45,33 @@ public class AdminController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private AuditService auditService;
+
     // GET ALL USERS (Admin only)
+    @StatementBudget(1)
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers(Authentication authentication) {
         try {
             if (!isAdmin(authentication)) {
                 log.warn("Non-admin user attempted to access all users: {}", authentication.getName());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied. Admin role required."));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
             }
 
-            List<User> users = userService.getAllUsers();
-
-            // Remove passwords from response for security
-            List<Map<String, Object>> safeUsers = users.stream()
-                    .map(user -> {
-                        Map<String, Object> userInfo = new HashMap<>();
-                        userInfo.put("id", user.getId());
-                        userInfo.put("username", user.getUsername());
-                        userInfo.put("email", user.getEmail());
-                        userInfo.put("role", user.getRole());
-                        userInfo.put("createdAt", user.getCreatedAt());
-                        return userInfo;
-                    })
-                    .collect(Collectors.toList());
+            // Projection without the password column
+            List<UserResponse> users = userService.getAllUsers();
 
             log.info("Admin {} retrieved all users, count: {}", authentication.getName(), users.size());
-            return ResponseEntity.ok(safeUsers);
+            return ResponseEntity.ok(users);
 
         } catch (Exception e) {
             log.error("Error in getAllUsers: ", e);
@@ -63,51 +80,20 @@ public class AdminController {
     }
 
     // GET ALL TASKS WITH USER INFO (Admin only)
+    @StatementBudget(1)
     @GetMapping("/tasks")
-    public ResponseEntity<?> getAllTasksWithUsers(Authentication authentication) {
+    public ResponseEntity<?> getAllTasksWithUsers(@ModelAttribute TaskQuery query, Authentication authentication) {
         try {
             if (!isAdmin(authentication)) {
                 log.warn("Non-admin user attempted to access all tasks: {}", authentication.getName());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied. Admin role required."));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
             }
 
-            List<Task> tasks = taskService.getAllTasks();
-
-            List<Map<String, Object>> tasksWithUsers = tasks.stream()
-                    .map(task -> {
-                        Map<String, Object> taskInfo = new HashMap<>();
-                        taskInfo.put("id", task.getId());
-                        taskInfo.put("title", task.getTitle());
-                        taskInfo.put("description", task.getDescription());
-                        taskInfo.put("completed", task.isCompleted());
-                        taskInfo.put("createdAt", task.getCreatedAt());
-                        taskInfo.put("updatedAt", task.getUpdatedAt());
-
-                        // SAFELY get user information with null checks
-                        try {
-                            User user = task.getUser();
-                            if (user != null) {
-                                Map<String, Object> userInfo = new HashMap<>();
-                                userInfo.put("id", user.getId());
-                                userInfo.put("username", user.getUsername());
-                                userInfo.put("email", user.getEmail());
-                                taskInfo.put("user", userInfo);
-                            } else {
-                                // Handle case where user is null
-                                taskInfo.put("user", Map.of("error", "User not found"));
-                            }
-                        } catch (Exception e) {
-                            // Handle lazy loading or other exceptions
-                            log.warn("Error loading user for task {}: {}", task.getId(), e.getMessage());
-                            taskInfo.put("user", Map.of("error", "Unable to load user data"));
-                        }
-
-                        return taskInfo;
-                    })
-                    .collect(Collectors.toList());
-
-            log.info("Admin {} retrieved all tasks with user info, count: {}", authentication.getName(), tasks.size());
-            return ResponseEntity.ok(tasksWithUsers);
+            // Owner columns are selected by the same query; no User entities are loaded
+            CursorPage<AdminTaskResponse> page = taskService.getAllTasks(query);
+
+            log.info("Admin {} retrieved all tasks with user info, count: {}", authentication.getName(), page.getItems().size());
+            return PageHeaders.ok(page, page.getItems());
 
         } catch (Exception e) {
             log.error("Error in getAllTasksWithUsers: ", e);
@@ -115,55 +101,93 @@ public class AdminController {
         }
     }
 
+    // EXPORT ALL TASKS WITH USER INFO AS NDJSON OR CSV (Admin only)
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            log.warn("Non-admin user attempted to export tasks: {}", authentication.getName());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unsupported export format requested: {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Rows are written to the response as they are read from the database
+        StreamingResponseBody body = out -> taskExportService.exportAllTasks(exportFormat, out);
+
+        log.info("Admin {} started task export as {}", authentication.getName(), exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // STREAM EVERY USER'S TASK CHANGES (Admin only, Server-Sent Events)
+    @GetMapping(value = "/tasks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAllTasks(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            log.warn("Non-admin user attempted to open the task firehose: {}", authentication.getName());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            SseEmitter emitter = taskStreamService.subscribeAll();
+            log.info("Admin {} opened the task firehose", authentication.getName());
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())).build();
+        }
+    }
+
     // GET TASKS BY SPECIFIC USER (Admin only)
+    @StatementBudget(4)
     @GetMapping("/users/{userId}/tasks")
-    public ResponseEntity<?> getUserTasks(@PathVariable Long userId, Authentication authentication) {
+    public ResponseEntity<?> getUserTasks(@PathVariable Long userId, @ModelAttribute TaskQuery query,
+                                          Authentication authentication) {
         try {
             if (!isAdmin(authentication)) {
                 log.warn("Non-admin user attempted to access user tasks: {}", authentication.getName());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied. Admin role required."));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
             }
 
-            List<Task> tasks = taskService.getUserTasks(userId);
+            CursorPage<TaskResponse> page = taskService.getUserTasks(userId, query);
+            List<TaskResponse> tasks = page.getItems();
 
             // Get user info
-            User user = userService.getUserById(userId)
+            UserResponse user = userService.getUserById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("user", Map.of(
-                    "id", user.getId(),
-                    "username", user.getUsername(),
-                    "email", user.getEmail(),
-                    "role", user.getRole()
-            ));
-            response.put("tasks", tasks);
-            response.put("taskCount", tasks.size());
+            // taskCount is the user's total, not the size of this page
+            UserTasksResponse response = new UserTasksResponse(user, tasks, statsService.getUserTaskCount(userId), page.getNextCursor());
 
             log.info("Admin {} retrieved tasks for user: {}, count: {}", authentication.getName(), user.getUsername(), tasks.size());
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             log.error("Error in getUserTasks for user {}: ", userId, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(e.getMessage()));
         }
     }
 
     // GET ADMIN STATISTICS
+    @StatementBudget(0)
     @GetMapping("/stats")
     public ResponseEntity<?> getAdminStats(Authentication authentication) {
         try {
             if (!isAdmin(authentication)) {
                 log.warn("Non-admin user attempted to access admin stats: {}", authentication.getName());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied. Admin role required."));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
             }
 
-            long totalUsers = userService.getUserCount();
-            long totalTasks = taskService.getTotalTaskCount(); // ✅ ADDED BACK
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalUsers", totalUsers);
-            stats.put("totalTasks", totalTasks); // ✅ ADDED BACK
+            // Served from in-memory counters maintained by StatsService, not COUNT(*) queries
+            AdminStatsResponse stats = statsService.getStats();
 
             log.info("Admin {} accessed system statistics", authentication.getName());
             return ResponseEntity.ok(stats);
@@ -174,6 +198,44 @@ public class AdminController {
         }
     }
 
+    // CACHE STATISTICS (Admin only)
+    @StatementBudget(0)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                log.warn("Non-admin user attempted to access cache stats: {}", authentication.getName());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
+            }
+
+            List<CacheStatsResponse> stats = statsService.getCacheStats();
+            return ResponseEntity.ok(stats);
+
+        } catch (Exception e) {
+            log.error("Error in getCacheStats: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // AUDIT PIPELINE STATISTICS (Admin only)
+    @StatementBudget(1)
+    @GetMapping("/audit-stats")
+    public ResponseEntity<?> getAuditStats(Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                log.warn("Non-admin user attempted to access audit stats: {}", authentication.getName());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied. Admin role required."));
+            }
+
+            AuditStatsResponse stats = auditService.getStats();
+            return ResponseEntity.ok(stats);
+
+        } catch (Exception e) {
+            log.error("Error in getAuditStats: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // FIXED: Helper method to check if user is admin - works with UserDetails
     private boolean isAdmin(Authentication authentication) {
         return authentication.getAuthorities().stream()
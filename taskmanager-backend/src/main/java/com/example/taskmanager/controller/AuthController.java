@@ -4,9 +4,12 @@ import com.example.taskmanager.dto.request.LoginRequest;
 import com.example.taskmanager.dto.request.RegisterRequest;
 import com.example.taskmanager.dto.response.AuthResponse;
 import com.example.taskmanager.dto.response.ApiResponse;
+import com.example.taskmanager.exception.TooManyRequestsException;
+import com.example.taskmanager.metrics.StatementBudget;
 import com.example.taskmanager.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +23,7 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @StatementBudget(5)
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         try {
@@ -31,6 +35,8 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
 
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ApiResponse(false, "Registration failed: " + e.getMessage())
@@ -38,12 +44,15 @@ public class AuthController {
         }
     }
 
+    @StatementBudget(3)
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
             AuthResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
 
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ApiResponse(false, "Login failed: " + e.getMessage())
@@ -51,4 +60,9 @@ public class AuthController {
         }
     }
 
-}
\ No newline at end of file
+    private ResponseEntity<ApiResponse> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ApiResponse(false, e.getMessage()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.exception.PreconditionFailedException;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+// Single tasks get a strong ETag from their @Version; lists get a weak one from the collection tag and the query
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String forVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // The query is spelled out rather than hashed, so two different queries can never share a tag
+    static String forCollection(String collectionTag, TaskQuery query) {
+        StringBuilder tag = new StringBuilder("W/\"").append(collectionTag);
+        param(tag, "completed", query.getCompleted());
+        param(tag, "createdFrom", query.getCreatedFrom());
+        param(tag, "createdTo", query.getCreatedTo());
+        param(tag, "updatedFrom", query.getUpdatedFrom());
+        param(tag, "updatedTo", query.getUpdatedTo());
+        param(tag, "titlePrefix", query.getTitlePrefix());
+        param(tag, "cursor", query.getCursor());
+        param(tag, "limit", query.getLimit());
+        return tag.append('"').toString();
+    }
+
+    // Percent-encoded, so values cannot contain the separators or a quote
+    private static void param(StringBuilder tag, String name, Object value) {
+        if (value != null) {
+            tag.append('&').append(name).append('=').append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // The version an If-Match header asks for; null when absent or "*". Weak or malformed tags never match.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        try {
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 2) {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new PreconditionFailedException("If-Match does not name a task version: " + ifMatch);
+    }
+
+    // Weak comparison, as If-None-Match requires
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
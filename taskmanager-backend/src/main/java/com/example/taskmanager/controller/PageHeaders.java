@@ -0,0 +1,31 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.response.CursorPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// Paged lists keep a plain JSON array body; the keyset position for the next page travels in a header
+final class PageHeaders {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private PageHeaders() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(CursorPage<?> page, List<T> body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.hasMore()) {
+            builder.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return builder.body(body);
+    }
+
+    static <T> ResponseEntity<List<T>> ok(CursorPage<?> page, List<T> body, String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag);
+        if (page.hasMore()) {
+            builder.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return builder.body(body);
+    }
+}
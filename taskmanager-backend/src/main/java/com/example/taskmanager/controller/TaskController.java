@@ -1,18 +1,38 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.request.BatchUpdateTaskRequest;
 import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.LabelQuery;
+import com.example.taskmanager.dto.request.TaskQuery;
 import com.example.taskmanager.dto.request.UpdateTaskRequest;
-import com.example.taskmanager.model.Task;
-import com.example.taskmanager.model.User;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.ErrorResponse;
+import com.example.taskmanager.dto.response.LabelCountResponse;
+import com.example.taskmanager.dto.response.TaskChangesResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.exception.AccessDeniedException;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.exception.ResourceNotFoundException;
+import com.example.taskmanager.exception.SyncTokenExpiredException;
+import com.example.taskmanager.exception.TooManyRequestsException;
+import com.example.taskmanager.metrics.StatementBudget;
+import com.example.taskmanager.security.UserPrincipal;
+import com.example.taskmanager.service.TaskLabelService;
+import com.example.taskmanager.service.TaskSearchService;
 import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskStreamService;
+import com.example.taskmanager.service.TaskSyncService;
+import com.example.taskmanager.service.TaskVersionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import com.example.taskmanager.repository.UserRepository;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -26,73 +46,239 @@ public class TaskController {
     private TaskService taskService;
 
     @Autowired
-    private UserRepository userRepository;
+    private TaskVersionService taskVersionService;
 
-    // GET ALL TASKS FOR CURRENT USER
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskLabelService taskLabelService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    // GET TASKS FOR CURRENT USER (one page, newest first)
+    @StatementBudget(3)
     @GetMapping
-    public ResponseEntity<List<Task>> getUserTasks(Authentication authentication) {
-        String username = authentication.getName();
+    public ResponseEntity<List<TaskResponse>> getUserTasks(@ModelAttribute TaskQuery query,
+                                                   @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                                   @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
 
         try {
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.warn("User not found: {}", username);
-                        return new RuntimeException("User not found: " + username);
-                    });
+            // Read the tag before the page so a concurrent change can only make it look older, never newer
+            String etag = ETags.forCollection(taskVersionService.collectionTag(currentUser.getId()), query);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
 
-            List<Task> tasks = taskService.getUserTasks(currentUser.getId());
-            log.info("Retrieved {} tasks for user: {}", tasks.size(), username);
+            CursorPage<TaskResponse> page = taskService.getUserTasks(currentUser.getId(), query);
+            log.info("Retrieved {} tasks for user: {}", page.getItems().size(), username);
 
-            return ResponseEntity.ok(tasks);
+            return PageHeaders.ok(page, page.getItems(), etag);
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad task query from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching tasks for user: {}", username, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    // GET ALL TASKS (ADMIN ONLY)
+    // GET ALL TASKS (ADMIN ONLY, one page, newest first)
+    @StatementBudget(1)
     @GetMapping("/all")
-    public ResponseEntity<List<Task>> getAllTasks(Authentication authentication) {
+    public ResponseEntity<List<AdminTaskResponse>> getAllTasks(@ModelAttribute TaskQuery query,
+                                                  @AuthenticationPrincipal UserPrincipal currentUser) {
         try {
-            // Check if user is admin using authorities
-            boolean isAdmin = authentication.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .anyMatch(role -> role.equals("ROLE_ADMIN"));
-
-            if (!isAdmin) {
-                log.warn("Non-admin user attempted to access all tasks: {}", authentication.getName());
+            if (!currentUser.isAdmin()) {
+                log.warn("Non-admin user attempted to access all tasks: {}", currentUser.getUsername());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<Task> tasks = taskService.getAllTasks();
-            log.info("Admin {} retrieved all tasks, count: {}", authentication.getName(), tasks.size());
-            return ResponseEntity.ok(tasks);
+            CursorPage<AdminTaskResponse> page = taskService.getAllTasks(query);
+            log.info("Admin {} retrieved all tasks, count: {}", currentUser.getUsername(), page.getItems().size());
+            return PageHeaders.ok(page, page.getItems());
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad task query from admin: {} - {}", currentUser.getUsername(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error in getAllTasks: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // SEARCH CURRENT USER'S TASKS BY TITLE AND DESCRIPTION (best matches first)
+    @StatementBudget(2)
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> searchTasks(@RequestParam("q") String q,
+                                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                                          @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            // The index is rebuilt from the database right after startup
+            if (!taskSearchService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+
+            List<TaskResponse> tasks = taskSearchService.search(currentUser.getId(), q, limit);
+            log.debug("Search by user: {} returned {} tasks", username, tasks.size());
+            return ResponseEntity.ok(tasks);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad search query from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error searching tasks for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // CURRENT USER'S TASKS BY LABELS: all of, any of, none of, optionally by completion (one page, newest first)
+    @StatementBudget(2)
+    @GetMapping("/by-labels")
+    public ResponseEntity<List<TaskResponse>> getTasksByLabels(@ModelAttribute LabelQuery query,
+                                                               @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            // The index is rebuilt from the database right after startup
+            if (!taskLabelService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+
+            CursorPage<TaskResponse> page = taskLabelService.findTasks(currentUser.getId(), query);
+            log.debug("Label filter by user: {} returned {} tasks", username, page.getItems().size());
+            return PageHeaders.ok(page, page.getItems());
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad label query from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error filtering tasks by labels for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // CURRENT USER'S LABELS WITH TASK COUNTS (by name)
+    @StatementBudget(0)
+    @GetMapping("/labels")
+    public ResponseEntity<List<LabelCountResponse>> getLabelCounts(@AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            if (!taskLabelService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+
+            List<LabelCountResponse> labels = taskLabelService.getLabelCounts(currentUser.getId());
+            log.debug("Retrieved {} labels for user: {}", labels.size(), username);
+            return ResponseEntity.ok(labels);
+
+        } catch (Exception e) {
+            log.error("Error retrieving labels for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // CURRENT USER'S OPEN TASKS PAST THEIR DUE DATE (most overdue first)
+    @StatementBudget(2)
+    @GetMapping("/overdue")
+    public ResponseEntity<List<TaskResponse>> getOverdueTasks(@RequestParam(value = "limit", required = false) Integer limit,
+                                                              @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            List<TaskResponse> tasks = taskService.getOverdueTasks(currentUser.getId(), limit);
+            log.debug("Retrieved {} overdue tasks for user: {}", tasks.size(), username);
+            return ResponseEntity.ok(tasks);
+
+        } catch (Exception e) {
+            log.error("Error retrieving overdue tasks for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // CURRENT USER'S OPEN TASKS DUE WITHIN THE NEXT HOURS (soonest first)
+    @StatementBudget(2)
+    @GetMapping("/due-soon")
+    public ResponseEntity<List<TaskResponse>> getTasksDueSoon(@RequestParam(value = "hours", required = false) Integer hours,
+                                                              @RequestParam(value = "limit", required = false) Integer limit,
+                                                              @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            List<TaskResponse> tasks = taskService.getTasksDueSoon(currentUser.getId(), hours, limit);
+            log.debug("Retrieved {} tasks due soon for user: {}", tasks.size(), username);
+            return ResponseEntity.ok(tasks);
+
+        } catch (Exception e) {
+            log.error("Error retrieving tasks due soon for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // TASKS CHANGED OR DELETED SINCE A SYNC TOKEN (no token: full sync)
+    @StatementBudget(3)
+    @GetMapping("/changes")
+    public ResponseEntity<?> getTaskChanges(@RequestParam(value = "since", required = false) String since,
+                                            @RequestParam(value = "limit", required = false) Integer limit,
+                                            @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            TaskChangesResponse changes = taskSyncService.getChanges(currentUser.getId(), since, limit);
+            log.debug("Sync for user: {} - {} upserts, {} deletes", username,
+                    changes.getUpserts().size(), changes.getDeletes().size());
+            return ResponseEntity.ok(changes);
+
+        } catch (SyncTokenExpiredException e) {
+            log.debug("Expired sync token from user: {}", username);
+            return ResponseEntity.status(HttpStatus.GONE).body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad sync token from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error syncing tasks for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // STREAM CURRENT USER'S TASK CHANGES (Server-Sent Events)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTasks(@AuthenticationPrincipal UserPrincipal currentUser) {
+        try {
+            SseEmitter emitter = taskStreamService.subscribe(currentUser.getId());
+            log.debug("Task stream opened for user: {}", currentUser.getUsername());
+            // Tell nginx-style proxies not to buffer the stream
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+
+        } catch (TooManyRequestsException e) {
+            log.warn("Task stream refused for user: {} - {}", currentUser.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())).build();
+        }
+    }
+
     // CREATE NEW TASK
+    @StatementBudget(7)
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody CreateTaskRequest request,
-                                           Authentication authentication) {
-        String username = authentication.getName();
+    public ResponseEntity<TaskResponse> createTask(@RequestBody CreateTaskRequest request,
+                                           @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
 
         try {
-            log.info("Creating task for user: {}, title: {}", username, request.getTitle());
+            log.debug("Creating task for user: {}, title: {}", username, request.getTitle());
 
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.warn("User not found during task creation: {}", username);
-                        return new RuntimeException("User not found: " + username);
-                    });
+            TaskResponse task = taskService.createTask(request, currentUser.getId());
+            log.debug("Task created successfully - ID: {}, user: {}", task.getId(), username);
 
-            Task task = taskService.createTask(request, currentUser.getId());
-            log.info("Task created successfully - ID: {}, user: {}", task.getId(), username);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(task);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.forVersion(task.getVersion())).body(task);
 
         } catch (Exception e) {
             log.error("Failed to create task for user: {}, title: {}", username, request.getTitle(), e);
@@ -101,85 +287,168 @@ public class TaskController {
     }
 
     // UPDATE TASK
+    // "Prefer: return=minimal" skips reading the task back and answers 204;
+    // "If-Match" with the task's ETag rejects the write with 412 if someone else changed it first
+    @StatementBudget(9)
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable("id") Long taskId,
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable("id") Long taskId,
                                            @RequestBody UpdateTaskRequest request,
-                                           Authentication authentication) {
-        String username = authentication.getName();
+                                           @RequestHeader(value = "Prefer", required = false) String prefer,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                           @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
 
         try {
-            log.info("Updating task ID: {} for user: {}", taskId, username);
+            log.debug("Updating task ID: {} for user: {}", taskId, username);
+            Long expectedVersion = ETags.expectedVersion(ifMatch);
 
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.warn("User not found during task update: {}", username);
-                        return new RuntimeException("User not found: " + username);
-                    });
+            if (prefer != null && prefer.contains("return=minimal")) {
+                taskService.applyTaskUpdate(taskId, request, currentUser.getId(), expectedVersion);
+                log.debug("Task updated successfully - ID: {}, user: {}", taskId, username);
+                return ResponseEntity.noContent().header("Preference-Applied", "return=minimal").build();
+            }
 
-            Task updatedTask = taskService.updateTask(taskId, request, currentUser.getId());
-            log.info("Task updated successfully - ID: {}, user: {}", taskId, username);
+            TaskResponse updatedTask = taskService.updateTask(taskId, request, currentUser.getId(), expectedVersion);
+            log.debug("Task updated successfully - ID: {}, user: {}", taskId, username);
 
-            return ResponseEntity.ok(updatedTask);
+            return ResponseEntity.ok().eTag(ETags.forVersion(updatedTask.getVersion())).body(updatedTask);
 
+        } catch (PreconditionFailedException e) {
+            log.warn("Stale update for task ID: {}, user: {} - {}", taskId, username, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (Exception e) {
             log.error("Failed to update task ID: {} for user: {}", taskId, username, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    @StatementBudget(4)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
+    public ResponseEntity<?> deleteTask(@PathVariable Long id,
+                                        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                        @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
 
         try {
-            log.info("Deleting task ID: {} for user: {}", id, username);
-
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.warn("User not found during task deletion: {}", username);
-                        return new RuntimeException("User not found: " + username);
-                    });
+            log.debug("Deleting task ID: {} for user: {}", id, username);
 
-            taskService.deleteTask(id, currentUser.getId());
-            log.info("Task deleted successfully - ID: {}, user: {}", id, username);
+            taskService.deleteTask(id, currentUser.getId(), ETags.expectedVersion(ifMatch));
+            log.debug("Task deleted successfully - ID: {}, user: {}", id, username);
 
             return ResponseEntity.ok().build();
 
-        } catch (RuntimeException e) {
+        } catch (PreconditionFailedException e) {
+            log.warn("Stale delete for task ID: {}, user: {} - {}", id, username, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (AccessDeniedException e) {
             log.warn("Delete failed for task ID: {}, user: {} - {}", id, username, e.getMessage());
-            if (e.getMessage().contains("not authorized")) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-            if (e.getMessage().contains("not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ResourceNotFoundException e) {
+            log.warn("Delete failed for task ID: {}, user: {} - {}", id, username, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (Exception e) {
             log.error("Unexpected error deleting task ID: {} for user: {}", id, username, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    // CREATE MANY TASKS IN ONE TRANSACTION
+    @StatementBudget(50)
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> createTasks(@RequestBody List<CreateTaskRequest> requests,
+                                                          @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            List<TaskResponse> tasks = taskService.createTasks(requests, currentUser.getId());
+            log.debug("Batch of {} tasks created for user: {}", tasks.size(), username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(tasks);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected task batch from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to create task batch for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // UPDATE MANY TASKS IN ONE TRANSACTION
+    @StatementBudget(50)
+    @PatchMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> updateTasks(@RequestBody List<BatchUpdateTaskRequest> requests,
+                                                          @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            List<TaskResponse> tasks = taskService.updateTasks(requests, currentUser.getId());
+            log.debug("Batch of {} tasks updated for user: {}", tasks.size(), username);
+            return ResponseEntity.ok(tasks);
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected task batch from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to update task batch for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // DELETE MANY TASKS IN ONE TRANSACTION
+    @StatementBudget(50)
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteTasks(@RequestBody List<Long> ids,
+                                         @AuthenticationPrincipal UserPrincipal currentUser) {
+        String username = currentUser.getUsername();
+
+        try {
+            int deleted = taskService.deleteTasks(ids, currentUser.getId());
+            log.debug("Batch of {} tasks deleted for user: {}", deleted, username);
+            return ResponseEntity.ok().build();
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected task batch from user: {} - {}", username, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to delete task batch for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     // GET TASK BY ID
+    @StatementBudget(2)
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id,
-                                            Authentication authentication) {
+    public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                            @AuthenticationPrincipal UserPrincipal currentUser) {
         try {
-            String username = authentication.getName();
-
-            // Get the current user from database using username
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+            String username = currentUser.getUsername();
 
-            Task task = taskService.getTaskById(id);
+            TaskResponse task = taskService.getTaskById(id);
 
             // Check if task belongs to current user
-            if (!task.getUser().getId().equals(currentUser.getId())) {
+            if (!currentUser.getId().equals(task.getUserId())) {
                 log.warn("User {} attempted to access task {} belonging to another user", username, id);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            return ResponseEntity.ok(task);
+            String etag = ETags.forVersion(task.getVersion());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(task);
         } catch (Exception e) {
             log.error("Error getting task by ID {}: ", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -0,0 +1,72 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.security.UserPrincipal;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users who changed a task within the last {@code db.replicas.read-your-writes-ms}. Their
+ * read-only work stays on the primary, so a list read right after a write never comes from a
+ * replica that has not applied it yet. Pins live in this instance only; with several instances
+ * behind a load balancer the window only holds for requests that land on the same one.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+
+    // User id to System.nanoTime() deadline
+    private final ConcurrentHashMap<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    // After commit: the window starts when the write becomes visible on the primary
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        pin(event.userId());
+    }
+
+    public void pin(Long userId) {
+        if (userId != null && windowNanos > 0) {
+            pinnedUntil.put(userId, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean isPinned(Long userId) {
+        Long until = pinnedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(userId, until);
+        return false;
+    }
+
+    // Requests without an authenticated user (login, background jobs) are never pinned
+    public boolean isCurrentUserPinned() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal principal
+                && isPinned(principal.getId());
+    }
+
+    public int size() {
+        return pinnedUntil.size();
+    }
+
+    // Pins of users who did not read again are otherwise never looked at
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
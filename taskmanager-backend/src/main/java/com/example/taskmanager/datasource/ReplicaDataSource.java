@@ -0,0 +1,175 @@
+package com.example.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connections for read-only transactions: round-robin over the replica pools that passed their
+ * last health check, or the primary when the current user is pinned by
+ * {@link ReadYourWritesTracker}, no replica is usable, or the transaction is one Spring Data
+ * started around a single repository call rather than a {@code readOnly} service method.
+ * <p>
+ * A replica is taken out of rotation when a connection attempt fails or the periodic check finds
+ * it unreachable or further behind than {@code db.replicas.max-lag-seconds}, and put back by the
+ * first check that passes.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String SPRING_DATA_TRANSACTION = "org.springframework.data.";
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long maxLagSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong pinnedConnections = new AtomicLong();
+    private final AtomicLong fallbackConnections = new AtomicLong();
+
+    public ReplicaDataSource(List<HikariDataSource> pools, DataSource primary, ReadYourWritesTracker readYourWrites,
+                             long maxLagSeconds) {
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!declaredReadOnly()) {
+            return primary.getConnection();
+        }
+        if (readYourWrites.isCurrentUserPinned()) {
+            pinnedConnections.incrementAndGet();
+            return primary.getConnection();
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaConnections.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+
+        fallbackConnections.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    // Spring Data wraps a repository method called outside a service transaction (login, startup
+    // loads) in its own read-only one; only read paths the application marked read-only may lag
+    private static boolean declaredReadOnly() {
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        return transaction != null && !transaction.startsWith(SPRING_DATA_TRANSACTION);
+    }
+
+    // Replica credentials are fixed per pool
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("ReplicaDataSource does not take per-connection credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${db.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(2)) {
+                    markDown(replica, "connection not valid");
+                    continue;
+                }
+                long lag = maxLagSeconds > 0 ? lagSeconds(connection) : 0;
+                if (lag > maxLagSeconds) {
+                    markDown(replica, lag == Long.MAX_VALUE ? "replication stopped" : lag + " s behind the primary");
+                } else {
+                    markUp(replica);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    // MySQL 8.0.22+; no row means the server is not replicating, e.g. a standalone instance in development
+    private static long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return 0;
+            }
+            long lag = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Read replica {} out of rotation: {}", replica.pool.getPoolName(), reason);
+        }
+    }
+
+    private static void markUp(Replica replica) {
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("Read replica {} back in rotation", replica.pool.getPoolName());
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    public long getReplicaConnectionCount() {
+        return replicaConnections.get();
+    }
+
+    public long getPinnedConnectionCount() {
+        return pinnedConnections.get();
+    }
+
+    public long getFallbackConnectionCount() {
+        return fallbackConnections.get();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        // Optimistic at startup; the first check runs right away
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
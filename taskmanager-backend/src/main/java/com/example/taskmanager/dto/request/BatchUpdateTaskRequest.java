@@ -0,0 +1,11 @@
+package com.example.taskmanager.dto.request;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+// One entry of PATCH /api/tasks/batch: the task id plus the fields to change
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BatchUpdateTaskRequest extends UpdateTaskRequest {
+    private Long id;
+}
@@ -4,6 +4,9 @@ import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Data
 public class CreateTaskRequest {
@@ -14,4 +17,11 @@ public class CreateTaskRequest {
 
     @Size(max = 1000, message = "Description cannot exceed 1000 characters")
     private String description;
+
+    // Optional; a reminder fires at remindAt whether or not the task has a due date
+    private LocalDateTime dueAt;
+    private LocalDateTime remindAt;
+
+    // Label names, created for the user on first use; see Labels for the rules
+    private List<String> labels;
 }
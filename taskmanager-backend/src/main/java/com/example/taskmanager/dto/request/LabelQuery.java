@@ -0,0 +1,25 @@
+package com.example.taskmanager.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Label filter for GET /api/tasks/by-labels; each list is comma-separated or a repeated parameter
+@Data
+public class LabelQuery {
+    // Tasks must carry every one of these
+    private List<String> all;
+
+    // ... and at least one of these, when given
+    private List<String> any;
+
+    // ... and none of these
+    private List<String> none;
+
+    private Boolean completed;
+
+    // Opaque value returned as X-Next-Cursor by the previous page
+    private String cursor;
+
+    private Integer limit;
+}
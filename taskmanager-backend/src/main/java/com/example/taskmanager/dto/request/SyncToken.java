@@ -0,0 +1,32 @@
+package com.example.taskmanager.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync watermark: keyset positions in the upserts, ordered by
+ * {@code (updatedAt, id)}, and in the tombstones, ordered by {@code (deletedAt, taskId)}.
+ * While a sync is paging, {@code resumeFrom} remembers where the next catch-up sync must
+ * restart so rows committed late during the paging are not skipped; it is null otherwise.
+ */
+public record SyncToken(LocalDateTime upsertsAfter, Long upsertsAfterId,
+                        LocalDateTime deletesAfter, Long deletesAfterId,
+                        LocalDateTime resumeFrom) {
+
+    public String encode() {
+        String raw = upsertsAfter + "|" + upsertsAfterId + "|" + deletesAfter + "|" + deletesAfterId + "|" + resumeFrom;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new SyncToken(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]),
+                    "null".equals(parts[4]) ? null : LocalDateTime.parse(parts[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -2,9 +2,38 @@ package com.example.taskmanager.dto.request;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 public class UpdateTaskRequest {
     private String title;
     private String description;
     private Boolean completed;
+    private LocalDateTime dueAt;
+    private LocalDateTime remindAt;
+
+    // A null field means "unchanged", so removing a due date or reminder takes an explicit flag
+    private Boolean clearDueAt;
+    private Boolean clearRemindAt;
+
+    // Replaces all of the task's labels; null keeps them, an empty list removes them
+    private List<String> labels;
+
+    public boolean changesSchedule() {
+        return dueAt != null || remindAt != null || Boolean.TRUE.equals(clearDueAt) || Boolean.TRUE.equals(clearRemindAt);
+    }
+
+    public boolean changesContent() {
+        return title != null || description != null || changesSchedule() || labels != null;
+    }
+
+    // The dueAt and remindAt a task ends up with after this update
+    public LocalDateTime resolveDueAt(LocalDateTime current) {
+        return Boolean.TRUE.equals(clearDueAt) ? null : dueAt != null ? dueAt : current;
+    }
+
+    public LocalDateTime resolveRemindAt(LocalDateTime current) {
+        return Boolean.TRUE.equals(clearRemindAt) ? null : remindAt != null ? remindAt : current;
+    }
 }
\ No newline at end of file
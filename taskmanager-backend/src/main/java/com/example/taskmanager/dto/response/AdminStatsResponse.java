@@ -0,0 +1,23 @@
+package com.example.taskmanager.dto.response;
+
+import com.example.taskmanager.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminStatsResponse {
+    private long totalUsers;
+    private long totalTasks;
+    private long completedTasks;
+    private long openTasks;
+    private Map<Role, Long> usersByRole;
+
+    // When the in-memory counters were last corrected against the database
+    private Instant lastReconciledAt;
+}
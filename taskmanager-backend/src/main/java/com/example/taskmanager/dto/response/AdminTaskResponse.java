@@ -0,0 +1,31 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class AdminTaskResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private UserSummary user;
+
+    // Flat constructor used by JPQL constructor expressions in TaskRepository
+    public AdminTaskResponse(Long id, String title, String description, boolean completed,
+                             LocalDateTime createdAt, LocalDateTime updatedAt,
+                             Long userId, String username, String email) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = userId == null ? null : new UserSummary(userId, username, email);
+    }
+}
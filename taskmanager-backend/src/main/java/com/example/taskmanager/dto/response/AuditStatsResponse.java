@@ -0,0 +1,27 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStatsResponse {
+    // Events committed to the outbox and not yet written to the audit log
+    private long outboxBacklog;
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    // Hand-offs refused because the queue was full; those events wait in the outbox for the sweep
+    private long rejected;
+    private long recovered;
+    private long written;
+    private long writeErrors;
+    // Events that could not be serialized; they stay in the outbox until someone looks at them
+    private long poisoned;
+    private long activeFileBytes;
+    private Instant lastWriteAt;
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+
+    // Null when this is the last page
+    private String nextCursor;
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelCountResponse {
+    private String name;
+    private long count;
+    private long openCount;
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One change pushed over the task stream; task is the current state, null for deletes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeResponse {
+    private String type;
+    private Long taskId;
+    private Long userId;
+    private TaskResponse task;
+}
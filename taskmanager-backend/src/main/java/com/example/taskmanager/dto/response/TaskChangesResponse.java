@@ -0,0 +1,18 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Apply upserts, then deletes; pass nextToken as "since" on the next call, at once while hasMore
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesResponse {
+    private List<TaskResponse> upserts;
+    private List<Long> deletes;
+    private String nextToken;
+    private boolean hasMore;
+}
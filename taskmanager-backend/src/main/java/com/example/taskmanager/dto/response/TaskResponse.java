@@ -1,4 +1,51 @@
 package com.example.taskmanager.dto.response;
 
+import com.example.taskmanager.model.Task;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
 public class TaskResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+    private LocalDateTime dueAt;
+    private LocalDateTime remindAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    // Label names in name order; queries leave it null and the task service fills it from the label index
+    private List<String> labels;
+
+    // Owner id for access checks; the response body only ever goes to the owner or an admin
+    @JsonIgnore
+    private Long userId;
+
+    // Flat constructor used by JPQL constructor expressions in TaskRepository
+    public TaskResponse(Long id, String title, String description, boolean completed, LocalDateTime dueAt,
+                        LocalDateTime remindAt, LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                        Long userId) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.dueAt = dueAt;
+        this.remindAt = remindAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.userId = userId;
+    }
+
+    public static TaskResponse from(Task task) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                task.getDueAt(), task.getRemindAt(), task.getCreatedAt(), task.getUpdatedAt(), task.getVersion(), task.getUser() == null ? null : task.getUser().getId());
+    }
 }
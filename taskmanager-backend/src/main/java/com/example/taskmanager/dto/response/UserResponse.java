@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto.response;
+
+import com.example.taskmanager.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private Role role;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.example.taskmanager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTasksResponse {
+    private UserResponse user;
+    private List<TaskResponse> tasks;
+    private long taskCount;
+    private String nextCursor;
+}
@@ -0,0 +1,52 @@
+package com.example.taskmanager.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by the task service for every create, update and delete. Listeners that keep
+ * derived state (counters, caches, indexes) use {@code @TransactionalEventListener} so they
+ * only see changes that were committed.
+ * <p>
+ * {@code completedKnown} tells whether {@code completed} is the task's actual state: title and
+ * description edits are written without reading the row, and single deletes are one conditional
+ * statement that does not read it either. {@code completedChanged} is only set by updates that
+ * flipped the flag.
+ * {@code title} and {@code description} carry the new text; on updates null means unchanged.
+ * {@code remindAt} is only set on creates; updates instead flag {@code scheduleChanged} when
+ * they set or cleared the due date or reminder. {@code labels} are the task's normalized label
+ * names; on updates null means unchanged.
+ */
+public record TaskChangedEvent(Type type, Long taskId, Long userId, boolean completed, boolean completedKnown,
+                               boolean completedChanged, String title, String description, LocalDateTime remindAt, boolean scheduleChanged,
+                               List<String> labels) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TaskChangedEvent created(Long taskId, Long userId, boolean completed, String title, String description,
+                                           LocalDateTime remindAt, List<String> labels) {
+        return new TaskChangedEvent(Type.CREATED, taskId, userId, completed, true, false, title, description, remindAt,
+                false, labels);
+    }
+
+    public static TaskChangedEvent updated(Long taskId, Long userId, boolean completed, boolean completedKnown,
+                                           boolean completedChanged, String title, String description,
+                                           boolean scheduleChanged, List<String> labels) {
+        return new TaskChangedEvent(Type.UPDATED, taskId, userId, completed, completedKnown, completedChanged, title,
+                description, null, scheduleChanged, labels);
+    }
+
+    // completed is the state the task had when it was deleted
+    public static TaskChangedEvent deleted(Long taskId, Long userId, boolean completed) {
+        return new TaskChangedEvent(Type.DELETED, taskId, userId, completed, true, false, null, null, null, false,
+                null);
+    }
+
+    // Deleted without reading the row, so its completed state is unknown
+    public static TaskChangedEvent deleted(Long taskId, Long userId) {
+        return new TaskChangedEvent(Type.DELETED, taskId, userId, false, false, false, null, null, null, false,
+                null);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.taskmanager.event;
+
+// Published for every login attempt; userId is null when the username is unknown
+public record UserLoggedInEvent(Long userId, String username, boolean success) {
+}
@@ -0,0 +1,6 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.model.Role;
+
+public record UserRegisteredEvent(Long userId, String username, Role role) {
+}
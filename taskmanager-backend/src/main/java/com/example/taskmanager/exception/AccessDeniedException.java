@@ -1,4 +1,8 @@
 package com.example.taskmanager.exception;
 
-public class AccessDeniedException {
+// Thrown when a user acts on a resource owned by someone else
+public class AccessDeniedException extends RuntimeException {
+    public AccessDeniedException(String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.taskmanager.exception;
+
+// Thrown when a conditional request (If-Match) names a version that is no longer current
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
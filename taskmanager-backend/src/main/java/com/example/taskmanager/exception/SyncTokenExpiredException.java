@@ -0,0 +1,8 @@
+package com.example.taskmanager.exception;
+
+// Thrown when a sync token predates the retained tombstones; the client must do a full sync (410)
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.taskmanager.label;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Label and completion bitmaps over one user's task ids.
+ * <p>
+ * Holds a {@link RoaringBitmap} of all the user's tasks, one of the completed ones and one per
+ * label. A filter is then a handful of bitmap operations: AND over the labels a task must all
+ * carry, OR over the labels it needs any of, AND NOT the labels it must not carry, and AND or AND
+ * NOT the completed set. Label counts are the bitmaps' cardinalities. Labels left without tasks
+ * are dropped.
+ * <p>
+ * Thread-safe: reads share a read lock, changes take the write lock.
+ */
+public final class LabelIndex {
+
+    public record Entry(long id, boolean completed, Collection<String> labels) {
+    }
+
+    public record LabelCount(String name, long count, long openCount) {
+    }
+
+    private RoaringBitmap tasks = new RoaringBitmap();
+    private RoaringBitmap completed = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> labels = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null labels keeps the task's current labels
+    public void put(long id, boolean isCompleted, Collection<String> taskLabels) {
+        lock.writeLock().lock();
+        try {
+            tasks.add(id);
+            setCompleted(id, isCompleted);
+            if (taskLabels != null) {
+                unlabel(id);
+                for (String label : taskLabels) {
+                    labels.computeIfAbsent(label, name -> new RoaringBitmap()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setLabels(long id, Collection<String> taskLabels) {
+        lock.writeLock().lock();
+        try {
+            if (tasks.contains(id)) {
+                unlabel(id);
+                for (String label : taskLabels) {
+                    labels.computeIfAbsent(label, name -> new RoaringBitmap()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateCompleted(long id, boolean isCompleted) {
+        lock.writeLock().lock();
+        try {
+            if (tasks.contains(id)) {
+                setCompleted(id, isCompleted);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            tasks.remove(id);
+            completed.remove(id);
+            unlabel(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the contents with what the loader returns; changes arriving meanwhile wait and apply after it
+    public void load(Supplier<? extends Collection<Entry>> loader) {
+        lock.writeLock().lock();
+        try {
+            tasks = new RoaringBitmap();
+            completed = new RoaringBitmap();
+            labels.clear();
+            for (Entry entry : loader.get()) {
+                tasks.add(entry.id());
+                if (entry.completed()) {
+                    completed.add(entry.id());
+                }
+                for (String label : entry.labels()) {
+                    labels.computeIfAbsent(label, name -> new RoaringBitmap()).add(entry.id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return tasks.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LabelCount> counts() {
+        lock.readLock().lock();
+        try {
+            List<LabelCount> result = new ArrayList<>(labels.size());
+            for (Map.Entry<String, RoaringBitmap> label : labels.entrySet()) {
+                long count = label.getValue().cardinality();
+                result.add(new LabelCount(label.getKey(), count, count - label.getValue().andCardinality(completed)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of tasks carrying every label in {@code all}, at least one in {@code any} (when given)
+     * and none in {@code none}, optionally of one completion state; newest (highest id) first,
+     * below {@code beforeId} when set.
+     */
+    public long[] find(Collection<String> all, Collection<String> any, Collection<String> none,
+                       Boolean isCompleted, Long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            // Smallest first keeps the intermediate results small
+            List<RoaringBitmap> required = new ArrayList<>(all.size());
+            for (String label : all) {
+                RoaringBitmap bitmap = labels.get(label);
+                if (bitmap == null) {
+                    return new long[0];
+                }
+                required.add(bitmap);
+            }
+            required.sort((a, b) -> Long.compare(a.cardinality(), b.cardinality()));
+            for (RoaringBitmap bitmap : required) {
+                result = result == null ? bitmap : result.and(bitmap);
+            }
+
+            if (!any.isEmpty()) {
+                RoaringBitmap union = new RoaringBitmap();
+                for (String label : any) {
+                    RoaringBitmap bitmap = labels.get(label);
+                    if (bitmap != null) {
+                        union = union.or(bitmap);
+                    }
+                }
+                result = result == null ? union : result.and(union);
+            }
+            if (result == null) {
+                result = tasks;
+            }
+
+            for (String label : none) {
+                RoaringBitmap bitmap = labels.get(label);
+                if (bitmap != null) {
+                    result = result.andNot(bitmap);
+                }
+            }
+            if (isCompleted != null) {
+                result = isCompleted ? result.and(completed) : result.andNot(completed);
+            }
+            return result.descending(beforeId == null ? Long.MAX_VALUE : beforeId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setCompleted(long id, boolean isCompleted) {
+        if (isCompleted) {
+            completed.add(id);
+        } else {
+            completed.remove(id);
+        }
+    }
+
+    private void unlabel(long id) {
+        labels.values().removeIf(bitmap -> {
+            bitmap.remove(id);
+            return bitmap.isEmpty();
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.taskmanager.label;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Label name rules shared by both storage engines: trimmed and lower-cased, so "Work" and
+ * " work" are one label, and stored in name order without duplicates.
+ */
+public final class Labels {
+
+    public static final int MAX_LENGTH = 50;
+    public static final int MAX_PER_TASK = 20;
+
+    private Labels() {
+    }
+
+    // Null stays null ("unchanged" on updates); blank names are dropped
+    public static List<String> normalize(Collection<String> names) {
+        if (names == null) {
+            return null;
+        }
+        TreeSet<String> result = new TreeSet<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String label = name.trim().toLowerCase(Locale.ROOT);
+            if (label.length() > MAX_LENGTH) {
+                throw new IllegalArgumentException("Label '" + label + "' exceeds " + MAX_LENGTH + " characters");
+            }
+            // Commas separate labels in the by-labels query parameters
+            if (label.indexOf(',') >= 0) {
+                throw new IllegalArgumentException("Label '" + label + "' must not contain a comma");
+            }
+            result.add(label);
+        }
+        if (result.size() > MAX_PER_TASK) {
+            throw new IllegalArgumentException("A task can carry at most " + MAX_PER_TASK + " labels");
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered with Hibernate in MetricsConfig; sees every statement before it is prepared
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        StatementCounter.record(sql);
+        return sql;
+    }
+}
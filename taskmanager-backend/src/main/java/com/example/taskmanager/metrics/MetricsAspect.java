@@ -0,0 +1,99 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers around the service, repository and security calls that make up a request:
+ * <ul>
+ *   <li>{@code app.service} - every {@code TaskService} and {@code AuthService} method</li>
+ *   <li>{@code app.repository} - every repository method; also counted per request, see
+ *       {@link RepositoryCallCounter}</li>
+ *   <li>{@code app.jwt.validation} - signature and expiry check of tokens the cache missed</li>
+ *   <li>{@code app.bcrypt} - password hashing and verification, excluding queueing</li>
+ * </ul>
+ * Timers for calls that complete normally are looked up once per method and reused.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.example.taskmanager.service.TaskService.*(..)) || " +
+            "execution(* com.example.taskmanager.service.AuthService.*(..))")
+    public Object timeService(ProceedingJoinPoint pjp) throws Throwable {
+        String owner = AopUtils.getTargetClass(pjp.getTarget()).getSimpleName();
+        return time("app.service", "class", owner, pjp);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint pjp) throws Throwable {
+        RepositoryCallCounter.increment();
+        String repository = repositoryNames.computeIfAbsent(pjp.getThis().getClass(), MetricsAspect::repositoryName);
+        return time("app.repository", "repository", repository, pjp);
+    }
+
+    @Around("execution(* com.example.taskmanager.security.JwtUtil.parseValidClaims(..))")
+    public Object timeJwtValidation(ProceedingJoinPoint pjp) throws Throwable {
+        long started = System.nanoTime();
+        Object claims = pjp.proceed();
+        timer("app.jwt.validation", "result", claims != null ? "valid" : "invalid")
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.encode(..)) || " +
+            "execution(* org.springframework.security.crypto.password.PasswordEncoder.matches(..))")
+    public Object timeBcrypt(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Object result = pjp.proceed();
+        sample.stop(timer("app.bcrypt", "operation", pjp.getSignature().getName()));
+        return result;
+    }
+
+    private Object time(String name, String ownerTag, String owner, ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = pjp.proceed();
+            sample.stop(timers.computeIfAbsent(name + '|' + owner + '|' + method, key -> Timer.builder(name)
+                    .tag(ownerTag, owner).tag("method", method).tag("exception", "none")
+                    .register(registry)));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(Timer.builder(name)
+                    .tag(ownerTag, owner).tag("method", method).tag("exception", e.getClass().getSimpleName())
+                    .register(registry));
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return timers.computeIfAbsent(name + '|' + value, key -> Timer.builder(name).tag(tag, value).register(registry));
+    }
+
+    // Repositories are proxies; name them by the application interface, not by JpaRepository
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("com.example.")) {
+                return type.getSimpleName();
+            }
+        }
+        return "unknown";
+    }
+}
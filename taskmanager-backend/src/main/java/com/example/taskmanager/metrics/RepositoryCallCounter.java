@@ -0,0 +1,32 @@
+package com.example.taskmanager.metrics;
+
+/**
+ * Counts repository calls made by the current request thread, between
+ * {@link #start()} and {@link #finish()}. Calls outside a request (scheduled jobs, background
+ * threads) are not counted.
+ */
+public final class RepositoryCallCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private RepositoryCallCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    // Returns the count and stops counting; -1 when counting was not started on this thread
+    public static int finish() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+}
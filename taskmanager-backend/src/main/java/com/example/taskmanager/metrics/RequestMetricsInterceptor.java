@@ -0,0 +1,94 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many repository calls and SQL statements each request made, per endpoint, as
+ * {@code app.repository.calls.per.request} and {@code app.jdbc.statements.per.request}. A request
+ * whose count keeps growing with the size of the data is issuing N+1 queries. Requests over their
+ * {@link StatementBudget} are logged with the statements they ran and counted in
+ * {@code app.jdbc.statement.budget.exceeded}. Latency per endpoint comes from Spring's own
+ * {@code http.server.requests}.
+ */
+@Slf4j
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+    private final int defaultStatementBudget;
+
+    public RequestMetricsInterceptor(MeterRegistry registry, int defaultStatementBudget) {
+        this.registry = registry;
+        this.defaultStatementBudget = defaultStatementBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RepositoryCallCounter.start();
+        StatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int calls = RepositoryCallCounter.finish();
+        StatementCounter.Recording statements = StatementCounter.finish();
+        if (calls < 0 || statements == null) {
+            return;
+        }
+        request.setAttribute(StatementCounter.REQUEST_ATTRIBUTE, statements);
+
+        // The mapped pattern, not the raw path, so ids do not become separate series
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("app.repository.calls.per.request")
+                .description("Repository calls made while handling one request")
+                .tag("method", method).tag("uri", uri)
+                .register(registry)
+                .record(calls);
+        DistributionSummary.builder("app.jdbc.statements.per.request")
+                .description("SQL statements prepared while handling one request")
+                .tag("method", method).tag("uri", uri)
+                .register(registry)
+                .record(statements.getCount());
+
+        int budget = budgetOf(handler);
+        if (statements.getCount() > budget) {
+            Counter.builder("app.jdbc.statement.budget.exceeded")
+                    .description("Requests that ran more SQL statements than their budget")
+                    .tag("method", method).tag("uri", uri)
+                    .register(registry)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements, budget {}:\n  {}", method, uri, statements.getCount(), budget,
+                    String.join("\n  ", statements.getStatements()));
+        }
+    }
+
+    // The handler continues on another thread; this thread goes back to the pool
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RepositoryCallCounter.finish();
+        StatementCounter.finish();
+    }
+
+    private int budgetOf(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultStatementBudget;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.taskmanager.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one call of a controller method should need. Requests over budget
+ * are logged with their statements; methods without the annotation get
+ * {@code diagnostics.statements.default-budget}. The integration tests pin the exact counts.
+ * <p>
+ * Budgets include id allocation: each sequence is read once per 50 ids, so a write endpoint's
+ * budget is its steady-state count plus one fetch per sequence it draws from, and a batch's
+ * plus one per 50 rows.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
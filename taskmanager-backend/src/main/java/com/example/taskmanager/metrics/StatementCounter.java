@@ -0,0 +1,57 @@
+package com.example.taskmanager.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current request thread, between
+ * {@link #start()} and {@link #finish()}, and keeps the first {@value #MAX_KEPT} of them for
+ * the over-budget log. A JDBC batch is prepared once, so it counts as one statement.
+ */
+public final class StatementCounter {
+
+    // Request attribute holding the finished Recording, for tests and error handlers
+    public static final String REQUEST_ATTRIBUTE = StatementCounter.class.getName() + ".recording";
+
+    static final int MAX_KEPT = 50;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Recording());
+    }
+
+    static void record(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.count++;
+            if (recording.statements.size() < MAX_KEPT) {
+                recording.statements.add(sql);
+            }
+        }
+    }
+
+    // Stops counting; null when counting was not started on this thread
+    public static Recording finish() {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        return recording;
+    }
+
+    public static final class Recording {
+
+        private int count;
+        private final List<String> statements = new ArrayList<>();
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<String> getStatements() {
+            return statements;
+        }
+    }
+}
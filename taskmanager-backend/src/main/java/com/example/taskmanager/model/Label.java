@@ -0,0 +1,34 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's label name; tasks carry labels through {@link TaskLabel} rows. Names are normalized
+ * by {@link com.example.taskmanager.label.Labels} and unique per user.
+ */
+@Entity
+@Table(name = "labels", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_labels_user_name", columnNames = {"user_id", "name"})
+})
+@Data
+@NoArgsConstructor
+public class Label {
+    // Pooled sequence like tasks, so the new labels of a batch are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "label_seq")
+    @SequenceGenerator(name = "label_seq", sequenceName = "labels_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    public Label(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+}
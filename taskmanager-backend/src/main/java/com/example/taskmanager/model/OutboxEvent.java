@@ -0,0 +1,54 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event waiting to be appended to the audit log. Inserted in the same transaction
+ * as the change it describes and deleted once the audit writer has written it, so the table
+ * only holds the backlog.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Recovery sweep: oldest events first
+        @Index(name = "idx_outbox_occurred", columnList = "occurred_at, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    // Pooled sequence so the events of a batch write are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    // e.g. task.created, user.login
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // The task or user the event is about
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    // The event serialized as JSON
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public OutboxEvent(String type, Long userId, Long entityId, String payload, LocalDateTime occurredAt) {
+        this.type = type;
+        this.userId = userId;
+        this.entityId = entityId;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+}
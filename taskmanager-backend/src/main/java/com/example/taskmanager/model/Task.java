@@ -1,18 +1,34 @@
 package com.example.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Keyset pagination on (created_at, id), per user and optionally per completion state
+        @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_tasks_user_completed_created", columnList = "user_id, completed, created_at, id"),
+        // Delta sync keyset on (updated_at, id); version makes it cover the collection tag aggregate too
+        @Index(name = "idx_tasks_user_updated", columnList = "user_id, updated_at, id, version"),
+        @Index(name = "idx_tasks_user_title", columnList = "user_id, title"),
+        @Index(name = "idx_tasks_created", columnList = "created_at, id"),
+        // Overdue and due-soon lists: open tasks of one user by due date
+        @Index(name = "idx_tasks_user_due", columnList = "user_id, completed, due_at"),
+        // Reminder windows: open tasks by reminder time, across users
+        @Index(name = "idx_tasks_remind", columnList = "completed, remind_at")
+})
 @Data
 public class Task {
+    // Pooled sequence rather than IDENTITY so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -22,6 +38,13 @@ public class Task {
 
     private boolean completed = false;
 
+    private LocalDateTime dueAt;
+
+    // When to remind the owner; see ReminderService
+    private LocalDateTime remindAt;
+
+    // Not serialized: the owner may be an uninitialized reference, and must never leak its password hash
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -31,4 +54,10 @@ public class Task {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Optimistic lock, exposed to clients as the task's ETag. The default fills existing rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
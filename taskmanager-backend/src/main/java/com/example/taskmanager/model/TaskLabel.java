@@ -0,0 +1,77 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * One label on one task. The rows go with their task through ON DELETE CASCADE, so the
+ * single-statement task deletes stay single statements.
+ */
+@Entity
+@Table(name = "task_labels", indexes = {
+        @Index(name = "idx_task_labels_label", columnList = "label_id")
+})
+@IdClass(TaskLabel.Key.class)
+@Data
+@NoArgsConstructor
+public class TaskLabel implements Persistable<TaskLabel.Key> {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Id
+    @Column(name = "label_id")
+    private Long labelId;
+
+    // Only here for the foreign keys and JPQL joins; the ids above are what gets written
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task task;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "label_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Label label;
+
+    public TaskLabel(Long taskId, Long labelId) {
+        this.taskId = taskId;
+        this.labelId = labelId;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(taskId, labelId);
+    }
+
+    // Rows are only ever inserted or bulk-deleted: saves persist directly instead of selecting first to merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private Long labelId;
+
+        public Key(Long taskId, Long labelId) {
+            this.taskId = taskId;
+            this.labelId = labelId;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted task, so sync clients can learn about hard deletes.
+ * Task ids are never reused, so the task id is the key. Compacted after
+ * {@code tasks.sync.tombstone-retention-days}.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        // Delta sync keyset on (deleted_at, task_id), per user
+        @Index(name = "idx_tombstones_user_deleted", columnList = "user_id, deleted_at, task_id"),
+        @Index(name = "idx_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+public class TaskTombstone implements Persistable<Long> {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public TaskTombstone(Long taskId, Long userId, LocalDateTime deletedAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return taskId;
+    }
+
+    // Always inserted, never updated: saves persist directly instead of selecting first to merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Default sink until a notification channel exists
+@Slf4j
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(Reminder reminder) {
+        log.info("Reminder due - task: {}, user: {}, remind at: {}",
+                reminder.taskId(), reminder.userId(), reminder.remindAt());
+    }
+}
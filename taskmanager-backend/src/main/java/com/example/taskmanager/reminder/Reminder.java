@@ -0,0 +1,7 @@
+package com.example.taskmanager.reminder;
+
+import java.time.LocalDateTime;
+
+// A reminder that fell due: the task, its owner and the time it was set for
+public record Reminder(long taskId, long userId, LocalDateTime remindAt) {
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.reminder;
+
+/**
+ * Receives reminders as they fall due. Every sink bean gets every reminder, on the scheduler's
+ * single thread, so implementations should hand slow work (mail, push) off rather than block.
+ * Delivery is at-least-once: a reminder may repeat after a restart within the catch-up window.
+ */
+public interface ReminderSink {
+
+    void deliver(Reminder reminder);
+}
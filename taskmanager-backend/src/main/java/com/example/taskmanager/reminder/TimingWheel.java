@@ -0,0 +1,159 @@
+package com.example.taskmanager.reminder;
+
+import com.example.taskmanager.store.LongObjectHashMap;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Hashed hierarchical timing wheel keyed by a long id (the task id).
+ * <p>
+ * Time is counted in ticks. There are {@value #LEVELS} wheels of {@value #SLOTS} slots; a slot on
+ * level {@code L} spans {@code 64^L} ticks, so the wheels together cover {@code 64^4} ticks (about
+ * 194 days at one-second ticks). An entry goes to the lowest level whose range reaches its
+ * deadline. Each time the clock enters a new slot of a higher level, that slot's entries are
+ * re-inserted one level down ("cascading") until they reach level 0 and fire on their exact tick.
+ * Deadlines past the last level wait in its farthest slot and cascade from there.
+ * <p>
+ * Each slot is a doubly-linked list and every entry is also indexed by key, so scheduling,
+ * rescheduling and cancelling are O(1) whatever the number of entries. Advancing costs one slot
+ * per tick plus each entry's few cascades.
+ * <p>
+ * Not thread-safe; the owner serializes access.
+ */
+public final class TimingWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long HORIZON = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Node<T> {
+        final long key;
+        long deadline;
+        T value;
+        int level;
+        int slot;
+        Node<T> prev;
+        Node<T> next;
+
+        Node(long key) {
+            this.key = key;
+        }
+    }
+
+    private final Node<T>[][] heads;
+    // Primitive keys: no boxed Long and no HashMap.Node per scheduled reminder
+    private final LongObjectHashMap<Node<T>> nodes = new LongObjectHashMap<>(1024);
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        heads = new Node[LEVELS][SLOTS];
+        currentTick = startTick;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(long key) {
+        return nodes.get(key) != null;
+    }
+
+    // Adds the entry or moves an existing one; a deadline already reached fires on the next tick
+    public void schedule(long key, long deadlineTick, T value) {
+        Node<T> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            unlink(node);
+        }
+        node.deadline = Math.max(deadlineTick, currentTick + 1);
+        node.value = value;
+        place(node);
+    }
+
+    public boolean cancel(long key) {
+        Node<T> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    // Moves the clock forward to toTick, handing each entry that falls due to fired, tick by tick
+    public void advance(long toTick, BiConsumer<Long, T> fired) {
+        while (currentTick < toTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, slotOf(currentTick, level));
+                }
+            }
+
+            int slot = slotOf(currentTick, 0);
+            Node<T> node = heads[0][slot];
+            heads[0][slot] = null;
+            while (node != null) {
+                Node<T> next = node.next;
+                nodes.remove(node.key);
+                node.prev = node.next = null;
+                fired.accept(node.key, node.value);
+                node = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Node<T> node = heads[level][slot];
+        heads[level][slot] = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            node.prev = node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    // Lowest level whose span covers the distance; at cascade time a distance of 0 lands in the slot firing now
+    private void place(Node<T> node) {
+        long delta = node.deadline - currentTick;
+        long target = delta < HORIZON ? node.deadline : currentTick + HORIZON - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && (target - currentTick) >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        node.level = level;
+        node.slot = slotOf(target, level);
+        Node<T> head = heads[level][node.slot];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        heads[level][node.slot] = node;
+    }
+
+    private void unlink(Node<T> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (heads[node.level][node.slot] == node) {
+            heads[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.Label;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    // Served by uk_labels_user_name
+    List<Label> findByUserIdAndNameIn(@Param("userId") Long userId, @Param("names") Collection<String> names);
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Recovery sweep, served by idx_outbox_occurred
+    @Query("select e from OutboxEvent e where e.occurredAt < :before order by e.occurredAt, e.id")
+    List<OutboxEvent> findOldest(@Param("before") LocalDateTime before, Limit limit);
+}
@@ -0,0 +1,34 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskLabel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskLabelRepository extends JpaRepository<TaskLabel, TaskLabel.Key> {
+
+    // Label index rebuilds: every (task, label name) pair of one user
+    @Query("select tl.taskId as taskId, l.name as name from TaskLabel tl join tl.label l where l.userId = :userId")
+    List<TaskLabelRow> findRowsByUserId(@Param("userId") Long userId);
+
+    // Labels of the given tasks, for responses: one query per page of rows
+    @Query("select tl.taskId as taskId, l.name as name from TaskLabel tl join tl.label l " +
+            "where tl.taskId in :taskIds order by l.name")
+    List<TaskLabelRow> findRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    // Replacing a task's labels: one DELETE, then the new rows as one batch
+    @Modifying
+    @Query("delete from TaskLabel tl where tl.taskId in :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    interface TaskLabelRow {
+        Long getTaskId();
+        String getName();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Keyset page queries that select straight into response DTOs instead of entities
+public interface TaskQueryRepository {
+
+    List<TaskResponse> findTaskPage(Specification<Task> spec, int limit);
+
+    List<AdminTaskResponse> findAdminTaskPage(Specification<Task> spec, int limit);
+}
@@ -0,0 +1,67 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskResponse> findTaskPage(Specification<Task> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+
+        query.select(cb.construct(TaskResponse.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("completed"),
+                task.get("dueAt"), task.get("remindAt"), task.get("createdAt"), task.get("updatedAt"),
+                task.get("version"), task.get("user").get("id")));
+
+        return entityManager.createQuery(keysetOrdered(query, task, spec, cb))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<AdminTaskResponse> findAdminTaskPage(Specification<Task> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminTaskResponse> query = cb.createQuery(AdminTaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> user = task.join("user", JoinType.LEFT);
+
+        // Only the three owner columns are selected; the User entity is never loaded
+        query.select(cb.construct(AdminTaskResponse.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("completed"),
+                task.get("createdAt"), task.get("updatedAt"),
+                user.get("id"), user.get("username"), user.get("email")));
+
+        return entityManager.createQuery(keysetOrdered(query, task, spec, cb))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Must match TaskCursor and the (created_at, id) indexes on tasks
+    private static <T> CriteriaQuery<T> keysetOrdered(CriteriaQuery<T> query, Root<Task> task,
+                                                      Specification<Task> spec, CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query.orderBy(cb.desc(task.get("createdAt")), cb.desc(task.get("id")));
+    }
+}
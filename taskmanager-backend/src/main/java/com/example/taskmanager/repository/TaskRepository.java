@@ -1,22 +1,195 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
 import com.example.taskmanager.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskQueryRepository {
 
-    // Use EntityGraph to eagerly fetch user data
-    @EntityGraph(attributePaths = {"user"})
-    List<Task> findByUserId(Long userId);
+    // List endpoints page through TaskSpecifications instead of loading every row
 
-    // Use EntityGraph to eagerly fetch user data for all tasks
-    @EntityGraph(attributePaths = {"user"})
-    List<Task> findAllByOrderByCreatedAtDesc();
+    @Query("select new com.example.taskmanager.dto.response.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.dueAt, t.remindAt, t.createdAt, t.updatedAt, t.version, t.user.id) " +
+            "from Task t where t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select new com.example.taskmanager.dto.response.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.dueAt, t.remindAt, t.createdAt, t.updatedAt, t.version, t.user.id) " +
+            "from Task t where t.id in :ids")
+    List<TaskResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Delta sync: keyset over (updatedAt, id), served by idx_tasks_user_updated
+    @Query("select new com.example.taskmanager.dto.response.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.dueAt, t.remindAt, t.createdAt, t.updatedAt, t.version, t.user.id) " +
+            "from Task t where t.user.id = :userId " +
+            "and (t.updatedAt > :after or (t.updatedAt = :after and t.id > :afterId)) " +
+            "order by t.updatedAt, t.id")
+    List<TaskResponse> findChangedSince(@Param("userId") Long userId, @Param("after") LocalDateTime after,
+                                        @Param("afterId") Long afterId, Limit limit);
+
+    // Open tasks of one user that were due before :now, most overdue first; idx_tasks_user_due
+    @Query("select new com.example.taskmanager.dto.response.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.dueAt, t.remindAt, t.createdAt, t.updatedAt, t.version, t.user.id) " +
+            "from Task t where t.user.id = :userId and t.completed = false and t.dueAt < :now " +
+            "order by t.dueAt, t.id")
+    List<TaskResponse> findOverdue(@Param("userId") Long userId, @Param("now") LocalDateTime now, Limit limit);
+
+    // Open tasks of one user due in [from, to), soonest first; idx_tasks_user_due
+    @Query("select new com.example.taskmanager.dto.response.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.dueAt, t.remindAt, t.createdAt, t.updatedAt, t.version, t.user.id) " +
+            "from Task t where t.user.id = :userId and t.completed = false " +
+            "and t.dueAt >= :from and t.dueAt < :to order by t.dueAt, t.id")
+    List<TaskResponse> findOpenDueBetween(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to, Limit limit);
+
+    // Reminder window loads: keyset over (remindAt, id) through idx_tasks_remind, in chunks
+    @Query("select t.id as id, t.user.id as userId, t.remindAt as remindAt, t.completed as completed " +
+            "from Task t where t.completed = false and t.remindAt < :to " +
+            "and (t.remindAt > :after or (t.remindAt = :after and t.id > :afterId)) " +
+            "order by t.remindAt, t.id")
+    List<ReminderRow> findRemindersAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+                                         @Param("to") LocalDateTime to, Limit limit);
+
+    // Current reminder state of tasks whose schedule changed
+    @Query("select t.id as id, t.user.id as userId, t.remindAt as remindAt, t.completed as completed " +
+            "from Task t where t.id in :ids")
+    List<ReminderRow> findReminderRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Search index (re)builds: the indexed text of one user's tasks, and the users that have any
+    @Query("select t.id as id, t.title as title, t.description as description from Task t where t.user.id = :userId")
+    List<SearchDocument> findSearchDocumentsByUserId(@Param("userId") Long userId);
+
+    @Query("select distinct t.user.id from Task t")
+    List<Long> findDistinctUserIds();
+
+    // Label index rebuilds: id and completion state of one user's tasks
+    @Query("select t.id as id, t.completed as completed from Task t where t.user.id = :userId")
+    List<TaskState> findStatesByUserId(@Param("userId") Long userId);
 
     long countByCompleted(boolean completed);
+
+    @Query("select t.user.id as userId, count(t) as taskCount, " +
+            "sum(case when t.completed = true then 1 else 0 end) as completedCount from Task t group by t.user.id")
+    List<UserTaskCount> countTasksPerUser();
+
+    // Served by idx_tasks_user_completed_created; recounts one user after deletes of unknown state
+    @Query("select count(t) from Task t where t.user.id = :userId and t.completed = true")
+    long countCompletedByUserId(@Param("userId") Long userId);
+
+    // Collection tag inputs for one user, read from idx_tasks_user_updated and idx_tombstones_user_deleted
+    // alone. Every write bumps a version and every delete leaves a tombstone, so any change moves a sum
+    // or a count even when instance clocks disagree about updated_at
+    @Query("select count(t) as taskCount, coalesce(sum(t.version), 0) as versionSum, max(t.updatedAt) as lastUpdated, " +
+            "(select count(d) from TaskTombstone d where d.userId = :userId) as deletedCount, " +
+            "(select max(d.deletedAt) from TaskTombstone d where d.userId = :userId) as lastDeleted " +
+            "from Task t where t.user.id = :userId")
+    CollectionState findCollectionState(@Param("userId") Long userId);
+
+    // Owner and state of the given tasks, for one ownership check over a whole batch
+    @Query("select t.id as id, t.user.id as userId, t.completed as completed, t.version as version " +
+            "from Task t where t.id in :ids")
+    List<TaskOwnership> findOwnershipByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.id as id, t.user.id as userId, t.completed as completed, t.version as version " +
+            "from Task t where t.id = :id")
+    Optional<TaskOwnership> findOwnershipById(@Param("id") Long id);
+
+    // Conditional writes: the owner check lives in the WHERE clause, so the affected-row
+    // count is the whole answer on success and a probe is only needed when it is 0.
+    // Bulk statements skip @UpdateTimestamp and @Version, so both are maintained here;
+    // a null expectedVersion skips the If-Match check.
+
+    // Only matches when the state actually changes, so 1 row means "completion flipped"
+    @Modifying
+    @Query("update Task t set t.completed = :completed, t.updatedAt = :now, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId and t.completed <> :completed " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int updateCompletedIfOwned(@Param("id") Long id, @Param("userId") Long userId,
+                               @Param("completed") boolean completed, @Param("now") LocalDateTime now,
+                               @Param("expectedVersion") Long expectedVersion);
+
+    // Null arguments leave the column unchanged; the clear flags set dueAt or remindAt to null
+    @Modifying
+    @Query("update Task t set t.title = coalesce(:title, t.title), " +
+            "t.description = coalesce(:description, t.description), " +
+            "t.dueAt = case when :clearDueAt = true then null else coalesce(:dueAt, t.dueAt) end, " +
+            "t.remindAt = case when :clearRemindAt = true then null else coalesce(:remindAt, t.remindAt) end, " +
+            "t.updatedAt = :now, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int updateContentIfOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("title") String title,
+                             @Param("description") String description, @Param("dueAt") LocalDateTime dueAt,
+                             @Param("clearDueAt") boolean clearDueAt, @Param("remindAt") LocalDateTime remindAt,
+                             @Param("clearRemindAt") boolean clearRemindAt, @Param("now") LocalDateTime now,
+                             @Param("expectedVersion") Long expectedVersion);
+
+    @Modifying
+    @Query("delete from Task t where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int deleteIfOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("expectedVersion") Long expectedVersion);
+
+    interface TaskOwnership {
+        Long getId();
+        Long getUserId();
+        boolean isCompleted();
+        Long getVersion();
+    }
+
+    interface ReminderRow {
+        Long getId();
+        Long getUserId();
+        LocalDateTime getRemindAt();
+        boolean isCompleted();
+    }
+
+    interface TaskState {
+        Long getId();
+        boolean isCompleted();
+    }
+
+    interface SearchDocument {
+        Long getId();
+        String getTitle();
+        String getDescription();
+    }
+
+    interface CollectionState {
+        long getTaskCount();
+        long getVersionSum();
+        LocalDateTime getLastUpdated();
+        long getDeletedCount();
+        LocalDateTime getLastDeleted();
+    }
+
+    interface UserTaskCount {
+        Long getUserId();
+        long getTaskCount();
+        long getCompletedCount();
+    }
+
+    // Streams the whole table for exports; with useCursorFetch the driver reads it in fetch-size chunks
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.taskmanager.dto.response.AdminTaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.createdAt, t.updatedAt, u.id, u.username, u.email) " +
+            "from Task t left join t.user u order by t.id")
+    Stream<AdminTaskResponse> streamAllForExport();
 }
\ No newline at end of file
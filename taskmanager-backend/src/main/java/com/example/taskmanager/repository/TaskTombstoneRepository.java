@@ -0,0 +1,29 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // Keyset over (deletedAt, taskId), served by idx_tombstones_user_deleted
+    @Query("select t from TaskTombstone t where t.userId = :userId " +
+            "and (t.deletedAt > :after or (t.deletedAt = :after and t.taskId > :afterId)) " +
+            "order by t.deletedAt, t.taskId")
+    List<TaskTombstone> findDeletedSince(@Param("userId") Long userId, @Param("after") LocalDateTime after,
+                                         @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
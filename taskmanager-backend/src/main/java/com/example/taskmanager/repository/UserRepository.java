@@ -1,11 +1,16 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.response.UserResponse;
+import com.example.taskmanager.model.Role;
 import com.example.taskmanager.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +27,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Use derived method - Spring will generate the SQL automatically
     Boolean existsByEmail(String email);
+
+    // Projections for admin views: never load the entity or its password hash
+    @Query("select new com.example.taskmanager.dto.response.UserResponse(u.id, u.username, u.email, u.role, u.createdAt) " +
+            "from User u order by u.id")
+    List<UserResponse> findAllSummaries();
+
+    @Query("select new com.example.taskmanager.dto.response.UserResponse(u.id, u.username, u.email, u.role, u.createdAt) " +
+            "from User u where u.id = :id")
+    Optional<UserResponse> findSummaryById(@Param("id") Long id);
+
+    // Rehash-on-login writes only the new hash
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Query("select u.role as role, count(u) as userCount from User u group by u.role")
+    List<RoleUserCount> countUsersByRole();
+
+    interface RoleUserCount {
+        Role getRole();
+        long getUserCount();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package com.example.taskmanager.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Inverted index over one user's task titles and descriptions.
+ * <p>
+ * Terms live in a sorted map so a query term also matches every indexed term it is a prefix of.
+ * Each term's posting list is a sorted {@code long[]} of task ids with a parallel {@code int[]}
+ * of packed title/description term frequencies. Results must contain every query term (exact or
+ * by prefix) and are ranked by idf-weighted frequency, with title hits counting
+ * {@value #TITLE_WEIGHT}x and prefix matches half as much as exact ones.
+ * <p>
+ * Thread-safe: searches share a read lock, changes take the write lock.
+ */
+public final class InvertedIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final double PREFIX_WEIGHT = 0.5;
+
+    private static final int FIELD_MAX = 0xFFFF;
+
+    public record Document(long id, String title, String description) {
+    }
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null title or description keeps the value already indexed for the task
+    public void put(long id, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unindex(previous);
+                title = title != null ? title : previous.title();
+                description = description != null ? description : previous.description();
+            }
+            Document document = new Document(id, title, description);
+            documents.put(id, document);
+            index(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the contents with what the loader returns; changes arriving meanwhile wait and apply after it
+    public void load(Supplier<? extends Collection<Document>> loader) {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+            for (Document document : loader.get()) {
+                documents.put(document.id(), document);
+                index(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the best matches, best first; ties go to the newer (higher) id
+    public long[] search(String query, int limit, int maxPrefixExpansions) {
+        Set<String> queryTerms = new LinkedHashSet<>(Tokenizer.tokens(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            Scored result = null;
+            for (String term : queryTerms) {
+                Scored matches = match(term, maxPrefixExpansions);
+                result = result == null ? matches : result.intersect(matches);
+                if (result.size == 0) {
+                    return new long[0];
+                }
+            }
+            return result.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every task containing the term or a term it prefixes, scored by its best matching term
+    private Scored match(String term, int maxPrefixExpansions) {
+        Scored scored = new Scored(0);
+        Postings exact = terms.get(term);
+        if (exact != null) {
+            scored = scored.unionMax(exact, idf(exact));
+        }
+        int expansions = 0;
+        for (Postings postings : terms.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (expansions++ >= maxPrefixExpansions) {
+                break;
+            }
+            scored = scored.unionMax(postings, idf(postings) * PREFIX_WEIGHT);
+        }
+        return scored;
+    }
+
+    private double idf(Postings postings) {
+        return Math.log(1 + (double) documents.size() / postings.size);
+    }
+
+    private void index(Document document) {
+        for (Map.Entry<String, Integer> entry : frequencies(document).entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new Postings()).add(document.id(), entry.getValue());
+        }
+    }
+
+    private void unindex(Document document) {
+        for (String term : frequencies(document).keySet()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(document.id()) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    // Title frequency in the high 16 bits, description frequency in the low 16
+    private static Map<String, Integer> frequencies(Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokens(document.title())) {
+            frequencies.merge(token, 1 << 16, InvertedIndex::addPacked);
+        }
+        for (String token : Tokenizer.tokens(document.description())) {
+            frequencies.merge(token, 1, InvertedIndex::addPacked);
+        }
+        return frequencies;
+    }
+
+    private static int addPacked(int a, int b) {
+        int title = Math.min(FIELD_MAX, (a >>> 16) + (b >>> 16));
+        int description = Math.min(FIELD_MAX, (a & FIELD_MAX) + (b & FIELD_MAX));
+        return title << 16 | description;
+    }
+
+    private static double weight(int packed) {
+        return TITLE_WEIGHT * (packed >>> 16) + (packed & FIELD_MAX);
+    }
+
+    /** Sorted task ids with packed frequencies; ids mostly arrive in increasing order, so adds usually append. */
+    static final class Postings {
+        long[] ids = new long[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(long id, int frequency) {
+            int at = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                frequencies[at] = frequency;
+                return;
+            }
+            at = at < 0 ? -at - 1 : at;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(frequencies, at, frequencies, at + 1, size - at);
+            ids[at] = id;
+            frequencies[at] = frequency;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /** Sorted ids with a score each; the working set of a query. */
+    private static final class Scored {
+        final long[] ids;
+        final double[] scores;
+        int size;
+
+        Scored(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+        }
+
+        // Merge with a posting list, keeping the higher score where both have an id
+        Scored unionMax(Postings postings, double idf) {
+            Scored out = new Scored(size + postings.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < postings.size) {
+                if (j == postings.size || (i < size && ids[i] < postings.ids[j])) {
+                    out.append(ids[i], scores[i]);
+                    i++;
+                } else {
+                    double score = idf * weight(postings.frequencies[j]);
+                    if (i < size && ids[i] == postings.ids[j]) {
+                        score = Math.max(score, scores[i]);
+                        i++;
+                    }
+                    out.append(postings.ids[j], score);
+                    j++;
+                }
+            }
+            return out;
+        }
+
+        // Ids present in both, with their scores summed
+        Scored intersect(Scored other) {
+            Scored out = new Scored(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    out.append(ids[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return out;
+        }
+
+        void append(long id, double score) {
+            ids[size] = id;
+            scores[size] = score;
+            size++;
+        }
+
+        // Best limit entries via a min-heap of positions, so large result sets are not fully sorted
+        long[] top(int limit) {
+            int k = Math.min(limit, size);
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < k) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (better(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+            long[] result = new long[heapSize];
+            while (heapSize > 0) {
+                result[heapSize - 1] = ids[heap[0]];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+            }
+            return result;
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] > ids[b]);
+        }
+
+        private void siftUp(int[] heap, int at) {
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (!better(heap[parent], heap[at])) {
+                    return;
+                }
+                swap(heap, parent, at);
+                at = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int at = 0;
+            while (true) {
+                int worst = at;
+                int left = 2 * at + 1;
+                int right = left + 1;
+                if (left < heapSize && better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == at) {
+                    return;
+                }
+                swap(heap, at, worst);
+                at = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.taskmanager.security;
 
 import com.example.taskmanager.model.User;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,15 +16,24 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    // Set when storage.engine=embedded; users are then looked up in it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (embeddedStore != null) {
+            StoredUser user = embeddedStore.findUserByUsername(username);
+            if (user == null) {
+                throw new UsernameNotFoundException("User not found: " + username);
+            }
+            return new UserPrincipal(user.id(), user.username(), user.password(), user.role());
+        }
+
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().name().replace("ROLE_", "")) // Convert ROLE_USER to USER
-                .build();
+        // Carries id and role so the request never needs another user lookup
+        return UserPrincipal.from(user);
     }
 }
\ No newline at end of file
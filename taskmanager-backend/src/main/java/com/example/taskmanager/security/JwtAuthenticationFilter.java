@@ -1,5 +1,6 @@
 package com.example.taskmanager.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -31,20 +35,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 1. Get JWT token from request header
             String jwt = parseJwt(request);
 
-            // 2. Validate JWT token
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                // 3. Extract username from token
-                String username = jwtUtil.getUserNameFromJwtToken(jwt);
+            if (jwt != null) {
+                // 2. Reuse the principal of a token we have already verified
+                UserDetails userDetails = tokenCache.get(jwt);
 
-                // 4. Load user details from database
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (userDetails == null) {
+                    // 3. Verify signature and expiry once, then load user details from database
+                    Claims claims = jwtUtil.parseValidClaims(jwt);
+                    if (claims != null) {
+                        userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                        // 4. Remember the result until the token expires
+                        tokenCache.put(jwt, userDetails, claims.getExpiration());
+                    }
+                }
 
-                // 5. Create authentication token and set it in security context
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails != null) {
+                    // 5. Create authentication token and set it in security context
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -0,0 +1,100 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified JWTs to the principal they resolved to.
+ * Entries are keyed by a SHA-256 hash of the token (raw bearer tokens are never kept),
+ * expire with the token's {@code exp} claim, and past {@code jwt.cache.max-size} are evicted
+ * by Caffeine's size policy in amortized constant time.
+ */
+@Component
+public class JwtTokenCache {
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private Cache<String, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.getIfPresent(hash(token));
+        return entry == null ? null : entry.userDetails;
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        if (expiration == null || maxSize <= 0 || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(hash(token), new Entry(userDetails, expiration.getTime()));
+    }
+
+    // Call when a user's role or password changes so their tokens are re-resolved on next use
+    public void invalidateUser(String username) {
+        entries.asMap().values().removeIf(entry -> entry.userDetails.getUsername().equals(username));
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    // Runs pending evictions; lets tests observe the size bound without waiting for the maintenance thread
+    void cleanUp() {
+        entries.cleanUp();
+    }
+
+    private static long remainingNanos(Entry entry) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis - System.currentTimeMillis()));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAtMillis) {
+    }
+}
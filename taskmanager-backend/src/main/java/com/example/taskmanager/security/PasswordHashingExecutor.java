@@ -0,0 +1,135 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt work on a small pool sized to the CPU count, so a burst of logins queues here
+ * instead of occupying every request thread. Logins are served ahead of registrations. When
+ * more than queue-capacity jobs are waiting, or a job waits longer than max-wait-ms, the caller
+ * gets a {@link TooManyRequestsException} with a Retry-After estimate instead.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    // Declaration order is scheduling order
+    public enum Priority {
+        LOGIN, REGISTER
+    }
+
+    // 0 = one thread per available processor
+    @Value("${security.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${security.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.bcrypt.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Moving average of one job's run time, used for Retry-After
+    private volatile long averageJobNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @PostConstruct
+    void start() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                Thread.ofPlatform().name("bcrypt-", 0).daemon(true).factory());
+        executor.prestartAllCoreThreads();
+        log.info("Password hashing executor: {} threads, queue capacity {}", size, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // Runs the job on the pool and waits for its result on the calling thread
+    public <T> T run(Priority priority, Callable<T> job) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            throw new TooManyRequestsException("Too many concurrent authentication requests", retryAfterSeconds());
+        }
+
+        Job<T> task = new Job<>(priority, sequence.getAndIncrement(), job);
+        executor.execute(task);
+        try {
+            return task.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A job still in the queue is skipped when its turn comes
+            task.cancel(false);
+            throw new TooManyRequestsException("Authentication timed out waiting for capacity", retryAfterSeconds());
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    private long retryAfterSeconds() {
+        double backlogNanos = (double) (queued.get() + 1) * averageJobNanos / executor.getCorePoolSize();
+        return Math.max(1, (long) Math.ceil(backlogNanos / 1_000_000_000d));
+    }
+
+    private final class Job<T> extends FutureTask<T> implements Comparable<Job<?>> {
+
+        private final Priority priority;
+        private final long sequence;
+
+        Job(Priority priority, long sequence, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            if (isCancelled()) {
+                return;
+            }
+            long started = System.nanoTime();
+            super.run();
+            long elapsed = System.nanoTime() - started;
+            averageJobNanos += (elapsed - averageJobNanos) / 8;
+        }
+
+        @Override
+        public int compareTo(Job<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.taskmanager.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting, placed after JwtAuthenticationFilter so authenticated requests are
+ * keyed by user id and anonymous ones by client IP. Each route group (auth, tasks, admin) has its
+ * own limits; a rejected request gets 429 with Retry-After.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${rate-limit.auth.permits-per-second:10}")
+    private double authRate;
+
+    @Value("${rate-limit.auth.burst:50}")
+    private int authBurst;
+
+    @Value("${rate-limit.tasks.permits-per-second:50}")
+    private double tasksRate;
+
+    @Value("${rate-limit.tasks.burst:100}")
+    private int tasksBurst;
+
+    @Value("${rate-limit.admin.permits-per-second:10}")
+    private double adminRate;
+
+    @Value("${rate-limit.admin.burst:20}")
+    private int adminBurst;
+
+    private RateLimiter auth;
+    private RateLimiter tasks;
+    private RateLimiter admin;
+
+    @PostConstruct
+    void init() {
+        auth = new RateLimiter(authRate, authBurst, maxKeys);
+        tasks = new RateLimiter(tasksRate, tasksBurst, maxKeys);
+        admin = new RateLimiter(adminRate, adminBurst, maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = limiterFor(request.getRequestURI()).tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            log.debug("Rate limited {} {} for {}", request.getMethod(), request.getRequestURI(), clientKey(request));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Idle buckets hold no information, so dropping them periodically keeps memory bounded by active clients
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        int removed = auth.sweep() + tasks.sweep() + admin.sweep();
+        if (removed > 0) {
+            log.debug("Rate limiter sweep dropped {} idle buckets", removed);
+        }
+    }
+
+    private RateLimiter limiterFor(String path) {
+        if (path.startsWith("/api/auth/")) {
+            return auth;
+        }
+        if (path.startsWith("/api/admin/") || path.equals("/api/tasks/all")) {
+            return admin;
+        }
+        return tasks;
+    }
+
+    // Long user ids and String addresses never collide as map keys
+    private static Object clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        // The client's address even behind a proxy: Tomcat resolves X-Forwarded-For from trusted proxies
+        return request.getRemoteAddr();
+    }
+}
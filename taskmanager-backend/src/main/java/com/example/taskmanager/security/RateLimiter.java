@@ -0,0 +1,113 @@
+package com.example.taskmanager.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket (GCRA): each key holds one "theoretical arrival time" in an AtomicLong,
+ * advanced by one emission interval per admitted request with a CAS. A request is rejected when
+ * it would push that time more than {@code burst} intervals into the future.
+ * <p>
+ * A bucket whose arrival time has passed is full again and indistinguishable from a new one, so
+ * {@link #sweep()} simply drops it. At most {@code maxKeys} buckets are kept; when full after a
+ * sweep, the buckets with the earliest arrival times are evicted to make room. Those are the ones
+ * closest to full, mostly the least recently used, so evicting them forgives the least debt: a
+ * flood of new keys costs each of them its own bucket and never throttles the keys already held.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+
+    // Evicted together, so the scan for them runs once per this many new keys rather than per key
+    private final int evictBatch;
+
+    private final ConcurrentHashMap<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.evictBatch = Math.max(1, maxKeys / 16);
+    }
+
+    // 0 when the request is admitted, otherwise the nanoseconds until it would be
+    public long tryAcquire(Object key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(Object key, long now) {
+        AtomicLong tat = bucket(key, now);
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Drops full (idle) buckets; a request racing with the removal is at worst counted on the dropped bucket
+    public int sweep() {
+        return sweep(System.nanoTime());
+    }
+
+    int sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int before = buckets.size();
+            buckets.values().removeIf(tat -> tat.get() - now <= 0);
+            return before - buckets.size();
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(Object key, long now) {
+        AtomicLong tat = buckets.get(key);
+        if (tat != null) {
+            return tat;
+        }
+        if (buckets.size() >= maxKeys && sweep(now) == 0) {
+            evict();
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // Drops the evictBatch buckets with the earliest arrival times. Threads that find an eviction
+    // already running insert anyway, so the map can briefly pass maxKeys by the number of such threads.
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] times = buckets.values().stream().mapToLong(AtomicLong::get).toArray();
+            if (times.length < maxKeys) {
+                return;
+            }
+            Arrays.sort(times);
+            long threshold = times[Math.min(evictBatch, times.length) - 1];
+            int[] evicted = {0};
+            buckets.values().removeIf(tat -> tat.get() <= threshold && evicted[0]++ < evictBatch);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.response.AuditStatsResponse;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+
+public interface AuditService {
+    AuditStatsResponse getStats();
+
+    // Queue outbox events the writer has not seen (after a restart or a full queue); returns how many
+    int recoverOutbox();
+
+    // storage.engine=embedded: audits a task or user event in the store transaction that makes the change
+    void record(EmbeddedTaskStore.Transaction transaction, Object event);
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.service;
+
+import java.time.LocalDateTime;
+
+public interface ReminderService {
+    // Reminders held in memory, waiting to fire
+    int getScheduledCount();
+
+    // Reminders set before this time are in memory; later ones are loaded as the clock gets near
+    LocalDateTime getLoadedUntil();
+}
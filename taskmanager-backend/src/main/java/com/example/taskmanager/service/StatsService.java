@@ -0,0 +1,17 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.response.AdminStatsResponse;
+import com.example.taskmanager.dto.response.CacheStatsResponse;
+
+import java.util.List;
+
+public interface StatsService {
+    AdminStatsResponse getStats();
+    long getUserTaskCount(Long userId);
+
+    // Recount everything from the database, correcting any drift in the counters
+    void reconcile();
+
+    // Hit/miss/eviction figures of the application caches
+    List<CacheStatsResponse> getCacheStats();
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.request.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExportService {
+    // Writes every task with its owner to the stream as it is read; returns the row count
+    long exportAllTasks(ExportFormat format, OutputStream out) throws IOException;
+}
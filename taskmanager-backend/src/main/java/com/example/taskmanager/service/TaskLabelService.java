@@ -0,0 +1,25 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.request.LabelQuery;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.LabelCountResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+
+import java.util.List;
+
+public interface TaskLabelService {
+    // One page of the user's tasks matching the label and completion filter, newest (highest id) first
+    CursorPage<TaskResponse> findTasks(Long userId, LabelQuery query);
+
+    // Every label the user has, in name order, with its task and open task counts
+    List<LabelCountResponse> getLabelCounts(Long userId);
+
+    // Sets the labels of task rows read without them
+    void fillLabels(List<TaskResponse> tasks);
+
+    // False until the startup rebuild of the index has finished
+    boolean isReady();
+
+    // Reload the whole index from the database
+    void rebuild();
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.response.TaskResponse;
+
+import java.util.List;
+
+public interface TaskSearchService {
+    // The user's tasks matching every term of the query (by word or word prefix), best match first
+    List<TaskResponse> search(Long userId, String query, Integer limit);
+
+    // False until the startup rebuild of the index has finished
+    boolean isReady();
+
+    // Reload the whole index from the database
+    void rebuild();
+}
@@ -1,20 +1,37 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.request.BatchUpdateTaskRequest;
 import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.TaskQuery;
 import com.example.taskmanager.dto.request.UpdateTaskRequest;
-import com.example.taskmanager.model.Task;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+
 import java.util.List;
 
 public interface TaskService {
     // User operations
-    Task createTask(CreateTaskRequest request, Long userId);
-    List<Task> getUserTasks(Long userId);
-    Task updateTask(Long taskId, UpdateTaskRequest request, Long userId);
-    void deleteTask(Long taskId, Long userId);
+    TaskResponse createTask(CreateTaskRequest request, Long userId);
+    CursorPage<TaskResponse> getUserTasks(Long userId, TaskQuery query);
+    // expectedVersion comes from If-Match; null means unconditional
+    TaskResponse updateTask(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion);
+    // Same as updateTask without reading the task back
+    void applyTaskUpdate(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion);
+    void deleteTask(Long taskId, Long userId, Long expectedVersion);
+
+    // Open tasks past their due date, most overdue first, and open tasks due within the next hours, soonest first
+    List<TaskResponse> getOverdueTasks(Long userId, Integer limit);
+    List<TaskResponse> getTasksDueSoon(Long userId, Integer hours, Integer limit);
+
+    // Batch operations: one transaction and one ownership check for the whole batch
+    List<TaskResponse> createTasks(List<CreateTaskRequest> requests, Long userId);
+    List<TaskResponse> updateTasks(List<BatchUpdateTaskRequest> requests, Long userId);
+    int deleteTasks(List<Long> taskIds, Long userId);
 
     // Admin operations
-    List<Task> getAllTasks();
-    Task getTaskById(Long taskId);
+    CursorPage<AdminTaskResponse> getAllTasks(TaskQuery query);
+    TaskResponse getTaskById(Long taskId);
 
 
     long getTotalTaskCount();
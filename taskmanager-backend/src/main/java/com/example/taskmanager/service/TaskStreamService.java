@@ -0,0 +1,13 @@
+package com.example.taskmanager.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TaskStreamService {
+    // Server-Sent Events stream of the user's task changes, sent after they commit
+    SseEmitter subscribe(Long userId);
+
+    // Every user's task changes (admin firehose)
+    SseEmitter subscribeAll();
+
+    int getConnectionCount();
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.response.TaskChangesResponse;
+
+public interface TaskSyncService {
+    // Tasks created, updated or deleted since the token; a null token starts a full sync
+    TaskChangesResponse getChanges(Long userId, String since, Integer limit);
+
+    // Drop tombstones older than the retention window; returns how many were removed
+    int compactTombstones();
+}
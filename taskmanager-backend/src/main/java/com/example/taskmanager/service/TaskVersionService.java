@@ -0,0 +1,6 @@
+package com.example.taskmanager.service;
+
+public interface TaskVersionService {
+    // Opaque tag that changes whenever one of the user's tasks is created, updated or deleted
+    String collectionTag(Long userId);
+}
@@ -1,11 +1,11 @@
 package com.example.taskmanager.service;
 
-import com.example.taskmanager.model.User;
+import com.example.taskmanager.dto.response.UserResponse;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
-    List<User> getAllUsers();
-    Optional<User> getUserById(Long userId);
+    List<UserResponse> getAllUsers();
+    Optional<UserResponse> getUserById(Long userId);
     long getUserCount();
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.audit.AuditLogWriter;
+import com.example.taskmanager.dto.response.AuditStatsResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.UserLoggedInEvent;
+import com.example.taskmanager.event.UserRegisteredEvent;
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.repository.OutboxEventRepository;
+import com.example.taskmanager.service.AuditService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit trail of task and user events, through a transactional outbox.
+ * <p>
+ * Listeners run before commit, so each event is inserted into {@code outbox_events} by the
+ * transaction that made the change and the two commit or roll back together. After commit the
+ * row is handed to {@link AuditLogWriter}; the request thread does no file I/O. A periodic sweep
+ * queues rows the writer never received: left over from a crash, or refused by a full queue.
+ * <p>
+ * With {@code storage.engine=embedded} the store is the outbox and the database is not used.
+ * Task changes and registrations are audited through {@link #record(EmbeddedTaskStore.Transaction, Object)}
+ * by the store transaction that makes them, so the change and its event are one log record;
+ * logins change nothing else and are written by their listener in a store transaction of their own.
+ */
+@Slf4j
+@Service
+public class AuditServiceImpl implements AuditService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Set when storage.engine=embedded; events are then kept in the store instead of outbox_events
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    // Younger rows may still be on their way to the writer from the committing thread
+    @Value("${audit.outbox.sweep-grace-ms:5000}")
+    private long sweepGraceMs;
+
+    private final AtomicLong recovered = new AtomicLong();
+
+    // In embedded mode task changes and registrations were already recorded by their store transaction
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (embeddedStore == null) {
+            record(event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        if (embeddedStore == null) {
+            record(event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserLoggedIn(UserLoggedInEvent event) {
+        if (embeddedStore == null) {
+            record(event);
+            return;
+        }
+        embeddedStore.write(transaction -> {
+            record(transaction, event);
+            return null;
+        });
+    }
+
+    @Override
+    public void record(EmbeddedTaskStore.Transaction transaction, Object event) {
+        Entry entry = entryFor(event);
+        OutboxEvent outbox = transaction.audit(entry.type(), entry.userId(), entry.entityId(), toJson(event));
+        transaction.afterCommit(() -> auditLogWriter.offer(outbox));
+    }
+
+    // Inside the caller's transaction when there is one; batch writes flush their events as one JDBC batch
+    private void record(Object event) {
+        Entry entry = entryFor(event);
+        OutboxEvent outbox = outboxEventRepository.save(
+                new OutboxEvent(entry.type(), entry.userId(), entry.entityId(), toJson(event), LocalDateTime.now()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.offer(outbox);
+                }
+            });
+        } else {
+            auditLogWriter.offer(outbox);
+        }
+    }
+
+    private static Entry entryFor(Object event) {
+        return switch (event) {
+            case TaskChangedEvent task -> new Entry("task." + task.type().name().toLowerCase(Locale.ROOT),
+                    task.userId(), task.taskId());
+            case UserRegisteredEvent user -> new Entry("user.registered", user.userId(), user.userId());
+            case UserLoggedInEvent login -> new Entry(login.success() ? "user.login" : "user.login_failed",
+                    login.userId(), login.userId());
+            default -> throw new IllegalArgumentException("Not an audited event: " + event.getClass().getSimpleName());
+        };
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit event " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${audit.outbox.sweep-interval-ms:10000}")
+    public int recoverOutbox() {
+        int room = auditLogWriter.getRemainingCapacity();
+        if (room == 0) {
+            return 0;
+        }
+
+        LocalDateTime before = LocalDateTime.now().minus(sweepGraceMs, ChronoUnit.MILLIS);
+        List<OutboxEvent> oldest = embeddedStore != null ? embeddedStore.findAuditEvents(before, room)
+                : outboxEventRepository.findOldest(before, Limit.of(room));
+        int queued = 0;
+        for (OutboxEvent event : oldest) {
+            if (auditLogWriter.isPending(event.getId())) {
+                continue;
+            }
+            if (!auditLogWriter.offer(event)) {
+                break;
+            }
+            queued++;
+        }
+
+        if (queued > 0) {
+            recovered.addAndGet(queued);
+            log.info("Queued {} outbox events for the audit log", queued);
+        }
+        return queued;
+    }
+
+    @Override
+    public AuditStatsResponse getStats() {
+        long backlog = embeddedStore != null ? embeddedStore.countAuditEvents() : outboxEventRepository.count();
+        return new AuditStatsResponse(backlog, auditLogWriter.getQueueDepth(),
+                auditLogWriter.getQueueCapacity(), auditLogWriter.getEnqueuedCount(),
+                auditLogWriter.getRejectedCount(), recovered.get(), auditLogWriter.getWrittenCount(),
+                auditLogWriter.getWriteErrorCount(), auditLogWriter.getPoisonedCount(),
+                auditLogWriter.getActiveFileBytes(),
+                auditLogWriter.getLastWriteAt());
+    }
+
+    // The outbox columns of an event: its type, the user it belongs to and the task or user it is about
+    private record Entry(String type, Long userId, Long entityId) {
+    }
+}
@@ -4,20 +4,34 @@ import com.example.taskmanager.dto.request.LoginRequest;
 import com.example.taskmanager.dto.request.RegisterRequest;
 import com.example.taskmanager.dto.response.AuthResponse;
 import com.example.taskmanager.dto.response.ApiResponse;
+import com.example.taskmanager.event.UserLoggedInEvent;
+import com.example.taskmanager.event.UserRegisteredEvent;
+import com.example.taskmanager.exception.TooManyRequestsException;
 import com.example.taskmanager.model.User;
 import com.example.taskmanager.model.Role;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.AuditService;
 import com.example.taskmanager.service.AuthService;
+import com.example.taskmanager.security.JwtTokenCache;
 import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.PasswordHashingExecutor;
+import com.example.taskmanager.security.UserPrincipal;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredUser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Registration and login. Accounts live in the users table, or with {@code storage.engine=embedded}
+ * in the embedded store, where registering and rehashing are store transactions and no request
+ * touches the database.
+ */
 @Slf4j
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -25,34 +39,59 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private UserRepository userRepository;
 
+    // Set when storage.engine=embedded; accounts are then read from and written to it
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private AuditService auditService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private JwtTokenCache tokenCache;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile String dummyHash;
+
     @Override
     public AuthResponse login(LoginRequest loginRequest) {
         String username = loginRequest.getUsername();
 
         try {
-            // Check if user exists first
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.warn("Login failed - user not found: {}", username);
-                        return new RuntimeException("User not found");
-                    });
-
-            // Attempt authentication
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
+            // One lookup; the password check below replaces AuthenticationManager, which loaded the user again
+            Account user = findAccount(username);
+
+            // Unknown users still pay for a hash comparison so response time does not reveal which names exist.
+            // The dummy hash is resolved inside the job, so even its one-time encode runs on the executor
+            String userHash = user != null ? user.password() : null;
+            PasswordCheck check = hashingExecutor.run(PasswordHashingExecutor.Priority.LOGIN,
+                    () -> checkPassword(loginRequest.getPassword(), userHash != null ? userHash : dummyHash()));
+
+            if (user == null || !check.matches()) {
+                eventPublisher.publishEvent(new UserLoggedInEvent(user != null ? user.id() : null, username, false));
+                log.debug("Login failed - bad credentials for user: {}", username);
+                throw new RuntimeException("Bad credentials");
+            }
+
+            if (check.upgradedHash() != null) {
+                updatePassword(user.id(), check.upgradedHash());
+                tokenCache.invalidateUser(username);
+                log.info("Rehashed password for user {} at the configured BCrypt strength", username);
+            }
+
+            UserPrincipal principal = new UserPrincipal(user.id(), user.username(), user.password(), user.role());
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, null, principal.getAuthorities());
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -60,28 +99,85 @@ public class AuthServiceImpl implements AuthService {
             String jwtToken = jwtUtil.generateJwtToken(authentication);
 
             AuthResponse response = new AuthResponse();
-            response.setId(user.getId());
-            response.setUsername(user.getUsername());
-            response.setEmail(user.getEmail());
-            response.setRole(user.getRole());
+            response.setId(user.id());
+            response.setUsername(user.username());
+            response.setEmail(user.email());
+            response.setRole(user.role());
             response.setToken(jwtToken);
             response.setType("Bearer");
 
-            log.info("Login successful for user: {}", username);
+            eventPublisher.publishEvent(new UserLoggedInEvent(user.id(), username, true));
+            log.debug("Login successful for user: {}", username);
             return response;
 
+        } catch (TooManyRequestsException e) {
+            log.warn("Login rejected for user: {} - {}", username, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for user: {}", username);
             throw new RuntimeException("Invalid username or password");
         }
     }
 
+    private Account findAccount(String username) {
+        if (embeddedStore != null) {
+            StoredUser user = embeddedStore.findUserByUsername(username);
+            return user == null ? null : new Account(user.id(), user.username(), user.email(), user.password(),
+                    user.role());
+        }
+        return userRepository.findByUsername(username)
+                .map(user -> new Account(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+                        user.getRole()))
+                .orElse(null);
+    }
+
+    private void updatePassword(Long userId, String hash) {
+        if (embeddedStore == null) {
+            userRepository.updatePassword(userId, hash);
+            return;
+        }
+        StoredUser user = embeddedStore.findUser(userId);
+        if (user != null) {
+            embeddedStore.putUser(user.withPassword(hash));
+        }
+    }
+
+    // Runs on the hashing executor: verify, and when the stored cost is below the configured one, rehash
+    private PasswordCheck checkPassword(String rawPassword, String storedHash) {
+        if (!passwordEncoder.matches(rawPassword, storedHash)) {
+            return new PasswordCheck(false, null);
+        }
+        String upgraded = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(rawPassword) : null;
+        return new PasswordCheck(true, upgraded);
+    }
+
+    // Encoded once, on the first unknown-user login; only called from hashing executor jobs
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("dummy-password-for-unknown-users");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    // What login needs of a user, from either the users table or the embedded store
+    private record Account(Long id, String username, String email, String password, Role role) {
+    }
+
     @Override
     public ApiResponse register(RegisterRequest registerRequest) {
         String username = registerRequest.getUsername();
         String email = registerRequest.getEmail();
 
         try {
+            if (embeddedStore != null) {
+                return registerInStore(registerRequest);
+            }
+
             if (userRepository.existsByUsername(username)) {
                 log.warn("Registration failed - username already taken: {}", username);
                 return new ApiResponse(false, "Username is already taken!");
@@ -95,17 +191,68 @@ public class AuthServiceImpl implements AuthService {
             User user = new User();
             user.setUsername(username);
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            user.setPassword(hashingExecutor.run(PasswordHashingExecutor.Priority.REGISTER,
+                    () -> passwordEncoder.encode(registerRequest.getPassword())));
             user.setRole(Role.ROLE_USER); // Make sure this is set to ROLE_USER
 
-            userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId(), username, savedUser.getRole()));
 
-            log.info("User registered successfully: {}", username);
+            log.debug("User registered successfully: {}", username);
             return new ApiResponse(true, "User registered successfully!");
 
+        } catch (TooManyRequestsException e) {
+            log.warn("Registration rejected for user: {} - {}", username, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Registration failed for user: {}", username, e);
             return new ApiResponse(false, "Registration failed due to an unexpected error");
         }
     }
+
+    // The checks run again under the store's write lock, so two registrations of one name cannot both succeed
+    private ApiResponse registerInStore(RegisterRequest registerRequest) {
+        String username = registerRequest.getUsername();
+        String email = registerRequest.getEmail();
+        String refused = conflict(embeddedStore.findUserByUsername(username), embeddedStore.findUserByEmail(email),
+                username, email);
+        if (refused != null) {
+            return new ApiResponse(false, refused);
+        }
+
+        String password = hashingExecutor.run(PasswordHashingExecutor.Priority.REGISTER,
+                () -> passwordEncoder.encode(registerRequest.getPassword()));
+        String[] conflict = new String[1];
+        UserRegisteredEvent registered = embeddedStore.write(transaction -> {
+            conflict[0] = conflict(transaction.findUserByUsername(username), transaction.findUserByEmail(email),
+                    username, email);
+            if (conflict[0] != null) {
+                return null;
+            }
+            StoredUser user = transaction.createUser(username, email, password, Role.ROLE_USER);
+            UserRegisteredEvent event = new UserRegisteredEvent(user.id(), username, user.role());
+            auditService.record(transaction, event);
+            return event;
+        });
+        if (registered == null) {
+            return new ApiResponse(false, conflict[0]);
+        }
+
+        eventPublisher.publishEvent(registered);
+        log.debug("User registered successfully: {}", username);
+        return new ApiResponse(true, "User registered successfully!");
+    }
+
+    // Null when the name and address are both free, otherwise why the registration is refused
+    private static String conflict(StoredUser byUsername, StoredUser byEmail, String username, String email) {
+        if (byUsername != null) {
+            log.warn("Registration failed - username already taken: {}", username);
+            return "Username is already taken!";
+        }
+        if (byEmail != null) {
+            log.warn("Registration failed - email already registered: {}", email);
+            return "Email is already registered!";
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.config.CacheConfig;
+import com.example.taskmanager.dto.request.BatchUpdateTaskRequest;
+import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.dto.request.UpdateTaskRequest;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskVersionService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache in front of {@link TaskServiceImpl} for user task pages and single tasks.
+ * <p>
+ * Pages are keyed by the user's collection tag from {@link TaskVersionService}, which changes
+ * with every committed change, so a write makes all of that user's cached pages unreachable at
+ * once; the stale entries age out through the cache's size and TTL limits. Single tasks are
+ * evicted by id after commit. A read that overlapped an eviction is not stored, so a page or
+ * task loaded before a commit can never be cached after it.
+ * <p>
+ * Misses always load from the primary. Replica routing pins only the user who just wrote, so an
+ * admin or another user could otherwise fill the cache from a lagging replica, and that stale
+ * page would then be served under the new tag until it aged out.
+ */
+@Slf4j
+@Service
+@Primary
+// The embedded store already answers from memory, so the cache only fronts the JPA service
+@ConditionalOnExpression("${tasks.cache.enabled:true} and '${storage.engine:jpa}' == 'jpa'")
+public class CachingTaskService implements TaskService {
+
+    @Autowired
+    @Qualifier("taskServiceImpl")
+    private TaskService delegate;
+
+    @Autowired
+    private TaskVersionService taskVersionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Read-write on purpose: the delegate's read-only transaction joins it and stays on the primary
+    private TransactionTemplate primaryRead;
+
+    private Cache taskPages;
+    private Cache tasks;
+
+    // Bumped before every eviction; a load only populates the cache if no eviction ran meanwhile
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        taskPages = cacheManager.getCache(CacheConfig.TASK_PAGES);
+        tasks = cacheManager.getCache(CacheConfig.TASKS);
+        primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CursorPage<TaskResponse> getUserTasks(Long userId, TaskQuery query) {
+        PageKey key = new PageKey(taskVersionService.collectionTag(userId), query);
+        CursorPage<TaskResponse> page = taskPages.get(key, CursorPage.class);
+        if (page == null) {
+            long seen = evictions.get();
+            page = primaryRead.execute(status -> delegate.getUserTasks(userId, query));
+            if (evictions.get() == seen) {
+                taskPages.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public TaskResponse getTaskById(Long taskId) {
+        TaskResponse task = tasks.get(taskId, TaskResponse.class);
+        if (task == null) {
+            long seen = evictions.get();
+            task = primaryRead.execute(status -> delegate.getTaskById(taskId));
+            if (evictions.get() == seen) {
+                tasks.put(taskId, task);
+            }
+        }
+        return task;
+    }
+
+    // Runs after commit: readers never see a cache emptied for a write that then rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        evictions.incrementAndGet();
+        tasks.evict(event.taskId());
+        log.debug("Evicted cached task {} for user {}", event.taskId(), event.userId());
+    }
+
+    // Writes and admin reads go straight through
+
+    @Override
+    public TaskResponse createTask(CreateTaskRequest request, Long userId) {
+        return delegate.createTask(request, userId);
+    }
+
+    @Override
+    public TaskResponse updateTask(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        return delegate.updateTask(taskId, request, userId, expectedVersion);
+    }
+
+    @Override
+    public void applyTaskUpdate(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        delegate.applyTaskUpdate(taskId, request, userId, expectedVersion);
+    }
+
+    @Override
+    public void deleteTask(Long taskId, Long userId, Long expectedVersion) {
+        delegate.deleteTask(taskId, userId, expectedVersion);
+    }
+
+    @Override
+    public List<TaskResponse> createTasks(List<CreateTaskRequest> requests, Long userId) {
+        return delegate.createTasks(requests, userId);
+    }
+
+    @Override
+    public List<TaskResponse> updateTasks(List<BatchUpdateTaskRequest> requests, Long userId) {
+        return delegate.updateTasks(requests, userId);
+    }
+
+    @Override
+    public int deleteTasks(List<Long> taskIds, Long userId) {
+        return delegate.deleteTasks(taskIds, userId);
+    }
+
+    @Override
+    public CursorPage<AdminTaskResponse> getAllTasks(TaskQuery query) {
+        return delegate.getAllTasks(query);
+    }
+
+    @Override
+    public List<TaskResponse> getOverdueTasks(Long userId, Integer limit) {
+        return delegate.getOverdueTasks(userId, limit);
+    }
+
+    @Override
+    public List<TaskResponse> getTasksDueSoon(Long userId, Integer hours, Integer limit) {
+        return delegate.getTasksDueSoon(userId, hours, limit);
+    }
+
+    @Override
+    public long getTotalTaskCount() {
+        return delegate.getTotalTaskCount();
+    }
+
+    private record PageKey(String collectionTag, TaskQuery query) {
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.BatchUpdateTaskRequest;
+import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.TaskCursor;
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.dto.request.UpdateTaskRequest;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.AccessDeniedException;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.exception.ResourceNotFoundException;
+import com.example.taskmanager.label.Labels;
+import com.example.taskmanager.service.AuditService;
+import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link TaskService} on the in-process {@link EmbeddedTaskStore}, for {@code storage.engine=embedded}.
+ * Same rules and events as {@link TaskServiceImpl}: each call is one store transaction, checked
+ * and applied under the store's write lock, and the events go out after it committed. Each event
+ * is audited inside the transaction, so a change and its audit event are one log record.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "embedded")
+public class EmbeddedTaskService implements TaskService {
+
+    @Autowired
+    private EmbeddedTaskStore store;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${tasks.due-soon.default-hours:24}")
+    private int defaultDueSoonHours;
+
+    @Value("${tasks.due-soon.max-hours:720}")
+    private int maxDueSoonHours;
+
+    @Override
+    public TaskResponse createTask(CreateTaskRequest request, Long userId) {
+        List<String> labels = orEmpty(Labels.normalize(request.getLabels()));
+        List<TaskChangedEvent> events = new ArrayList<>(1);
+        StoredTask task = store.write(transaction -> {
+            StoredTask created = transaction.create(userId, request.getTitle(), request.getDescription(),
+                    request.getDueAt(), request.getRemindAt(), labels);
+            record(transaction, events, TaskChangedEvent.created(created.id(), userId, created.completed(),
+                    created.title(), created.description(), created.remindAt(), created.labels()));
+            return created;
+        });
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("Task created - ID: {}, user: {}, title: {}", task.id(), userId, request.getTitle());
+        return task.toResponse();
+    }
+
+    @Override
+    public CursorPage<TaskResponse> getUserTasks(Long userId, TaskQuery query) {
+        int limit = pageSize(query);
+        List<StoredTask> rows = store.findUserPage(userId, beforeId(query), matching(query), limit + 1);
+        return toPage(rows, limit, StoredTask::toResponse);
+    }
+
+    @Override
+    public CursorPage<AdminTaskResponse> getAllTasks(TaskQuery query) {
+        int limit = pageSize(query);
+        List<StoredTask> rows = store.findPage(beforeId(query), matching(query), limit + 1);
+        return toPage(rows, limit, task -> task.toAdminResponse(store.findUser(task.userId())));
+    }
+
+    @Override
+    public TaskResponse getTaskById(Long taskId) {
+        StoredTask task = store.findTask(taskId);
+        if (task == null) {
+            log.warn("Task not found: {}", taskId);
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+        return task.toResponse();
+    }
+
+    @Override
+    public TaskResponse updateTask(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        return update(taskId, request, userId, expectedVersion).toResponse();
+    }
+
+    @Override
+    public void applyTaskUpdate(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        update(taskId, request, userId, expectedVersion);
+    }
+
+    private StoredTask update(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        List<String> labels = Labels.normalize(request.getLabels());
+        StoredTask[] before = new StoredTask[1];
+        List<TaskChangedEvent> events = new ArrayList<>(1);
+        StoredTask after = store.write(transaction -> {
+            StoredTask task = requireOwned(transaction.get(taskId), taskId, userId, "update");
+            requireVersion(task, expectedVersion);
+            before[0] = task;
+            // As in the JPA path: a completion "change" to the current state writes nothing
+            if (request.getCompleted() != null && request.getCompleted() != task.completed()) {
+                task = task.withCompleted(request.getCompleted(), transaction.now());
+            }
+            if (request.changesContent()) {
+                task = task.withContent(request.getTitle(), request.getDescription(),
+                        request.resolveDueAt(task.dueAt()), request.resolveRemindAt(task.remindAt()), labels,
+                        transaction.now());
+            }
+            if (task != before[0]) {
+                transaction.put(task);
+                record(transaction, events, TaskChangedEvent.updated(taskId, userId, task.completed(), true,
+                        task.completed() != before[0].completed(), request.getTitle(), request.getDescription(),
+                        request.changesSchedule(), labels));
+            }
+            return task;
+        });
+
+        if (after == before[0]) {
+            log.debug("Task update changed nothing - ID: {}, user: {}", taskId, userId);
+            return after;
+        }
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("Task updated - ID: {}, user: {}", taskId, userId);
+        return after;
+    }
+
+    @Override
+    public void deleteTask(Long taskId, Long userId, Long expectedVersion) {
+        List<TaskChangedEvent> events = new ArrayList<>(1);
+        store.write(transaction -> {
+            StoredTask task = requireOwned(transaction.get(taskId), taskId, userId, "delete");
+            requireVersion(task, expectedVersion);
+            transaction.delete(taskId);
+            record(transaction, events, TaskChangedEvent.deleted(taskId, userId, task.completed()));
+            return null;
+        });
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("Task deleted - ID: {}, user: {}", taskId, userId);
+    }
+
+    @Override
+    public List<TaskResponse> createTasks(List<CreateTaskRequest> requests, Long userId) {
+        checkBatchSize(requests);
+        List<List<String>> labels = new ArrayList<>(requests.size());
+        for (CreateTaskRequest request : requests) {
+            if (request.getTitle() == null || request.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Title is required");
+            }
+            labels.add(orEmpty(Labels.normalize(request.getLabels())));
+        }
+
+        List<TaskChangedEvent> events = new ArrayList<>(requests.size());
+        List<StoredTask> created = store.write(transaction -> {
+            List<StoredTask> tasks = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                CreateTaskRequest request = requests.get(i);
+                StoredTask task = transaction.create(userId, request.getTitle(), request.getDescription(),
+                        request.getDueAt(), request.getRemindAt(), labels.get(i));
+                record(transaction, events, TaskChangedEvent.created(task.id(), userId, task.completed(),
+                        task.title(), task.description(), task.remindAt(), task.labels()));
+                tasks.add(task);
+            }
+            return tasks;
+        });
+
+        events.forEach(eventPublisher::publishEvent);
+        List<TaskResponse> responses = new ArrayList<>(created.size());
+        for (StoredTask task : created) {
+            responses.add(task.toResponse());
+        }
+        log.debug("Batch created {} tasks for user: {}", created.size(), userId);
+        return responses;
+    }
+
+    @Override
+    public List<TaskResponse> updateTasks(List<BatchUpdateTaskRequest> requests, Long userId) {
+        checkBatchSize(requests);
+        List<List<String>> labels = new ArrayList<>(requests.size());
+        for (BatchUpdateTaskRequest request : requests) {
+            if (request.getId() == null) {
+                throw new IllegalArgumentException("Task id is required");
+            }
+            labels.add(Labels.normalize(request.getLabels()));
+        }
+
+        Map<Long, StoredTask> original = new LinkedHashMap<>();
+        List<TaskChangedEvent> events = new ArrayList<>(requests.size());
+        Map<Long, StoredTask> updated = store.write(transaction -> {
+            for (BatchUpdateTaskRequest request : requests) {
+                StoredTask task = transaction.get(request.getId());
+                if (task == null) {
+                    throw new ResourceNotFoundException("One or more tasks not found");
+                }
+                if (task.userId() != userId) {
+                    log.warn("Unauthorized batch update attempt - task: {}, user: {}", task.id(), userId);
+                    throw new AccessDeniedException("You are not authorized to update task " + task.id());
+                }
+                original.putIfAbsent(task.id(), task);
+            }
+
+            // Requests for the same task apply in order; like a JPA flush, a changed task gets one new version
+            Map<Long, StoredTask> result = new LinkedHashMap<>(original);
+            for (int i = 0; i < requests.size(); i++) {
+                BatchUpdateTaskRequest request = requests.get(i);
+                StoredTask task = result.get(request.getId());
+                result.put(task.id(), new StoredTask(task.id(), task.userId(),
+                        request.getTitle() != null ? request.getTitle() : task.title(),
+                        request.getDescription() != null ? request.getDescription() : task.description(),
+                        request.getCompleted() != null ? request.getCompleted() : task.completed(),
+                        request.resolveDueAt(task.dueAt()), request.resolveRemindAt(task.remindAt()),
+                        labels.get(i) != null ? labels.get(i) : task.labels(),
+                        task.createdAt(), task.updatedAt(), task.version()));
+            }
+            for (Map.Entry<Long, StoredTask> entry : result.entrySet()) {
+                StoredTask before = original.get(entry.getKey());
+                StoredTask task = entry.getValue();
+                if (!task.equals(before)) {
+                    task = new StoredTask(task.id(), task.userId(), task.title(), task.description(), task.completed(),
+                            task.dueAt(), task.remindAt(), task.labels(), task.createdAt(), transaction.now(),
+                            before.version() + 1);
+                    transaction.put(task);
+                    entry.setValue(task);
+                }
+                // Like the JPA path, every task in the batch gets an event, changed or not
+                boolean scheduleChanged = !Objects.equals(before.dueAt(), task.dueAt())
+                        || !Objects.equals(before.remindAt(), task.remindAt());
+                List<String> newLabels = before.labels().equals(task.labels()) ? null : task.labels();
+                record(transaction, events, TaskChangedEvent.updated(task.id(), userId, task.completed(), true,
+                        before.completed() != task.completed(), task.title(), task.description(), scheduleChanged,
+                        newLabels));
+            }
+            return result;
+        });
+
+        events.forEach(eventPublisher::publishEvent);
+        List<TaskResponse> responses = new ArrayList<>(updated.size());
+        for (StoredTask task : updated.values()) {
+            responses.add(task.toResponse());
+        }
+        log.debug("Batch updated {} tasks for user: {}", responses.size(), userId);
+        return responses;
+    }
+
+    @Override
+    public int deleteTasks(List<Long> taskIds, Long userId) {
+        checkBatchSize(taskIds);
+        Set<Long> ids = new LinkedHashSet<>(taskIds);
+
+        List<TaskChangedEvent> events = new ArrayList<>(ids.size());
+        List<StoredTask> deleted = store.write(transaction -> {
+            List<StoredTask> owned = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                StoredTask task = transaction.get(id);
+                if (task == null) {
+                    throw new ResourceNotFoundException("One or more tasks not found");
+                }
+                if (task.userId() != userId) {
+                    log.warn("Unauthorized batch delete attempt - task: {}, user: {}", id, userId);
+                    throw new AccessDeniedException("You are not authorized to delete task " + id);
+                }
+                owned.add(task);
+            }
+            for (StoredTask task : owned) {
+                transaction.delete(task.id());
+                record(transaction, events, TaskChangedEvent.deleted(task.id(), userId, task.completed()));
+            }
+            return owned;
+        });
+
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("Batch deleted {} tasks for user: {}", deleted.size(), userId);
+        return deleted.size();
+    }
+
+    // No due-date index here: one user's tasks are few enough to scan
+    @Override
+    public List<TaskResponse> getOverdueTasks(Long userId, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return openDue(userId, task -> task.dueAt().isBefore(now), limit);
+    }
+
+    @Override
+    public List<TaskResponse> getTasksDueSoon(Long userId, Integer hours, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plusHours(dueSoonHours(hours));
+        return openDue(userId, task -> !task.dueAt().isBefore(now) && task.dueAt().isBefore(to), limit);
+    }
+
+    private List<TaskResponse> openDue(Long userId, Predicate<StoredTask> due, Integer limit) {
+        return store.findByUser(userId).stream()
+                .filter(task -> !task.completed() && task.dueAt() != null && due.test(task))
+                .sorted(Comparator.comparing(StoredTask::dueAt).thenComparingLong(StoredTask::id))
+                .limit(listSize(limit))
+                .map(StoredTask::toResponse)
+                .toList();
+    }
+
+    @Override
+    public long getTotalTaskCount() {
+        return store.count();
+    }
+
+    // Audited by the transaction itself; the events are published once it has committed
+    private void record(EmbeddedTaskStore.Transaction transaction, List<TaskChangedEvent> events,
+                        TaskChangedEvent event) {
+        auditService.record(transaction, event);
+        events.add(event);
+    }
+
+    private static StoredTask requireOwned(StoredTask task, Long taskId, Long userId, String action) {
+        if (task == null) {
+            log.warn("Task not found during {}: {}", action, taskId);
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+        if (task.userId() != userId) {
+            log.warn("Unauthorized {} attempt - task: {}, user: {}", action, taskId, userId);
+            throw new AccessDeniedException("You are not authorized to " + action + " this task");
+        }
+        return task;
+    }
+
+    private static void requireVersion(StoredTask task, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != task.version()) {
+            throw new PreconditionFailedException("Task " + task.id() + " is at version " + task.version()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    // Same filters as TaskSpecifications; the title prefix ignores case like MySQL's default collation
+    private static Predicate<StoredTask> matching(TaskQuery query) {
+        Predicate<StoredTask> filter = task -> true;
+        if (query.getCompleted() != null) {
+            boolean completed = query.getCompleted();
+            filter = filter.and(task -> task.completed() == completed);
+        }
+        if (query.getCreatedFrom() != null) {
+            filter = filter.and(task -> !task.createdAt().isBefore(query.getCreatedFrom()));
+        }
+        if (query.getCreatedTo() != null) {
+            filter = filter.and(task -> task.createdAt().isBefore(query.getCreatedTo()));
+        }
+        if (query.getUpdatedFrom() != null) {
+            filter = filter.and(task -> !task.updatedAt().isBefore(query.getUpdatedFrom()));
+        }
+        if (query.getUpdatedTo() != null) {
+            filter = filter.and(task -> task.updatedAt().isBefore(query.getUpdatedTo()));
+        }
+        if (query.getTitlePrefix() != null && !query.getTitlePrefix().isEmpty()) {
+            String prefix = query.getTitlePrefix();
+            filter = filter.and(task -> task.title().regionMatches(true, 0, prefix, 0, prefix.length()));
+        }
+        return filter;
+    }
+
+    // Store ids ascend with createdAt, so the (createdAt, id) cursor position is the id alone
+    private static Long beforeId(TaskQuery query) {
+        return query.getCursor() == null ? null : TaskCursor.decode(query.getCursor()).id();
+    }
+
+    private static List<String> orEmpty(List<String> labels) {
+        return labels == null ? List.of() : labels;
+    }
+
+    private void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+        if (batch.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + batch.size() + " exceeds maximum of " + maxBatchSize);
+        }
+    }
+
+    private int pageSize(TaskQuery query) {
+        return listSize(query.getLimit());
+    }
+
+    private int listSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private int dueSoonHours(Integer hours) {
+        return hours == null ? defaultDueSoonHours : Math.max(1, Math.min(hours, maxDueSoonHours));
+    }
+
+    // Rows were fetched with limit + 1 to learn whether another page exists
+    private static <T> CursorPage<T> toPage(List<StoredTask> rows, int limit, Function<StoredTask, T> mapper) {
+        List<StoredTask> page = rows.size() <= limit ? rows : rows.subList(0, limit);
+        List<T> items = new ArrayList<>(page.size());
+        page.forEach(task -> items.add(mapper.apply(task)));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(items, null);
+        }
+        StoredTask last = page.get(limit - 1);
+        return new CursorPage<>(items, new TaskCursor(last.createdAt(), last.id()).encode());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.service.TaskVersionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user task collection versions for {@code storage.engine=embedded}, bumped after every
+ * committed task change. The store serves a single instance, so versions kept next to it in
+ * memory see every change; the startup epoch in each tag makes sure tags from a previous run
+ * never match.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "embedded")
+public class EmbeddedTaskVersionService implements TaskVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public String collectionTag(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return epoch + "." + userId + "." + (version == null ? 0 : version.get());
+    }
+
+    // After commit, so a tag is never bumped for data a concurrent reader cannot see yet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        versions.computeIfAbsent(event.userId(), id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.response.UserResponse;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.UserService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link UserService} for {@code storage.engine=embedded}. Accounts and their credentials live in
+ * the store: the auth service registers users, checks logins and rehashes passwords there. The
+ * users table is only read once per start, to take over accounts created before the switch.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "embedded")
+public class EmbeddedUserService implements UserService {
+
+    @Autowired
+    private EmbeddedTaskStore store;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public List<UserResponse> getAllUsers() {
+        return store.findUsers().stream().map(StoredUser::toResponse).toList();
+    }
+
+    @Override
+    public Optional<UserResponse> getUserById(Long userId) {
+        return Optional.ofNullable(store.findUser(userId)).map(StoredUser::toResponse);
+    }
+
+    @Override
+    public long getUserCount() {
+        return store.countUsers();
+    }
+
+    // Takes over database accounts the store lacks, or holds without a password (copied by older
+    // versions, which kept credentials in the table). A name or address already used by another
+    // store account is left behind: the store is the source of truth once it has users of its own
+    @EventListener(ApplicationReadyEvent.class)
+    public void importUsers() {
+        List<User> accounts = userRepository.findAll();
+        int imported = store.write(transaction -> {
+            int count = 0;
+            for (User account : accounts) {
+                StoredUser existing = store.findUser(account.getId());
+                if (existing != null && existing.password() != null) {
+                    continue;
+                }
+                if (takenByOther(transaction.findUserByUsername(account.getUsername()), account)
+                        || takenByOther(transaction.findUserByEmail(account.getEmail()), account)) {
+                    log.warn("Not importing user {} (id {}): the name or email belongs to another store account",
+                            account.getUsername(), account.getId());
+                    continue;
+                }
+                transaction.putUser(StoredUser.from(account));
+                count++;
+            }
+            return count;
+        });
+        log.info("Embedded store holds {} users ({} imported)", store.countUsers(), imported);
+    }
+
+    private static boolean takenByOther(StoredUser holder, User account) {
+        return holder != null && holder.id() != account.getId();
+    }
+}
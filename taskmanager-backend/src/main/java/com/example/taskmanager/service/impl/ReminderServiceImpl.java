@@ -0,0 +1,324 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.reminder.Reminder;
+import com.example.taskmanager.reminder.ReminderSink;
+import com.example.taskmanager.reminder.TimingWheel;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.ReminderService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires task reminders from an in-memory {@link TimingWheel} driven by one background thread.
+ * <p>
+ * The wheel only holds reminders set before {@link #getLoadedUntil()}: at startup everything from
+ * {@code reminders.catch-up-minutes} ago up to one window ahead is read through idx_tasks_remind,
+ * and the next window is read in keyset chunks when the clock is half way through the current one.
+ * Committed task events keep the wheel current. Creates and deletes apply directly; updates that
+ * move a reminder or reopen a task only mark the task, and the wheel thread re-reads marked tasks
+ * by id before each tick, so requests never wait on a query here. Events arriving while a window
+ * is loading are marked the same way, which settles rows the load read just before they changed.
+ * <p>
+ * Reminders are handed to every {@link ReminderSink}. Missed reminders within the catch-up window
+ * fire again after a restart, so delivery is at-least-once. The wheel lives in one process: with
+ * several instances, enable reminders on one of them only.
+ */
+@Slf4j
+@Service
+public class ReminderServiceImpl implements ReminderService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Set when storage.engine=embedded; reminders are then read from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private List<ReminderSink> sinks;
+
+    @Value("${reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${reminders.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${reminders.catch-up-minutes:60}")
+    private long catchUpMinutes;
+
+    @Value("${reminders.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    // Guards the wheel, loadedUntil and loading; never held across a query
+    private final ReentrantLock lock = new ReentrantLock();
+    private TimingWheel<Reminder> wheel;
+    private volatile LocalDateTime loadedUntil;
+    private boolean loading;
+
+    // Tasks whose reminder must be re-read before the next tick
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Task reminders disabled");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            wheel = new TimingWheel<>(currentTick());
+            loadedUntil = now.minusMinutes(catchUpMinutes);
+        } finally {
+            lock.unlock();
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("reminder-wheel").daemon(true).factory());
+        // A failed first load is retried by the next tick, which finds the window not loaded yet
+        ticker.execute(() -> {
+            try {
+                int loaded = loadUntil(now.plusMinutes(windowMinutes));
+                log.info("Reminder wheel started with {} reminders up to {} ({} ms ticks)", loaded, loadedUntil, tickMs);
+            } catch (RuntimeException e) {
+                log.error("Initial reminder load failed", e);
+            }
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return wheel == null ? 0 : wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LocalDateTime getLoadedUntil() {
+        return loadedUntil;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            if (loading) {
+                dirty.add(event.taskId());
+            }
+            switch (event.type()) {
+                case CREATED -> {
+                    if (!event.completed() && event.remindAt() != null && event.remindAt().isBefore(loadedUntil)) {
+                        schedule(event.taskId(), event.userId(), event.remindAt());
+                    }
+                }
+                case UPDATED -> {
+                    if (event.completedChanged() && event.completed()) {
+                        wheel.cancel(event.taskId());
+                    } else if (event.completedChanged() || event.scheduleChanged()) {
+                        dirty.add(event.taskId());
+                    }
+                }
+                case DELETED -> wheel.cancel(event.taskId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A failure must not escape: the executor would cancel all later ticks
+    private void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (!now.plus(Duration.ofMinutes(windowMinutes).dividedBy(2)).isBefore(loadedUntil)) {
+                loadUntil(now.plusMinutes(windowMinutes));
+            }
+            reloadDirty();
+
+            List<Reminder> due = new ArrayList<>();
+            lock.lock();
+            try {
+                wheel.advance(currentTick(), (taskId, reminder) -> due.add(reminder));
+            } finally {
+                lock.unlock();
+            }
+            for (Reminder reminder : due) {
+                deliver(reminder);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reminder tick failed", e);
+        }
+    }
+
+    // Reads open tasks with a reminder in [loadedUntil, until) into the wheel
+    private int loadUntil(LocalDateTime until) {
+        LocalDateTime from;
+        lock.lock();
+        try {
+            from = loadedUntil;
+            loading = true;
+        } finally {
+            lock.unlock();
+        }
+
+        int loaded = 0;
+        try {
+            if (embeddedStore != null) {
+                List<StoredTask> tasks = embeddedStore.findRemindersBetween(from, until);
+                lock.lock();
+                try {
+                    tasks.forEach(task -> schedule(task.id(), task.userId(), task.remindAt()));
+                } finally {
+                    lock.unlock();
+                }
+                loaded = tasks.size();
+            } else {
+                // Ids are positive, so an afterId of 0 starts at remindAt >= from
+                LocalDateTime after = from;
+                long afterId = 0;
+                List<TaskRepository.ReminderRow> rows;
+                do {
+                    rows = taskRepository.findRemindersAfter(after, afterId, until, Limit.of(loadBatchSize));
+                    lock.lock();
+                    try {
+                        rows.forEach(row -> schedule(row.getId(), row.getUserId(), row.getRemindAt()));
+                    } finally {
+                        lock.unlock();
+                    }
+                    loaded += rows.size();
+                    if (!rows.isEmpty()) {
+                        TaskRepository.ReminderRow last = rows.get(rows.size() - 1);
+                        after = last.getRemindAt();
+                        afterId = last.getId();
+                    }
+                } while (rows.size() == loadBatchSize);
+            }
+
+            lock.lock();
+            try {
+                loadedUntil = until;
+            } finally {
+                lock.unlock();
+            }
+            log.debug("Loaded {} reminders in [{}, {})", loaded, from, until);
+        } finally {
+            lock.lock();
+            try {
+                loading = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    private void reloadDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> pending = dirty.iterator();
+        while (pending.hasNext() && ids.size() < loadBatchSize) {
+            ids.add(pending.next());
+            pending.remove();
+        }
+
+        Map<Long, Reminder> current = new HashMap<>();
+        if (embeddedStore != null) {
+            for (StoredTask task : embeddedStore.findTasks(ids)) {
+                if (!task.completed() && task.remindAt() != null) {
+                    current.put(task.id(), new Reminder(task.id(), task.userId(), task.remindAt()));
+                }
+            }
+        } else {
+            for (TaskRepository.ReminderRow row : taskRepository.findReminderRowsByIdIn(ids)) {
+                if (!row.isCompleted() && row.getRemindAt() != null) {
+                    current.put(row.getId(), new Reminder(row.getId(), row.getUserId(), row.getRemindAt()));
+                }
+            }
+        }
+
+        // Deleted, completed, cleared, or not due before the loaded window ends: not in the wheel
+        lock.lock();
+        try {
+            for (Long id : ids) {
+                Reminder reminder = current.get(id);
+                if (reminder != null && reminder.remindAt().isBefore(loadedUntil)) {
+                    wheel.schedule(id, tickOf(reminder.remindAt()), reminder);
+                } else {
+                    wheel.cancel(id);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock; a time already passed fires on the next tick
+    private void schedule(long taskId, long userId, LocalDateTime remindAt) {
+        wheel.schedule(taskId, tickOf(remindAt), new Reminder(taskId, userId, remindAt));
+    }
+
+    private void deliver(Reminder reminder) {
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.deliver(reminder);
+            } catch (RuntimeException e) {
+                log.error("Reminder sink {} failed for task {}", sink.getClass().getSimpleName(), reminder.taskId(), e);
+            }
+        }
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(System.currentTimeMillis(), tickMs);
+    }
+
+    // Task times are local like everywhere else in the app; a reminder fires on the first tick at or after it
+    private long tickOf(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + tickMs - 1, tickMs);
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.response.AdminStatsResponse;
+import com.example.taskmanager.dto.response.CacheStatsResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.UserRegisteredEvent;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.StatsService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admin statistics kept as in-memory counters, updated from committed task and user events.
+ * A periodic reconcile recounts from the database; an event that commits while a reconcile
+ * is running can be off by one until the next run. Single task deletes do not tell whether the
+ * task was completed, so they mark that user's completed count stale and a short tick recounts
+ * only that user's completed tasks, adjusting the total by the difference.
+ */
+@Slf4j
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Set when storage.engine=embedded; task and user counts then come from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Recounts run through this rather than @Transactional: getStats and initialize call reconcile on
+    // this bean, which would bypass the proxy. Read-write on purpose, so it runs on the primary: counters
+    // kept current by events must not be reset to the counts of a replica that has not caught up yet
+    private TransactionTemplate recountTransaction;
+
+    private final AtomicLong totalTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final ConcurrentHashMap<Long, AtomicLong> tasksPerUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> completedPerUser = new ConcurrentHashMap<>();
+    private final Map<Role, AtomicLong> usersByRole = new EnumMap<>(Role.class);
+
+    private volatile Instant lastReconciledAt;
+
+    // Users with deletes of unknown completed state; each is removed before its recount, so a delete during it adds it again
+    private final Set<Long> staleCompletedUsers = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    public StatsServiceImpl() {
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        recountTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public AdminStatsResponse getStats() {
+        if (lastReconciledAt == null) {
+            reconcile();
+        }
+
+        Map<Role, Long> roles = new EnumMap<>(Role.class);
+        long totalUsers = 0;
+        for (Map.Entry<Role, AtomicLong> entry : usersByRole.entrySet()) {
+            roles.put(entry.getKey(), entry.getValue().get());
+            totalUsers += entry.getValue().get();
+        }
+
+        long total = totalTasks.get();
+        long completed = completedTasks.get();
+        return new AdminStatsResponse(totalUsers, total, completed, total - completed, roles, lastReconciledAt);
+    }
+
+    @Override
+    public List<CacheStatsResponse> getCacheStats() {
+        List<CacheStatsResponse> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            // Only Caffeine records statistics; other providers are listed by name only
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                result.add(new CacheStatsResponse(name, caffeine.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            } else {
+                result.add(new CacheStatsResponse(name, 0, 0, 0, 0, 0));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getUserTaskCount(Long userId) {
+        if (lastReconciledAt == null) {
+            reconcile();
+        }
+        AtomicLong count = tasksPerUser.get(userId);
+        return count == null ? 0 : count.get();
+    }
+
+    // All counts in one transaction on the primary, so they come from one snapshot
+    @Override
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:600000}", initialDelayString = "${stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        // A lock rather than synchronized: a virtual thread blocking on JDBC inside a monitor pins its carrier
+        reconcileLock.lock();
+        try {
+            recountTransaction.executeWithoutResult(status -> doReconcile());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.completed-recount-interval-ms:5000}")
+    public void recountCompleted() {
+        if (staleCompletedUsers.isEmpty()) {
+            return;
+        }
+        reconcileLock.lock();
+        try {
+            // Embedded deletes always know the completed state, so this branch is only a safety net
+            Map<Long, Long> embeddedCounts = embeddedStore != null ? embeddedStore.countCompletedPerUser() : null;
+            for (Long userId : staleCompletedUsers) {
+                staleCompletedUsers.remove(userId);
+                long count = embeddedCounts != null ? embeddedCounts.getOrDefault(userId, 0L)
+                        : recountTransaction.execute(status -> taskRepository.countCompletedByUserId(userId));
+                long previous = completedCounter(userId).getAndSet(count);
+                completedTasks.addAndGet(count - previous);
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void doReconcile() {
+        long started = System.currentTimeMillis();
+
+        // Everything is recounted, so pending per-user recounts are covered too
+        staleCompletedUsers.clear();
+        Map<Long, Long> perUser = new HashMap<>();
+        Map<Long, Long> completedByUser = new HashMap<>();
+        if (embeddedStore != null) {
+            totalTasks.set(embeddedStore.count());
+            completedTasks.set(embeddedStore.countCompleted());
+            perUser.putAll(embeddedStore.countTasksPerUser());
+            completedByUser.putAll(embeddedStore.countCompletedPerUser());
+        } else {
+            totalTasks.set(taskRepository.count());
+            completedTasks.set(taskRepository.countByCompleted(true));
+            for (TaskRepository.UserTaskCount row : taskRepository.countTasksPerUser()) {
+                perUser.put(row.getUserId(), row.getTaskCount());
+                completedByUser.put(row.getUserId(), row.getCompletedCount());
+            }
+        }
+        tasksPerUser.keySet().retainAll(perUser.keySet());
+        perUser.forEach((userId, count) -> userCounter(userId).set(count));
+        completedPerUser.keySet().retainAll(perUser.keySet());
+        perUser.keySet().forEach(userId -> completedCounter(userId).set(completedByUser.getOrDefault(userId, 0L)));
+
+        usersByRole.values().forEach(count -> count.set(0));
+        if (embeddedStore != null) {
+            embeddedStore.countUsersByRole().forEach((role, count) -> usersByRole.get(role).set(count));
+        } else {
+            for (UserRepository.RoleUserCount row : userRepository.countUsersByRole()) {
+                if (row.getRole() != null) {
+                    usersByRole.get(row.getRole()).set(row.getUserCount());
+                }
+            }
+        }
+
+        lastReconciledAt = Instant.now();
+        log.debug("Stats reconciled in {} ms", System.currentTimeMillis() - started);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                totalTasks.incrementAndGet();
+                userCounter(event.userId()).incrementAndGet();
+                if (event.completed()) {
+                    addCompleted(event.userId(), 1);
+                }
+            }
+            case UPDATED -> {
+                if (event.completedChanged()) {
+                    addCompleted(event.userId(), event.completed() ? 1 : -1);
+                }
+            }
+            case DELETED -> {
+                totalTasks.decrementAndGet();
+                userCounter(event.userId()).decrementAndGet();
+                if (!event.completedKnown()) {
+                    staleCompletedUsers.add(event.userId());
+                } else if (event.completed()) {
+                    addCompleted(event.userId(), -1);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        usersByRole.get(event.role()).incrementAndGet();
+    }
+
+    private AtomicLong userCounter(Long userId) {
+        return tasksPerUser.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private AtomicLong completedCounter(Long userId) {
+        return completedPerUser.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private void addCompleted(Long userId, long delta) {
+        completedTasks.addAndGet(delta);
+        completedCounter(userId).addAndGet(delta);
+    }
+}
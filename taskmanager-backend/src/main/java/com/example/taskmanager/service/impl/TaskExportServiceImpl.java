@@ -0,0 +1,129 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.ExportFormat;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskExportService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,completed,createdAt,updatedAt,userId,username,email\n";
+
+    // Tasks read from the embedded store per chunk, each under one short read lock
+    private static final int STORE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Set when storage.engine=embedded; the export then reads from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAllTasks(ExportFormat format, OutputStream out) throws IOException {
+        // Rows are DTO projections, so nothing accumulates in the persistence context
+        try (Stream<AdminTaskResponse> rows = embeddedStore != null ? streamFromStore() : taskRepository.streamAllForExport()) {
+            long count = format == ExportFormat.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeNdjson(rows.iterator(), out);
+            log.info("Exported {} tasks as {}", count, format);
+            return count;
+        }
+    }
+
+    // In id order like the database export; a task created during the export is included if its id comes later
+    private Stream<AdminTaskResponse> streamFromStore() {
+        return Stream.iterate(embeddedStore.findAfter(0, STORE_CHUNK_SIZE), chunk -> !chunk.isEmpty(),
+                        chunk -> embeddedStore.findAfter(chunk.get(chunk.size() - 1).id(), STORE_CHUNK_SIZE))
+                .flatMap(List::stream)
+                .map(task -> task.toAdminResponse(embeddedStore.findUser(task.userId())));
+    }
+
+    private long writeNdjson(Iterator<AdminTaskResponse> rows, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        // The response stream belongs to the servlet container, so flush it but leave it open
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (rows.hasNext()) {
+                writer.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<AdminTaskResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            AdminTaskResponse row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writeCsvField(writer, row.getTitle());
+            writer.write(',');
+            writeCsvField(writer, row.getDescription());
+            writer.write(',');
+            writer.write(String.valueOf(row.isCompleted()));
+            writer.write(',');
+            writeCsvField(writer, row.getCreatedAt() == null ? null : row.getCreatedAt().toString());
+            writer.write(',');
+            writeCsvField(writer, row.getUpdatedAt() == null ? null : row.getUpdatedAt().toString());
+            writer.write(',');
+            if (row.getUser() != null) {
+                writer.write(String.valueOf(row.getUser().getId()));
+                writer.write(',');
+                writeCsvField(writer, row.getUser().getUsername());
+                writer.write(',');
+                writeCsvField(writer, row.getUser().getEmail());
+            } else {
+                writer.write(",,");
+            }
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
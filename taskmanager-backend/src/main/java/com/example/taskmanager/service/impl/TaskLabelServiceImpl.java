@@ -0,0 +1,251 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.LabelQuery;
+import com.example.taskmanager.dto.request.TaskCursor;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.LabelCountResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.label.LabelIndex;
+import com.example.taskmanager.label.Labels;
+import com.example.taskmanager.repository.TaskLabelRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskLabelService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Label filters and counts over an in-memory {@link LabelIndex} per user: compressed bitmaps of
+ * task ids per label and for the completed tasks, kept current from committed task events and
+ * rebuilt from the database at startup, one user per job on a small pool. A filter yields ids
+ * newest first; the response rows are then read by primary key. The index serves filters and
+ * counts only: the label names in responses are read from task_labels with the rows, so they
+ * always match the row they belong to.
+ */
+@Slf4j
+@Service
+public class TaskLabelServiceImpl implements TaskLabelService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskLabelRepository taskLabelRepository;
+
+    // Set when storage.engine=embedded; tasks and their labels are then read from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${tasks.labels.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final ConcurrentHashMap<Long, LabelIndex> indexes = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> findTasks(Long userId, LabelQuery query) {
+        List<String> all = orEmpty(Labels.normalize(query.getAll()));
+        List<String> any = orEmpty(Labels.normalize(query.getAny()));
+        List<String> none = orEmpty(Labels.normalize(query.getNone()));
+        int limit = query.getLimit() == null ? defaultPageSize : Math.max(1, Math.min(query.getLimit(), maxPageSize));
+        Long beforeId = query.getCursor() == null ? null : TaskCursor.decode(query.getCursor()).id();
+
+        LabelIndex index = indexes.get(userId);
+        if (index == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+        while (true) {
+            // One id past the page tells whether another page exists
+            long[] ids = index.find(all, any, none, query.getCompleted(), beforeId, limit + 1);
+            int count = Math.min(ids.length, limit);
+            if (count == 0) {
+                return new CursorPage<>(List.of(), null);
+            }
+
+            List<Long> idList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                idList.add(ids[i]);
+            }
+            Map<Long, TaskResponse> rows = new HashMap<>();
+            List<TaskResponse> found = embeddedStore != null
+                    ? embeddedStore.findTasks(idList).stream().map(StoredTask::toResponse).toList()
+                    : taskRepository.findResponsesByIdIn(idList);
+            found.forEach(row -> rows.put(row.getId(), row));
+
+            // Keep the index's order; skip rows deleted since, and never return another user's task
+            List<TaskResponse> items = new ArrayList<>(count);
+            for (Long id : idList) {
+                TaskResponse row = rows.get(id);
+                if (row != null && userId.equals(row.getUserId())) {
+                    items.add(row);
+                }
+            }
+            // Every row of this page was deleted meanwhile: read on past it rather than end the listing
+            if (items.isEmpty() && ids.length > limit) {
+                beforeId = idList.get(count - 1);
+                continue;
+            }
+            fillLabels(items);
+            if (ids.length <= limit) {
+                return new CursorPage<>(items, null);
+            }
+            TaskResponse last = items.get(items.size() - 1);
+            return new CursorPage<>(items, new TaskCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+    }
+
+    @Override
+    public List<LabelCountResponse> getLabelCounts(Long userId) {
+        LabelIndex index = indexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+        List<LabelCountResponse> counts = new ArrayList<>();
+        for (LabelIndex.LabelCount count : index.counts()) {
+            counts.add(new LabelCountResponse(count.name(), count.count(), count.openCount()));
+        }
+        return counts;
+    }
+
+    // One query for the labels of all the rows. Not from the index: a row read from the database can
+    // be newer than the events the index has applied so far, and its labels must match it
+    @Override
+    public void fillLabels(List<TaskResponse> tasks) {
+        // Rows from the embedded store carry their labels already
+        if (embeddedStore != null || tasks.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> ids.add(task.getId()));
+        Map<Long, List<String>> labels = new HashMap<>();
+        for (TaskLabelRepository.TaskLabelRow row : taskLabelRepository.findRowsByTaskIdIn(ids)) {
+            labels.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row.getName());
+        }
+        for (TaskResponse task : tasks) {
+            task.setLabels(labels.getOrDefault(task.getId(), List.of()));
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        List<Long> userIds = embeddedStore != null ? embeddedStore.findUserIdsWithTasks() : taskRepository.findDistinctUserIds();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<Long>> jobs = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                jobs.add(pool.submit(() -> rebuildUser(userId)));
+            }
+
+            long tasks = 0;
+            int failed = 0;
+            for (Future<Long> job : jobs) {
+                try {
+                    tasks += job.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Label index rebuild failed for a user", e.getCause());
+                }
+            }
+            log.info("Label index rebuilt for {} users, {} tasks in {} ms ({} failed)",
+                    userIds.size(), tasks, System.currentTimeMillis() - started, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            ready = true;
+        }
+    }
+
+    // The load holds the user's write lock, so events for that user wait and apply on top of it
+    private long rebuildUser(Long userId) {
+        LabelIndex index = indexFor(userId);
+        index.load(() -> {
+            List<LabelIndex.Entry> entries = new ArrayList<>();
+            if (embeddedStore != null) {
+                for (StoredTask task : embeddedStore.findByUser(userId)) {
+                    entries.add(new LabelIndex.Entry(task.id(), task.completed(), task.labels()));
+                }
+                return entries;
+            }
+            Map<Long, List<String>> labels = new HashMap<>();
+            for (TaskLabelRepository.TaskLabelRow row : taskLabelRepository.findRowsByUserId(userId)) {
+                labels.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row.getName());
+            }
+            for (TaskRepository.TaskState task : taskRepository.findStatesByUserId(userId)) {
+                entries.add(new LabelIndex.Entry(task.getId(), task.isCompleted(),
+                        labels.getOrDefault(task.getId(), List.of())));
+            }
+            return entries;
+        });
+        return index.size();
+    }
+
+    // Ahead of the other listeners, so the cache and change streams re-read tasks with their new labels
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> indexFor(event.userId()).put(event.taskId(), event.completed(), orEmpty(event.labels()));
+            case UPDATED -> {
+                LabelIndex index = indexFor(event.userId());
+                // completed is only reliable when it changed (see TaskChangedEvent)
+                if (event.completedChanged()) {
+                    index.updateCompleted(event.taskId(), event.completed());
+                }
+                if (event.labels() != null) {
+                    index.setLabels(event.taskId(), event.labels());
+                }
+            }
+            case DELETED -> {
+                LabelIndex index = indexes.get(event.userId());
+                if (index != null) {
+                    index.remove(event.taskId());
+                }
+            }
+        }
+    }
+
+    private LabelIndex indexFor(Long userId) {
+        return indexes.computeIfAbsent(userId, id -> new LabelIndex());
+    }
+
+    private static List<String> orEmpty(List<String> labels) {
+        return labels == null ? List.of() : labels;
+    }
+}
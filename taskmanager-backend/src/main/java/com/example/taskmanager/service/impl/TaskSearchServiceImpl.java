@@ -0,0 +1,188 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.search.InvertedIndex;
+import com.example.taskmanager.service.TaskLabelService;
+import com.example.taskmanager.service.TaskSearchService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Task search over an in-memory inverted index per user, kept current from committed task
+ * events and rebuilt from the database at startup, one user per job on a small pool.
+ * The index only yields ranked ids; the response rows are then read by primary key.
+ */
+@Slf4j
+@Service
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Set when storage.engine=embedded; tasks are then read from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private TaskLabelService taskLabelService;
+
+    @Value("${tasks.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${tasks.search.max-limit:100}")
+    private int maxLimit;
+
+    // Caps how many indexed terms one short query prefix may expand to
+    @Value("${tasks.search.max-prefix-expansions:100}")
+    private int maxPrefixExpansions;
+
+    @Value("${tasks.search.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final ConcurrentHashMap<Long, InvertedIndex> indexes = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponse> search(Long userId, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        InvertedIndex index = indexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+
+        int size = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        long[] ids = index.search(query, size, maxPrefixExpansions);
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, TaskResponse> rows = new HashMap<>();
+        if (embeddedStore != null) {
+            for (StoredTask task : embeddedStore.findTasks(idList)) {
+                rows.put(task.id(), task.toResponse());
+            }
+        } else {
+            for (TaskResponse row : taskRepository.findResponsesByIdIn(idList)) {
+                rows.put(row.getId(), row);
+            }
+        }
+
+        // Keep the index's ranking; skip rows deleted since, and never return another user's task
+        List<TaskResponse> results = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            TaskResponse row = rows.get(id);
+            if (row != null && userId.equals(row.getUserId())) {
+                results.add(row);
+            }
+        }
+        taskLabelService.fillLabels(results);
+        return results;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        List<Long> userIds = embeddedStore != null ? embeddedStore.findUserIdsWithTasks() : taskRepository.findDistinctUserIds();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<Integer>> jobs = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                jobs.add(pool.submit(() -> rebuildUser(userId)));
+            }
+
+            int documents = 0;
+            int failed = 0;
+            for (Future<Integer> job : jobs) {
+                try {
+                    documents += job.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Search index rebuild failed for a user", e.getCause());
+                }
+            }
+            log.info("Search index rebuilt for {} users, {} tasks in {} ms ({} failed)",
+                    userIds.size(), documents, System.currentTimeMillis() - started, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            ready = true;
+        }
+    }
+
+    // The load holds the user's write lock, so events for that user wait and apply on top of it
+    private int rebuildUser(Long userId) {
+        InvertedIndex index = indexes.computeIfAbsent(userId, id -> new InvertedIndex());
+        index.load(() -> {
+            List<InvertedIndex.Document> documents = new ArrayList<>();
+            if (embeddedStore != null) {
+                for (StoredTask task : embeddedStore.findByUser(userId)) {
+                    documents.add(new InvertedIndex.Document(task.id(), task.title(), task.description()));
+                }
+                return documents;
+            }
+            for (TaskRepository.SearchDocument row : taskRepository.findSearchDocumentsByUserId(userId)) {
+                documents.add(new InvertedIndex.Document(row.getId(), row.getTitle(), row.getDescription()));
+            }
+            return documents;
+        });
+        return index.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> indexFor(event.userId()).put(event.taskId(), event.title(), event.description());
+            case UPDATED -> {
+                if (event.title() != null || event.description() != null) {
+                    indexFor(event.userId()).put(event.taskId(), event.title(), event.description());
+                }
+            }
+            case DELETED -> {
+                InvertedIndex index = indexes.get(event.userId());
+                if (index != null) {
+                    index.remove(event.taskId());
+                }
+            }
+        }
+    }
+
+    private InvertedIndex indexFor(Long userId) {
+        return indexes.computeIfAbsent(userId, id -> new InvertedIndex());
+    }
+}
@@ -1,21 +1,56 @@
 package com.example.taskmanager.service.impl;
 
+import com.example.taskmanager.dto.request.BatchUpdateTaskRequest;
 import com.example.taskmanager.dto.request.CreateTaskRequest;
+import com.example.taskmanager.dto.request.TaskCursor;
+import com.example.taskmanager.dto.request.TaskQuery;
 import com.example.taskmanager.dto.request.UpdateTaskRequest;
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.AccessDeniedException;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.exception.ResourceNotFoundException;
+import com.example.taskmanager.label.Labels;
+import com.example.taskmanager.model.Label;
 import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.TaskLabel;
+import com.example.taskmanager.model.TaskTombstone;
 import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.LabelRepository;
+import com.example.taskmanager.repository.TaskLabelRepository;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecifications;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.TaskLabelService;
 import com.example.taskmanager.service.TaskService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "jpa", matchIfMissing = true)
 @Transactional
 public class TaskServiceImpl implements TaskService {
 
@@ -25,25 +60,61 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private TaskLabelRepository taskLabelRepository;
+
+    @Autowired
+    private TaskLabelService taskLabelService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${tasks.due-soon.default-hours:24}")
+    private int defaultDueSoonHours;
+
+    @Value("${tasks.due-soon.max-hours:720}")
+    private int maxDueSoonHours;
+
     @Override
-    public Task createTask(CreateTaskRequest request, Long userId) {
+    public TaskResponse createTask(CreateTaskRequest request, Long userId) {
         try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> {
-                        log.warn("User not found when creating task: {}", userId);
-                        return new RuntimeException("User not found with id: " + userId);
-                    });
+            // The caller is already authenticated, so only a reference is needed for the FK
+            User user = userRepository.getReferenceById(userId);
 
             Task task = new Task();
             task.setTitle(request.getTitle());
             task.setDescription(request.getDescription());
             task.setCompleted(false);
+            task.setDueAt(request.getDueAt());
+            task.setRemindAt(request.getRemindAt());
             task.setUser(user);
+            List<String> labels = orEmpty(Labels.normalize(request.getLabels()));
 
-            Task savedTask = taskRepository.save(task);
-            log.info("Task created - ID: {}, user: {}, title: {}", savedTask.getId(), userId, request.getTitle());
+            // Sequence ids defer the INSERT; flush so the creation timestamps are set for the response
+            Task savedTask = taskRepository.saveAndFlush(task);
+            writeLabels(userId, Map.of(savedTask.getId(), labels), false);
+            eventPublisher.publishEvent(TaskChangedEvent.created(savedTask.getId(), userId, savedTask.isCompleted(),
+                    savedTask.getTitle(), savedTask.getDescription(), savedTask.getRemindAt(), labels));
+            log.debug("Task created - ID: {}, user: {}, title: {}", savedTask.getId(), userId, request.getTitle());
 
-            return savedTask;
+            TaskResponse response = TaskResponse.from(savedTask);
+            response.setLabels(labels);
+            return response;
 
         } catch (Exception e) {
             log.error("Failed to create task for user: {}, title: {}", userId, request.getTitle(), e);
@@ -52,23 +123,36 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public List<Task> getUserTasks(Long userId) {
-        return taskRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> getUserTasks(Long userId, TaskQuery query) {
+        int limit = pageSize(query);
+        Specification<Task> spec = TaskSpecifications.ownedBy(userId).and(TaskSpecifications.matching(query, cursorOf(query)));
+        CursorPage<TaskResponse> page = toPage(taskRepository.findTaskPage(spec, limit + 1), limit,
+                task -> new TaskCursor(task.getCreatedAt(), task.getId()));
+        taskLabelService.fillLabels(page.getItems());
+        return page;
     }
 
     @Override
-    public List<Task> getAllTasks() {
-        return taskRepository.findAllByOrderByCreatedAtDesc();
+    @Transactional(readOnly = true)
+    public CursorPage<AdminTaskResponse> getAllTasks(TaskQuery query) {
+        int limit = pageSize(query);
+        Specification<Task> spec = TaskSpecifications.matching(query, cursorOf(query));
+        return toPage(taskRepository.findAdminTaskPage(spec, limit + 1), limit,
+                task -> new TaskCursor(task.getCreatedAt(), task.getId()));
     }
 
     @Override
-    public Task getTaskById(Long taskId) {
+    @Transactional(readOnly = true)
+    public TaskResponse getTaskById(Long taskId) {
         try {
-            return taskRepository.findById(taskId)
+            TaskResponse task = taskRepository.findResponseById(taskId)
                     .orElseThrow(() -> {
                         log.warn("Task not found: {}", taskId);
-                        return new RuntimeException("Task not found with id: " + taskId);
+                        return new ResourceNotFoundException("Task not found with id: " + taskId);
                     });
+            taskLabelService.fillLabels(List.of(task));
+            return task;
         } catch (Exception e) {
             log.error("Error getting task by ID: {}", taskId, e);
             throw e;
@@ -76,19 +160,176 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public Task updateTask(Long taskId, UpdateTaskRequest request, Long userId) {
-        try {
-            Task task = taskRepository.findById(taskId)
-                    .orElseThrow(() -> {
-                        log.warn("Task not found during update: {}", taskId);
-                        return new RuntimeException("Task not found with id: " + taskId);
-                    });
+    public TaskResponse updateTask(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        applyTaskUpdate(taskId, request, userId, expectedVersion);
+        // Read back with its labels from task_labels, which the update has committed
+        return getTaskById(taskId);
+    }
+
+    @Override
+    public void applyTaskUpdate(Long taskId, UpdateTaskRequest request, Long userId, Long expectedVersion) {
+        List<String> labels = Labels.normalize(request.getLabels());
+        LocalDateTime now = LocalDateTime.now();
+        Long expected = expectedVersion;
+        boolean owned = false;
+        boolean completedChanged = false;
+
+        // A completion toggle is one UPDATE guarded by owner, current state and version
+        if (request.getCompleted() != null) {
+            completedChanged = taskRepository.updateCompletedIfOwned(taskId, userId, request.getCompleted(), now,
+                    expected) == 1;
+            owned = completedChanged;
+            if (completedChanged && expected != null) {
+                expected++;
+            }
+        }
+        if (request.changesContent()) {
+            owned = taskRepository.updateContentIfOwned(taskId, userId, request.getTitle(), request.getDescription(),
+                    request.getDueAt(), Boolean.TRUE.equals(request.getClearDueAt()), request.getRemindAt(),
+                    Boolean.TRUE.equals(request.getClearRemindAt()), now, expected) == 1;
+        }
+
+        if (!owned) {
+            // Nothing matched: the task is missing, foreign, at another version or already up to date
+            TaskRepository.TaskOwnership task = requireOwned(taskId, userId, "update");
+            requireVersion(task, expectedVersion);
+            log.debug("Task update changed nothing - ID: {}, user: {}", taskId, userId);
+            return;
+        }
+        // The content update above matched, so the task is owned and at the expected version
+        if (labels != null) {
+            writeLabels(userId, Map.of(taskId, labels), true);
+        }
+
+        // The new completion state is only known when the request set it (see TaskChangedEvent)
+        boolean completed = Boolean.TRUE.equals(request.getCompleted());
+        eventPublisher.publishEvent(TaskChangedEvent.updated(taskId, userId, completed, request.getCompleted() != null,
+                completedChanged, request.getTitle(), request.getDescription(), request.changesSchedule(), labels));
+        log.debug("Task updated - ID: {}, user: {}", taskId, userId);
+    }
+
+    @Override
+    public void deleteTask(Long taskId, Long userId, Long expectedVersion) {
+        // One conditional statement; the row is not read, so the event does not know its completed state
+        if (taskRepository.deleteIfOwned(taskId, userId, expectedVersion) == 0) {
+            requireVersion(requireOwned(taskId, userId, "delete"), expectedVersion);
+            // Owned and current but gone before the read: a concurrent delete already won
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+
+        // Same transaction as the delete, so sync clients see either both or neither
+        taskTombstoneRepository.save(new TaskTombstone(taskId, userId, LocalDateTime.now()));
+
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId, userId));
+        log.debug("Task deleted - ID: {}, user: {}", taskId, userId);
+    }
+
+    private static void requireVersion(TaskRepository.TaskOwnership task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task " + task.getId() + " is at version " + task.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    // Explains a conditional write that matched no rows
+    private TaskRepository.TaskOwnership requireOwned(Long taskId, Long userId, String action) {
+        TaskRepository.TaskOwnership task = taskRepository.findOwnershipById(taskId)
+                .orElseThrow(() -> {
+                    log.warn("Task not found during {}: {}", action, taskId);
+                    return new ResourceNotFoundException("Task not found with id: " + taskId);
+                });
+        if (!userId.equals(task.getUserId())) {
+            log.warn("Unauthorized {} attempt - task: {}, user: {}", action, taskId, userId);
+            throw new AccessDeniedException("You are not authorized to " + action + " this task");
+        }
+        return task;
+    }
+
+    @Override
+    public List<TaskResponse> createTasks(List<CreateTaskRequest> requests, Long userId) {
+        checkBatchSize(requests);
+        User user = userRepository.getReferenceById(userId);
+
+        List<Task> tasks = new ArrayList<>(requests.size());
+        List<List<String>> labels = new ArrayList<>(requests.size());
+        for (CreateTaskRequest request : requests) {
+            if (request.getTitle() == null || request.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Title is required");
+            }
+            labels.add(orEmpty(Labels.normalize(request.getLabels())));
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setCompleted(false);
+            task.setDueAt(request.getDueAt());
+            task.setRemindAt(request.getRemindAt());
+            task.setUser(user);
+            tasks.add(task);
+        }
+
+        // Ids come from the pooled sequence, so the flush sends the inserts as JDBC batches
+        List<Task> saved = taskRepository.saveAllAndFlush(tasks);
+        Map<Long, List<String>> labelsByTask = new HashMap<>();
+        for (int i = 0; i < saved.size(); i++) {
+            labelsByTask.put(saved.get(i).getId(), labels.get(i));
+        }
+        writeLabels(userId, labelsByTask, false);
+
+        List<TaskResponse> responses = new ArrayList<>(saved.size());
+        for (Task task : saved) {
+            List<String> taskLabels = labelsByTask.get(task.getId());
+            eventPublisher.publishEvent(TaskChangedEvent.created(task.getId(), userId, task.isCompleted(),
+                    task.getTitle(), task.getDescription(), task.getRemindAt(), taskLabels));
+            TaskResponse response = TaskResponse.from(task);
+            response.setLabels(taskLabels);
+            responses.add(response);
+        }
+        log.debug("Batch created {} tasks for user: {}", saved.size(), userId);
+        return responses;
+    }
+
+    @Override
+    public List<TaskResponse> updateTasks(List<BatchUpdateTaskRequest> requests, Long userId) {
+        checkBatchSize(requests);
 
+        Set<Long> ids = new LinkedHashSet<>();
+        // Requests for the same task apply in order, so its last label list wins
+        Map<Long, List<String>> labelsByTask = new HashMap<>();
+        for (BatchUpdateTaskRequest request : requests) {
+            if (request.getId() == null) {
+                throw new IllegalArgumentException("Task id is required");
+            }
+            ids.add(request.getId());
+            List<String> labels = Labels.normalize(request.getLabels());
+            if (labels != null) {
+                labelsByTask.put(request.getId(), labels);
+            }
+        }
+
+        // One SELECT ... IN for the whole batch, which also serves as the ownership check
+        List<Task> tasks = taskRepository.findAllById(ids);
+        if (tasks.size() != ids.size()) {
+            throw new ResourceNotFoundException("One or more tasks not found");
+        }
+        Map<Long, Task> byId = new HashMap<>();
+        for (Task task : tasks) {
             if (!task.getUser().getId().equals(userId)) {
-                log.warn("Unauthorized update attempt - task: {}, user: {}", taskId, userId);
-                throw new RuntimeException("You are not authorized to update this task");
+                log.warn("Unauthorized batch update attempt - task: {}, user: {}", task.getId(), userId);
+                throw new AccessDeniedException("You are not authorized to update task " + task.getId());
             }
+            byId.put(task.getId(), task);
+        }
 
+        Map<Long, Boolean> wasCompleted = new HashMap<>();
+        Set<Long> rescheduled = new HashSet<>();
+        for (BatchUpdateTaskRequest request : requests) {
+            Task task = byId.get(request.getId());
+            wasCompleted.putIfAbsent(task.getId(), task.isCompleted());
+            if (request.changesSchedule()) {
+                task.setDueAt(request.resolveDueAt(task.getDueAt()));
+                task.setRemindAt(request.resolveRemindAt(task.getRemindAt()));
+                rescheduled.add(task.getId());
+            }
             if (request.getTitle() != null) {
                 task.setTitle(request.getTitle());
             }
@@ -98,43 +339,174 @@ public class TaskServiceImpl implements TaskService {
             if (request.getCompleted() != null) {
                 task.setCompleted(request.getCompleted());
             }
+            // Labels live in their own table; touching the row gives the task a new version for them
+            if (request.getLabels() != null) {
+                task.setUpdatedAt(LocalDateTime.now());
+            }
+        }
 
-            Task updatedTask = taskRepository.save(task);
-            log.info("Task updated - ID: {}, user: {}", taskId, userId);
-
-            return updatedTask;
+        // Dirty tasks are flushed as one batched UPDATE statement
+        taskRepository.flush();
+        writeLabels(userId, labelsByTask, true);
 
-        } catch (Exception e) {
-            log.error("Failed to update task: {}, user: {}", taskId, userId, e);
-            throw e;
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (Task task : byId.values()) {
+            List<String> labels = labelsByTask.get(task.getId());
+            eventPublisher.publishEvent(TaskChangedEvent.updated(task.getId(), userId, task.isCompleted(), true,
+                    wasCompleted.get(task.getId()) != task.isCompleted(), task.getTitle(), task.getDescription(),
+                    rescheduled.contains(task.getId()), labels));
+            TaskResponse response = TaskResponse.from(task);
+            response.setLabels(labels);
+            responses.add(response);
         }
+        // Tasks whose labels the batch left alone get their current ones
+        List<TaskResponse> unlabeled = responses.stream().filter(response -> response.getLabels() == null).toList();
+        taskLabelService.fillLabels(unlabeled);
+        log.debug("Batch updated {} tasks for user: {}", responses.size(), userId);
+        return responses;
     }
 
     @Override
-    public void deleteTask(Long taskId, Long userId) {
-        try {
-            Task task = taskRepository.findById(taskId)
-                    .orElseThrow(() -> {
-                        log.warn("Task not found during deletion: {}", taskId);
-                        return new RuntimeException("Task not found with id: " + taskId);
-                    });
+    public int deleteTasks(List<Long> taskIds, Long userId) {
+        checkBatchSize(taskIds);
+        Set<Long> ids = new LinkedHashSet<>(taskIds);
 
-            if (!task.getUser().getId().equals(userId)) {
-                log.warn("Unauthorized delete attempt - task: {}, user: {}", taskId, userId);
-                throw new RuntimeException("You are not authorized to delete this task");
+        List<TaskRepository.TaskOwnership> owned = taskRepository.findOwnershipByIdIn(ids);
+        if (owned.size() != ids.size()) {
+            throw new ResourceNotFoundException("One or more tasks not found");
+        }
+        for (TaskRepository.TaskOwnership task : owned) {
+            if (!userId.equals(task.getUserId())) {
+                log.warn("Unauthorized batch delete attempt - task: {}, user: {}", task.getId(), userId);
+                throw new AccessDeniedException("You are not authorized to delete task " + task.getId());
             }
+        }
 
-            taskRepository.delete(task);
-            log.info("Task deleted - ID: {}, user: {}", taskId, userId);
+        // A single DELETE ... WHERE id IN (...)
+        taskRepository.deleteAllByIdInBatch(ids);
 
-        } catch (Exception e) {
-            log.error("Failed to delete task: {}, user: {}", taskId, userId, e);
-            throw e;
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskTombstone> tombstones = new ArrayList<>(owned.size());
+        for (TaskRepository.TaskOwnership task : owned) {
+            tombstones.add(new TaskTombstone(task.getId(), userId, now));
+        }
+        taskTombstoneRepository.saveAll(tombstones);
+
+        for (TaskRepository.TaskOwnership task : owned) {
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(task.getId(), userId, task.isCompleted()));
         }
+        log.debug("Batch deleted {} tasks for user: {}", owned.size(), userId);
+        return owned.size();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getOverdueTasks(Long userId, Integer limit) {
+        List<TaskResponse> tasks = taskRepository.findOverdue(userId, LocalDateTime.now(), Limit.of(listSize(limit)));
+        taskLabelService.fillLabels(tasks);
+        return tasks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksDueSoon(Long userId, Integer hours, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskResponse> tasks = taskRepository.findOpenDueBetween(userId, now, now.plusHours(dueSoonHours(hours)),
+                Limit.of(listSize(limit)));
+        taskLabelService.fillLabels(tasks);
+        return tasks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public long getTotalTaskCount() {
         return taskRepository.count();
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the task_labels rows for the given tasks, first removing their current ones when
+     * {@code replace} is set. The user's labels are looked up with one query and the missing
+     * ones created; the rows then go out as one JDBC batch.
+     */
+    private void writeLabels(Long userId, Map<Long, List<String>> labelsByTask, boolean replace) {
+        if (labelsByTask.isEmpty()) {
+            return;
+        }
+        if (replace) {
+            taskLabelRepository.deleteByTaskIdIn(labelsByTask.keySet());
+        }
+        Set<String> names = new TreeSet<>();
+        labelsByTask.values().forEach(names::addAll);
+        if (names.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> labelIds = labelIds(userId, names);
+        List<TaskLabel> rows = new ArrayList<>();
+        labelsByTask.forEach((taskId, labels) -> {
+            for (String name : labels) {
+                rows.add(new TaskLabel(taskId, labelIds.get(name)));
+            }
+        });
+        taskLabelRepository.saveAll(rows);
+    }
+
+    private Map<String, Long> labelIds(Long userId, Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Label label : labelRepository.findByUserIdAndNameIn(userId, names)) {
+            ids.put(label.getName(), label.getId());
+        }
+        List<Label> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                missing.add(new Label(userId, name));
+            }
+        }
+        // Flushed here so the label rows precede the task_labels rows that reference them
+        if (!missing.isEmpty()) {
+            for (Label label : labelRepository.saveAllAndFlush(missing)) {
+                ids.put(label.getName(), label.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> orEmpty(List<String> labels) {
+        return labels == null ? List.of() : labels;
+    }
+
+    private void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+        if (batch.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + batch.size() + " exceeds maximum of " + maxBatchSize);
+        }
+    }
+
+    private int pageSize(TaskQuery query) {
+        return listSize(query.getLimit());
+    }
+
+    private int listSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private int dueSoonHours(Integer hours) {
+        return hours == null ? defaultDueSoonHours : Math.max(1, Math.min(hours, maxDueSoonHours));
+    }
+
+    private static TaskCursor cursorOf(TaskQuery query) {
+        return query.getCursor() == null ? null : TaskCursor.decode(query.getCursor());
+    }
+
+    // Rows were fetched with limit + 1 to learn whether another page exists without a COUNT query
+    private static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, TaskCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.response.TaskChangeResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.TooManyRequestsException;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskLabelService;
+import com.example.taskmanager.service.TaskStreamService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed task changes to open SSE connections.
+ * <p>
+ * An idle connection is just an async request plus an empty queue, so it holds no thread.
+ * Each connection has a bounded buffer drained by a virtual thread; a blocked socket write
+ * parks only that drain. A client that falls {@code tasks.stream.buffer-size} events behind is
+ * disconnected rather than buffered without limit. One scheduled job sends heartbeats to all
+ * connections, which keeps proxies from closing them and detects dead peers.
+ * <p>
+ * Changes are published through {@code tasks.stream.dispatch-lanes} serial lanes chosen by user
+ * id, so each user's events reach the stream in the order their transactions committed: a
+ * "created" can never overtake the "deleted" that followed it.
+ */
+@Slf4j
+@Service
+public class TaskStreamServiceImpl implements TaskStreamService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Set when storage.engine=embedded; tasks are then read from it instead of the database
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Autowired
+    private TaskLabelService taskLabelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Clients reconnect when this expires (EventSource does so automatically)
+    @Value("${tasks.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${tasks.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${tasks.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${tasks.stream.max-connections:50000}")
+    private int maxConnections;
+
+    @Value("${tasks.stream.dispatch-lanes:64}")
+    private int laneCount;
+
+    private final ConcurrentHashMap<Long, Set<Connection>> byUser = new ConcurrentHashMap<>();
+    private final Set<Connection> firehose = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final ExecutorService dispatcher =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-stream-", 0).factory());
+
+    private Lane[] lanes;
+
+    @PostConstruct
+    void init() {
+        lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        return open(userId);
+    }
+
+    @Override
+    public SseEmitter subscribeAll() {
+        return open(null);
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    private SseEmitter open(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new TooManyRequestsException("Task stream connection limit reached", 5);
+        }
+
+        SseEmitter emitter = createEmitter();
+        Connection connection = new Connection(emitter, userId);
+        try {
+            register(connection);
+        } catch (TooManyRequestsException e) {
+            connectionCount.decrementAndGet();
+            throw e;
+        }
+        emitter.onCompletion(connection::release);
+        emitter.onTimeout(connection::release);
+        emitter.onError(error -> connection.release());
+
+        // Sent at once so the response headers reach the client through any buffering proxy
+        connection.offer(Message.comment("connected"));
+        log.debug("Task stream opened - user: {}, open: {}", connection.label(), connectionCount.get());
+        return emitter;
+    }
+
+    // Package-private so tests can stand in a client that stops reading
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // Per-user sets are created and dropped inside compute, so a connection never lands in a set being removed
+    private void register(Connection connection) {
+        if (connection.userId == null) {
+            firehose.add(connection);
+            return;
+        }
+        byUser.compute(connection.userId, (id, connections) -> {
+            Set<Connection> set = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            if (set.size() >= maxPerUser) {
+                throw new TooManyRequestsException("Too many open task streams for this user", 5);
+            }
+            set.add(connection);
+            return set;
+        });
+    }
+
+    private void unregister(Connection connection) {
+        if (connection.userId == null) {
+            firehose.remove(connection);
+            return;
+        }
+        byUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // The common case: nobody is listening, so no read and no serialization
+        if (!byUser.containsKey(event.userId()) && firehose.isEmpty()) {
+            return;
+        }
+        // Listeners run in commit order, so queueing here keeps that order within each user's lane
+        lanes[Math.floorMod(event.userId().hashCode(), lanes.length)].offer(event);
+    }
+
+    // Off the committing thread: read the current state once and share the serialized event
+    private void publish(TaskChangedEvent event) {
+        TaskResponse task = null;
+        if (event.type() != TaskChangedEvent.Type.DELETED) {
+            if (embeddedStore != null) {
+                StoredTask stored = embeddedStore.findTask(event.taskId());
+                task = stored == null ? null : stored.toResponse();
+            } else {
+                task = taskRepository.findResponseById(event.taskId()).orElse(null);
+            }
+            if (task == null) {
+                // Deleted since; its own delete event follows
+                return;
+            }
+            taskLabelService.fillLabels(List.of(task));
+        }
+
+        String name = event.type().name().toLowerCase(Locale.ROOT);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new TaskChangeResponse(name, event.taskId(), event.userId(), task));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize task change for task {}", event.taskId(), e);
+            return;
+        }
+
+        Message message = new Message(eventIds.incrementAndGet(), name, json);
+        Set<Connection> own = byUser.get(event.userId());
+        if (own != null) {
+            own.forEach(connection -> connection.offer(message));
+        }
+        firehose.forEach(connection -> connection.offer(message));
+    }
+
+    @Scheduled(fixedRateString = "${tasks.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Message heartbeat = Message.comment("heartbeat");
+        for (Set<Connection> connections : byUser.values()) {
+            connections.forEach(connection -> connection.heartbeat(heartbeat));
+        }
+        firehose.forEach(connection -> connection.heartbeat(heartbeat));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    /** Publishes the events of the users hashed to it one at a time, in the order they were offered. */
+    private final class Lane {
+
+        private final ConcurrentLinkedQueue<TaskChangedEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void offer(TaskChangedEvent event) {
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                TaskChangedEvent event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        publish(event);
+                    } catch (RuntimeException e) {
+                        log.error("Could not publish change of task {}", event.taskId(), e);
+                    }
+                }
+            } finally {
+                draining.set(false);
+                // An offer that lost the race with the flag reset above is picked up here
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    /** A pre-serialized event, or a comment line when data is null. */
+    private record Message(long id, String name, String data) {
+
+        static Message comment(String text) {
+            return new Message(0, text, null);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (data == null) {
+                return SseEmitter.event().comment(name);
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    private final class Connection {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final ConcurrentLinkedQueue<Message> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Connection(SseEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+
+        String label() {
+            return userId == null ? "firehose" : userId.toString();
+        }
+
+        void offer(Message message) {
+            if (released.get()) {
+                return;
+            }
+            if (pending.incrementAndGet() > bufferSize) {
+                log.warn("Closing slow task stream consumer - user: {}, {} events behind",
+                        label(), bufferSize);
+                close();
+                return;
+            }
+            queue.add(message);
+            schedule();
+        }
+
+        // Only when nothing is queued: data in flight already proves the connection is alive
+        void heartbeat(Message message) {
+            if (pending.get() == 0) {
+                offer(message);
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!released.get() && (message = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    emitter.send(message.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container reports the error and completes the request
+                release();
+            } finally {
+                draining.set(false);
+                // An offer that lost the race with the flag reset above is picked up here
+                if (!queue.isEmpty() && !released.get()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void close() {
+            if (release()) {
+                emitter.complete();
+            }
+        }
+
+        // Runs once per connection, from whichever of completion, timeout, error or close comes first
+        boolean release() {
+            if (!released.compareAndSet(false, true)) {
+                return false;
+            }
+            unregister(this);
+            queue.clear();
+            connectionCount.decrementAndGet();
+            log.debug("Task stream closed - user: {}, open: {}", label(), connectionCount.get());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.SyncToken;
+import com.example.taskmanager.dto.response.TaskChangesResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.exception.SyncTokenExpiredException;
+import com.example.taskmanager.model.TaskTombstone;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.service.TaskLabelService;
+import com.example.taskmanager.service.TaskSyncService;
+import com.example.taskmanager.store.EmbeddedTaskStore;
+import com.example.taskmanager.store.StoredTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync over {@code updated_at} and the tombstone table.
+ * <p>
+ * Timestamps are taken before commit, so a row can become visible with a stamp slightly in
+ * the past. A caught-up token therefore restarts {@code tasks.sync.skew-window-ms} before the
+ * time of the call instead of at the last row seen; rows in that window may be sent twice,
+ * which is harmless because upserts and deletes are idempotent. A write transaction running
+ * longer than the window could still be missed.
+ */
+@Slf4j
+@Service
+public class TaskSyncServiceImpl implements TaskSyncService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskLabelService taskLabelService;
+
+    // Set when storage.engine=embedded; changes and tombstones are then read from it
+    @Autowired(required = false)
+    private EmbeddedTaskStore embeddedStore;
+
+    @Value("${tasks.sync.page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${tasks.sync.max-page-size:2000}")
+    private int maxPageSize;
+
+    @Value("${tasks.sync.skew-window-ms:60000}")
+    private long skewWindowMs;
+
+    @Value("${tasks.sync.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChanges(Long userId, String since, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime floor = now.minus(skewWindowMs, ChronoUnit.MILLIS);
+
+        SyncToken token;
+        if (since == null || since.isBlank()) {
+            // Full sync: every task, and no deletes from before it since the client holds nothing
+            token = new SyncToken(BEGINNING, 0L, floor, 0L, null);
+        } else {
+            token = SyncToken.decode(since);
+            LocalDateTime oldest = token.resumeFrom() != null && token.resumeFrom().isBefore(token.deletesAfter())
+                    ? token.resumeFrom() : token.deletesAfter();
+            if (oldest.isBefore(now.minusDays(retentionDays))) {
+                throw new SyncTokenExpiredException("Sync token is older than the " + retentionDays
+                        + " day tombstone retention; a full sync is required");
+            }
+        }
+
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        // Upserts first: a task deleted between the two reads then shows up in both, and deletes are applied last
+        List<TaskResponse> upserts;
+        List<TaskTombstone> tombstones;
+        if (embeddedStore != null) {
+            upserts = embeddedStore.findChangedSince(userId, token.upsertsAfter(), token.upsertsAfterId(), size + 1)
+                    .stream().map(StoredTask::toResponse).toList();
+            tombstones = embeddedStore.findDeletedSince(userId, token.deletesAfter(), token.deletesAfterId(), size + 1);
+        } else {
+            upserts = taskRepository.findChangedSince(userId, token.upsertsAfter(), token.upsertsAfterId(),
+                    Limit.of(size + 1));
+            tombstones = taskTombstoneRepository.findDeletedSince(userId, token.deletesAfter(),
+                    token.deletesAfterId(), Limit.of(size + 1));
+        }
+
+        boolean moreUpserts = upserts.size() > size;
+        boolean moreDeletes = tombstones.size() > size;
+        if (moreUpserts) {
+            upserts = new ArrayList<>(upserts.subList(0, size));
+        }
+        if (moreDeletes) {
+            tombstones = tombstones.subList(0, size);
+        }
+        taskLabelService.fillLabels(upserts);
+
+        // The earliest point a later sync must restart from, across every page of this one
+        LocalDateTime resumeFrom = token.resumeFrom() != null && token.resumeFrom().isBefore(floor)
+                ? token.resumeFrom() : floor;
+
+        SyncToken next;
+        if (moreUpserts || moreDeletes) {
+            TaskResponse lastUpsert = upserts.isEmpty() ? null : upserts.get(upserts.size() - 1);
+            TaskTombstone lastDelete = tombstones.isEmpty() ? null : tombstones.get(tombstones.size() - 1);
+            next = new SyncToken(
+                    lastUpsert == null ? token.upsertsAfter() : lastUpsert.getUpdatedAt(),
+                    lastUpsert == null ? token.upsertsAfterId() : lastUpsert.getId(),
+                    lastDelete == null ? token.deletesAfter() : lastDelete.getDeletedAt(),
+                    lastDelete == null ? token.deletesAfterId() : lastDelete.getTaskId(),
+                    resumeFrom);
+        } else {
+            next = new SyncToken(resumeFrom, 0L, resumeFrom, 0L, null);
+        }
+
+        List<Long> deletes = new ArrayList<>(tombstones.size());
+        for (TaskTombstone tombstone : tombstones) {
+            deletes.add(tombstone.getTaskId());
+        }
+        log.debug("Sync for user {} - {} upserts, {} deletes, more: {}", userId, upserts.size(), deletes.size(),
+                moreUpserts || moreDeletes);
+        return new TaskChangesResponse(upserts, deletes, next.encode(), moreUpserts || moreDeletes);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.sync.compaction-interval-ms:3600000}",
+            initialDelayString = "${tasks.sync.compaction-interval-ms:3600000}")
+    public int compactTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int removed = embeddedStore != null
+                ? embeddedStore.compactTombstones(before)
+                : taskTombstoneRepository.deleteOlderThan(before);
+        if (removed > 0) {
+            log.info("Compacted {} task tombstones older than {} days", removed, retentionDays);
+        }
+        return removed;
+    }
+}
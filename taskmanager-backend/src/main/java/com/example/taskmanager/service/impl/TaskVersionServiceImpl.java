@@ -0,0 +1,58 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Task collection tags derived from the database, so every instance computes the same tag for the
+ * same rows and a change made through one instance can never earn a 304 from another. The tag
+ * combines the user's task count, version sum and latest update with their tombstone count and
+ * latest delete: creates and deletes move a count, updates move the version sum.
+ * <p>
+ * One indexed query per request: the tag is kept for the rest of the request, so the ETag and the
+ * page cache key {@link CachingTaskService} derives from it always describe the same state.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class TaskVersionServiceImpl implements TaskVersionService {
+
+    private static final String REQUEST_ATTRIBUTE = TaskVersionServiceImpl.class.getName() + ".tag.";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public String collectionTag(Long userId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String attribute = REQUEST_ATTRIBUTE + userId;
+        if (request != null && request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST) instanceof String tag) {
+            return tag;
+        }
+
+        TaskRepository.CollectionState state = taskRepository.findCollectionState(userId);
+        String tag = userId + "." + state.getTaskCount() + "." + state.getVersionSum() + "."
+                + stamp(state.getLastUpdated()) + "." + state.getDeletedCount() + "." + stamp(state.getLastDeleted());
+        if (request != null) {
+            request.setAttribute(attribute, tag, RequestAttributes.SCOPE_REQUEST);
+        }
+        return tag;
+    }
+
+    // Microseconds, the column precision, in base 36
+    private static String stamp(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        return Long.toString(time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000, 36);
+    }
+}
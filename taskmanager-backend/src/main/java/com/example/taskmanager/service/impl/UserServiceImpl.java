@@ -1,30 +1,34 @@
 package com.example.taskmanager.service.impl;
 
-import com.example.taskmanager.model.User;
+import com.example.taskmanager.dto.response.UserResponse;
 import com.example.taskmanager.repository.UserRepository;
 import com.example.taskmanager.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "storage.engine", havingValue = "jpa", matchIfMissing = true)
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserResponse> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
 
     @Override
-    public Optional<User> getUserById(Long userId) {
-        return userRepository.findById(userId);
+    public Optional<UserResponse> getUserById(Long userId) {
+        return userRepository.findSummaryById(userId);
     }
 
     @Override
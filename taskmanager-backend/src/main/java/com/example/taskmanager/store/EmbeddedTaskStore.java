@@ -0,0 +1,938 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.TaskTombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * In-process task storage: every task in a primitive long-keyed map, an ascending id list per
+ * user and one for all tasks as secondary indexes, the users with their credentials, deletion
+ * tombstones, and the audit events not yet written to the audit log. Durability comes from a
+ * {@link WriteAheadLog}: each {@link #write} is one log record, applied to memory only after it
+ * was appended, and a periodic snapshot lets recovery replay only the records written since.
+ * A change and the audit event describing it are written by the same transaction, so both
+ * survive a crash or neither does.
+ * <p>
+ * Task ids are assigned here and never reused. Timestamps come from a clock that never goes
+ * backwards, so ascending id order is also ascending {@code createdAt} order and the
+ * {@code (createdAt, id)} keyset of the task lists reduces to the id. Reads share a read lock;
+ * writes are serialized, which also gives each transaction a consistent view.
+ */
+@Slf4j
+public class EmbeddedTaskStore implements AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x54534E50;
+    // Format 2 added the tasks' dueAt and remindAt, format 3 their labels, format 4 user passwords and
+    // pending audit events; older snapshots are still read
+    private static final int SNAPSHOT_FORMAT = 4;
+
+    // OP_PUT_TASK records predate dueAt and remindAt, OP_PUT_TASK_SCHEDULED ones predate labels;
+    // new ones are written as OP_PUT_TASK_LABELED. Likewise OP_PUT_USER predates passwords
+    private static final byte OP_PUT_TASK = 1;
+    private static final byte OP_DELETE_TASK = 2;
+    private static final byte OP_PUT_USER = 3;
+    private static final byte OP_COMPACT_TOMBSTONES = 4;
+    private static final byte OP_PUT_TASK_SCHEDULED = 5;
+    private static final byte OP_PUT_TASK_LABELED = 6;
+    private static final byte OP_PUT_USER_CREDENTIALS = 7;
+    private static final byte OP_PUT_AUDIT = 8;
+    private static final byte OP_ACK_AUDIT = 9;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final WriteAheadLog wal;
+
+    private final LongObjectHashMap<StoredTask> tasks = new LongObjectHashMap<>(1024);
+    private final LongObjectHashMap<SortedLongList> tasksByUser = new LongObjectHashMap<>(256);
+    private final SortedLongList allTaskIds = new SortedLongList(1024);
+    private final LongObjectHashMap<StoredUser> users = new LongObjectHashMap<>(256);
+    // Lower-cased, so names and addresses are unique ignoring case like MySQL's default collation
+    private final Map<String, Long> userIdsByUsername = new HashMap<>();
+    private final Map<String, Long> userIdsByEmail = new HashMap<>();
+    // Committed audit events the audit log writer has not acknowledged yet, oldest id first
+    private final LongObjectHashMap<OutboxEvent> auditEvents = new LongObjectHashMap<>(256);
+    private final SortedLongList auditIds = new SortedLongList(256);
+    // Per user, in (deletedAt, taskId) order: the clock is monotonic and deletes are serialized
+    private final LongObjectHashMap<List<TaskTombstone>> tombstones = new LongObjectHashMap<>(256);
+    private long completedCount;
+    private long nextTaskId = 1;
+    private long nextUserId = 1;
+    // Never reused, even after acknowledgement: audit log lines are deduplicated by id
+    private long nextAuditId = 1;
+    private LocalDateTime lastTime = LocalDateTime.MIN;
+
+    // A lock rather than synchronized: virtual threads blocking in msync inside a monitor would pin their carriers
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile long snapshotSeq;
+    private volatile Instant snapshotAt;
+
+    private EmbeddedTaskStore(Path directory, int segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.wal = new WriteAheadLog(directory, segmentBytes);
+    }
+
+    /** Loads the newest snapshot in {@code directory}, then replays the log records written after it. */
+    public static EmbeddedTaskStore open(Path directory, int segmentBytes, boolean fsync) throws IOException {
+        EmbeddedTaskStore store = new EmbeddedTaskStore(directory, segmentBytes, fsync);
+        store.recover();
+        return store;
+    }
+
+    private void recover() throws IOException {
+        long started = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        List<Path> snapshots = listFiles("snapshot-\\d{20}\\.dat");
+        for (Path leftover : listFiles("snapshot-\\d{20}\\.dat\\.tmp")) {
+            Files.deleteIfExists(leftover);
+        }
+        if (!snapshots.isEmpty()) {
+            snapshotSeq = readSnapshot(snapshots.get(snapshots.size() - 1));
+            snapshotAt = Files.getLastModifiedTime(snapshots.get(snapshots.size() - 1)).toInstant();
+        }
+
+        long[] replayed = new long[1];
+        long lastSeq = wal.recover(snapshotSeq, (seq, payload) -> {
+            apply(payload);
+            replayed[0]++;
+        });
+        log.info("Embedded task store {} recovered: {} tasks, {} users, {} pending audit events, snapshot at seq {} "
+                        + "plus {} log records (last seq {}) in {} ms", directory.toAbsolutePath(), tasks.size(),
+                users.size(), auditIds.size(), snapshotSeq, replayed[0], lastSeq, System.currentTimeMillis() - started);
+    }
+
+    // ---- Reads ----
+
+    public StoredTask findTask(long id) {
+        lock.readLock().lock();
+        try {
+            return tasks.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<StoredTask> findTasks(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<StoredTask> found = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                StoredTask task = tasks.get(id);
+                if (task != null) {
+                    found.add(task);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Newest first, starting below {@code beforeId} (null for the first page), up to {@code limit}
+     * tasks that pass the filter. Selective filters scan further; there is no index per field.
+     */
+    public List<StoredTask> findUserPage(long userId, Long beforeId, Predicate<StoredTask> filter, int limit) {
+        lock.readLock().lock();
+        try {
+            SortedLongList ids = tasksByUser.get(userId);
+            return ids == null ? List.of() : page(ids, beforeId, filter, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<StoredTask> findPage(Long beforeId, Predicate<StoredTask> filter, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(allTaskIds, beforeId, filter, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<StoredTask> page(SortedLongList ids, Long beforeId, Predicate<StoredTask> filter, int limit) {
+        List<StoredTask> page = new ArrayList<>(Math.min(limit, ids.size()));
+        int start = beforeId == null ? ids.size() - 1 : ids.lastIndexBelow(beforeId);
+        for (int i = start; i >= 0 && page.size() < limit; i--) {
+            StoredTask task = tasks.get(ids.get(i));
+            if (filter.test(task)) {
+                page.add(task);
+            }
+        }
+        return page;
+    }
+
+    // Ascending id order after afterId, for exports that read in chunks without holding the lock
+    public List<StoredTask> findAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<StoredTask> chunk = new ArrayList<>(Math.min(limit, allTaskIds.size()));
+            for (int i = allTaskIds.lastIndexBelow(afterId + 1) + 1; i < allTaskIds.size() && chunk.size() < limit; i++) {
+                chunk.add(tasks.get(allTaskIds.get(i)));
+            }
+            return chunk;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<StoredTask> findByUser(long userId) {
+        return findUserPage(userId, null, task -> true, Integer.MAX_VALUE);
+    }
+
+    public List<Long> findUserIdsWithTasks() {
+        lock.readLock().lock();
+        try {
+            List<Long> userIds = new ArrayList<>(tasksByUser.size());
+            tasksByUser.forEachValue(ids -> userIds.add(tasks.get(ids.get(0)).userId()));
+            return userIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Delta sync keyset over (updatedAt, id); a scan of the user's tasks, since updates reorder them
+    public List<StoredTask> findChangedSince(long userId, LocalDateTime after, long afterId, int limit) {
+        Comparator<StoredTask> order = Comparator.comparing(StoredTask::updatedAt).thenComparingLong(StoredTask::id);
+        List<StoredTask> changed = new ArrayList<>();
+        for (StoredTask task : findByUser(userId)) {
+            int cmp = task.updatedAt().compareTo(after);
+            if (cmp > 0 || cmp == 0 && task.id() > afterId) {
+                changed.add(task);
+            }
+        }
+        changed.sort(order);
+        return changed.size() > limit ? new ArrayList<>(changed.subList(0, limit)) : changed;
+    }
+
+    public List<TaskTombstone> findDeletedSince(long userId, LocalDateTime after, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<TaskTombstone> deleted = tombstones.get(userId);
+            if (deleted == null) {
+                return List.of();
+            }
+            List<TaskTombstone> found = new ArrayList<>();
+            for (TaskTombstone tombstone : deleted) {
+                int cmp = tombstone.getDeletedAt().compareTo(after);
+                if (cmp > 0 || cmp == 0 && tombstone.getTaskId() > afterId) {
+                    found.add(tombstone);
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Open tasks with a reminder in [from, to); a scan of every task, run once per reminder window
+    public List<StoredTask> findRemindersBetween(LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            List<StoredTask> found = new ArrayList<>();
+            tasks.forEachValue(task -> {
+                if (!task.completed() && task.remindAt() != null
+                        && !task.remindAt().isBefore(from) && task.remindAt().isBefore(to)) {
+                    found.add(task);
+                }
+            });
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countCompleted() {
+        lock.readLock().lock();
+        try {
+            return completedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Long, Long> countTasksPerUser() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            tasksByUser.forEachValue(ids -> counts.put(tasks.get(ids.get(0)).userId(), (long) ids.size()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Long, Long> countCompletedPerUser() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            tasks.forEachValue(task -> {
+                if (task.completed()) {
+                    counts.merge(task.userId(), 1L, Long::sum);
+                }
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public StoredUser findUser(long id) {
+        lock.readLock().lock();
+        try {
+            return users.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<StoredUser> findUsers() {
+        lock.readLock().lock();
+        try {
+            List<StoredUser> all = new ArrayList<>(users.size());
+            users.forEachValue(all::add);
+            all.sort(Comparator.comparingLong(StoredUser::id));
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countUsers() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public StoredUser findUserByUsername(String username) {
+        lock.readLock().lock();
+        try {
+            return userByKey(userIdsByUsername, username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public StoredUser findUserByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            return userByKey(userIdsByEmail, email);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private StoredUser userByKey(Map<String, Long> index, String key) {
+        Long id = key == null ? null : index.get(key.toLowerCase(Locale.ROOT));
+        return id == null ? null : users.get(id);
+    }
+
+    public Map<Role, Long> countUsersByRole() {
+        lock.readLock().lock();
+        try {
+            Map<Role, Long> counts = new EnumMap<>(Role.class);
+            users.forEachValue(user -> {
+                if (user.role() != null) {
+                    counts.merge(user.role(), 1L, Long::sum);
+                }
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Oldest first, for the audit recovery sweep; copies, so the caller cannot change the stored events
+    public List<OutboxEvent> findAuditEvents(LocalDateTime before, int limit) {
+        lock.readLock().lock();
+        try {
+            List<OutboxEvent> found = new ArrayList<>(Math.min(limit, auditIds.size()));
+            for (int i = 0; i < auditIds.size() && found.size() < limit; i++) {
+                OutboxEvent event = auditEvents.get(auditIds.get(i));
+                if (event.getOccurredAt().isBefore(before)) {
+                    found.add(copy(event));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countAuditEvents() {
+        lock.readLock().lock();
+        try {
+            return auditIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static OutboxEvent copy(OutboxEvent event) {
+        OutboxEvent copy = new OutboxEvent(event.getType(), event.getUserId(), event.getEntityId(), event.getPayload(),
+                event.getOccurredAt());
+        copy.setId(event.getId());
+        return copy;
+    }
+
+    // ---- Writes ----
+
+    /**
+     * Runs {@code work} against a transaction and commits what it wrote as one log record, so a
+     * crash keeps all of it or none. Nothing is applied if {@code work} throws.
+     */
+    public <T> T write(Function<Transaction, T> work) {
+        Transaction transaction;
+        T result;
+        lock.writeLock().lock();
+        try {
+            transaction = new Transaction(tick());
+            result = work.apply(transaction);
+            if (!transaction.ops.isEmpty()) {
+                byte[] payload = transaction.encode();
+                wal.append(payload);
+                apply(ByteBuffer.wrap(payload));
+                if (fsync) {
+                    wal.force();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the embedded task store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        transaction.afterCommit.forEach(Runnable::run);
+        return result;
+    }
+
+    public void putUser(StoredUser user) {
+        write(transaction -> {
+            transaction.putUser(user);
+            return null;
+        });
+    }
+
+    public int compactTombstones(LocalDateTime before) {
+        return write(transaction -> transaction.compactTombstones(before));
+    }
+
+    // Called once the events are in the audit log; a crash before this repeats them, which the log tolerates
+    public void acknowledgeAudit(Collection<Long> ids) {
+        write(transaction -> {
+            transaction.acknowledgeAudit(ids);
+            return null;
+        });
+    }
+
+    // Monotonic, so ids, createdAt and the tombstone order agree even if the wall clock steps back
+    private LocalDateTime tick() {
+        LocalDateTime now = LocalDateTime.now();
+        lastTime = now.isAfter(lastTime) ? now : lastTime;
+        return lastTime;
+    }
+
+    // Shared by commits and recovery, so memory after a restart is exactly what it was before
+    private void apply(ByteBuffer payload) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte op = in.readByte();
+            switch (op) {
+                case OP_PUT_TASK -> applyPut(StoreCodec.readTask(in, false, false));
+                case OP_PUT_TASK_SCHEDULED -> applyPut(StoreCodec.readTask(in, true, false));
+                case OP_PUT_TASK_LABELED -> applyPut(StoreCodec.readTask(in, true, true));
+                case OP_DELETE_TASK -> applyDelete(in.readLong(), StoreCodec.readTime(in));
+                case OP_PUT_USER -> applyPutUser(StoreCodec.readUser(in, false));
+                case OP_PUT_USER_CREDENTIALS -> applyPutUser(StoreCodec.readUser(in, true));
+                case OP_COMPACT_TOMBSTONES -> applyCompact(StoreCodec.readTime(in));
+                case OP_PUT_AUDIT -> applyAudit(StoreCodec.readAuditEvent(in));
+                case OP_ACK_AUDIT -> {
+                    for (int n = in.readInt(); n > 0; n--) {
+                        long id = in.readLong();
+                        if (auditEvents.remove(id) != null) {
+                            auditIds.remove(id);
+                        }
+                    }
+                }
+                default -> throw new IOException("Unknown store operation " + op);
+            }
+        }
+    }
+
+    private void applyPut(StoredTask task) {
+        StoredTask previous = tasks.put(task.id(), task);
+        if (previous == null) {
+            allTaskIds.add(task.id());
+            SortedLongList ids = tasksByUser.get(task.userId());
+            if (ids == null) {
+                ids = new SortedLongList(16);
+                tasksByUser.put(task.userId(), ids);
+            }
+            ids.add(task.id());
+        } else if (previous.completed()) {
+            completedCount--;
+        }
+        if (task.completed()) {
+            completedCount++;
+        }
+        nextTaskId = Math.max(nextTaskId, task.id() + 1);
+        lastTime = task.updatedAt().isAfter(lastTime) ? task.updatedAt() : lastTime;
+    }
+
+    private void applyPutUser(StoredUser user) {
+        StoredUser previous = users.put(user.id(), user);
+        if (previous != null) {
+            userIdsByUsername.remove(previous.username().toLowerCase(Locale.ROOT));
+            if (previous.email() != null) {
+                userIdsByEmail.remove(previous.email().toLowerCase(Locale.ROOT));
+            }
+        }
+        userIdsByUsername.put(user.username().toLowerCase(Locale.ROOT), user.id());
+        if (user.email() != null) {
+            userIdsByEmail.put(user.email().toLowerCase(Locale.ROOT), user.id());
+        }
+        nextUserId = Math.max(nextUserId, user.id() + 1);
+    }
+
+    private void applyAudit(OutboxEvent event) {
+        if (auditEvents.put(event.getId(), event) == null) {
+            auditIds.add(event.getId());
+        }
+        nextAuditId = Math.max(nextAuditId, event.getId() + 1);
+    }
+
+    private void applyDelete(long taskId, LocalDateTime deletedAt) {
+        StoredTask task = tasks.remove(taskId);
+        if (task == null) {
+            return;
+        }
+        allTaskIds.remove(taskId);
+        SortedLongList ids = tasksByUser.get(task.userId());
+        ids.remove(taskId);
+        if (ids.isEmpty()) {
+            tasksByUser.remove(task.userId());
+        }
+        if (task.completed()) {
+            completedCount--;
+        }
+        List<TaskTombstone> deleted = tombstones.get(task.userId());
+        if (deleted == null) {
+            deleted = new ArrayList<>();
+            tombstones.put(task.userId(), deleted);
+        }
+        deleted.add(new TaskTombstone(taskId, task.userId(), deletedAt));
+        lastTime = deletedAt.isAfter(lastTime) ? deletedAt : lastTime;
+    }
+
+    private void applyCompact(LocalDateTime before) {
+        List<Long> emptied = new ArrayList<>();
+        tombstones.forEachValue(deleted -> {
+            int end = 0;
+            while (end < deleted.size() && deleted.get(end).getDeletedAt().isBefore(before)) {
+                end++;
+            }
+            if (end > 0 && end == deleted.size()) {
+                emptied.add(deleted.get(0).getUserId());
+            }
+            deleted.subList(0, end).clear();
+        });
+        emptied.forEach(tombstones::remove);
+    }
+
+    // ---- Snapshots ----
+
+    /**
+     * Writes the whole store to a new snapshot file and deletes the log segments and snapshot it
+     * supersedes. Memory is copied under the write lock after rolling the log; the file is written
+     * outside it, so writers are held up only for the copy.
+     */
+    @Scheduled(fixedDelayString = "${storage.embedded.snapshot-interval-ms:300000}",
+            initialDelayString = "${storage.embedded.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            Snapshot state;
+            lock.writeLock().lock();
+            try {
+                if (wal.getLastSeq() == snapshotSeq) {
+                    return;
+                }
+                state = capture(wal.roll());
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long started = System.currentTimeMillis();
+            Path file = writeSnapshot(state);
+            lock.writeLock().lock();
+            try {
+                wal.deleteThrough(state.seq);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Path old : listFiles("snapshot-\\d{20}\\.dat")) {
+                if (!old.equals(file)) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            snapshotSeq = state.seq;
+            snapshotAt = Instant.now();
+            log.info("Embedded task store snapshot at seq {}: {} tasks in {} ms", state.seq, state.tasks.size(),
+                    System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            // The log still holds everything; the next attempt starts over
+            log.error("Embedded task store snapshot failed", e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private Snapshot capture(long seq) {
+        List<StoredTask> taskCopy = new ArrayList<>(tasks.size());
+        tasks.forEachValue(taskCopy::add);
+        List<StoredUser> userCopy = new ArrayList<>(users.size());
+        users.forEachValue(userCopy::add);
+        List<TaskTombstone> tombstoneCopy = new ArrayList<>();
+        tombstones.forEachValue(tombstoneCopy::addAll);
+        List<OutboxEvent> auditCopy = new ArrayList<>(auditIds.size());
+        for (int i = 0; i < auditIds.size(); i++) {
+            auditCopy.add(auditEvents.get(auditIds.get(i)));
+        }
+        return new Snapshot(seq, nextTaskId, nextAuditId, taskCopy, userCopy, tombstoneCopy, auditCopy);
+    }
+
+    // Written to a temporary file, forced, then renamed, so a crash leaves the previous snapshot intact
+    private Path writeSnapshot(Snapshot state) throws IOException {
+        Path file = directory.resolve(String.format("snapshot-%020d.dat", state.seq));
+        Path tmp = directory.resolve(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16), crc))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(state.seq);
+            out.writeLong(state.nextTaskId);
+            out.writeLong(state.nextAuditId);
+            out.writeInt(state.users.size());
+            for (StoredUser user : state.users) {
+                StoreCodec.writeUser(out, user);
+            }
+            out.writeInt(state.tasks.size());
+            for (StoredTask task : state.tasks) {
+                StoreCodec.writeTask(out, task);
+            }
+            out.writeInt(state.tombstones.size());
+            for (TaskTombstone tombstone : state.tombstones) {
+                out.writeLong(tombstone.getTaskId());
+                out.writeLong(tombstone.getUserId());
+                StoreCodec.writeTime(out, tombstone.getDeletedAt());
+            }
+            out.writeInt(state.auditEvents.size());
+            for (OutboxEvent event : state.auditEvents) {
+                StoreCodec.writeAuditEvent(out, event);
+            }
+            out.writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    // Returns the log sequence number the snapshot covers
+    private long readSnapshot(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), crc))) {
+            int format = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (format < 1 || format > SNAPSHOT_FORMAT) {
+                throw new IOException("Not an embedded task store snapshot: " + file);
+            }
+            long seq = in.readLong();
+            long next = in.readLong();
+            if (format >= 4) {
+                nextAuditId = Math.max(nextAuditId, in.readLong());
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                applyPutUser(StoreCodec.readUser(in, format >= 4));
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                applyPut(StoreCodec.readTask(in, format >= 2, format >= 3));
+            }
+            List<TaskTombstone> loaded = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                loaded.add(new TaskTombstone(in.readLong(), in.readLong(), StoreCodec.readTime(in)));
+            }
+            if (format >= 4) {
+                for (int i = in.readInt(); i > 0; i--) {
+                    applyAudit(StoreCodec.readAuditEvent(in));
+                }
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Embedded task store snapshot " + file + " is damaged (checksum mismatch)");
+            }
+
+            loaded.sort(Comparator.comparing(TaskTombstone::getDeletedAt).thenComparing(TaskTombstone::getTaskId));
+            for (TaskTombstone tombstone : loaded) {
+                List<TaskTombstone> deleted = tombstones.get(tombstone.getUserId());
+                if (deleted == null) {
+                    deleted = new ArrayList<>();
+                    tombstones.put(tombstone.getUserId(), deleted);
+                }
+                deleted.add(tombstone);
+                lastTime = tombstone.getDeletedAt().isAfter(lastTime) ? tombstone.getDeletedAt() : lastTime;
+            }
+            nextTaskId = Math.max(nextTaskId, next);
+            return seq;
+        }
+    }
+
+    private List<Path> listFiles(String pattern) throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(path -> path.getFileName().toString().matches(pattern)).sorted().toList();
+        }
+    }
+
+    // ---- Metrics ----
+
+    public long getWalBytes() {
+        return wal.getBytes();
+    }
+
+    public long getSnapshotSeq() {
+        return snapshotSeq;
+    }
+
+    public Instant getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    // Snapshot first so the next start replays nothing
+    @Override
+    public void close() throws IOException {
+        snapshot();
+        lock.writeLock().lock();
+        try {
+            wal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Snapshot(long seq, long nextTaskId, long nextAuditId, List<StoredTask> tasks,
+                            List<StoredUser> users, List<TaskTombstone> tombstones, List<OutboxEvent> auditEvents) {
+    }
+
+    private record AuditAck(List<Long> ids) {
+    }
+
+    /**
+     * The writes of one {@link #write} call. Reads through it see its own earlier writes; nothing
+     * reaches the store until the call returns.
+     */
+    public final class Transaction {
+
+        private static final StoredTask DELETED = new StoredTask(0, 0, null, null, false, null, null, List.of(),
+                null, null, 0);
+
+        private final LocalDateTime now;
+        private final LongObjectHashMap<StoredTask> written = new LongObjectHashMap<>(16);
+        private final List<Object> ops = new ArrayList<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private long nextId = nextTaskId;
+        private long nextUser = nextUserId;
+        private long nextAudit = nextAuditId;
+
+        private Transaction(LocalDateTime now) {
+            this.now = now;
+        }
+
+        // The transaction's timestamp, used for every change it makes
+        public LocalDateTime now() {
+            return now;
+        }
+
+        public StoredTask get(long id) {
+            StoredTask task = written.get(id);
+            if (task != null) {
+                return task == DELETED ? null : task;
+            }
+            return tasks.get(id);
+        }
+
+        public StoredTask create(long userId, String title, String description, LocalDateTime dueAt,
+                                 LocalDateTime remindAt) {
+            return create(userId, title, description, dueAt, remindAt, List.of());
+        }
+
+        public StoredTask create(long userId, String title, String description, LocalDateTime dueAt,
+                                 LocalDateTime remindAt, List<String> labels) {
+            StoredTask task = new StoredTask(nextId++, userId, title, description, false, dueAt, remindAt, labels,
+                    now, now, 0);
+            put(task);
+            return task;
+        }
+
+        public void put(StoredTask task) {
+            written.put(task.id(), task);
+            ops.add(task);
+        }
+
+        public void delete(long taskId) {
+            written.put(taskId, DELETED);
+            ops.add(taskId);
+        }
+
+        public void putUser(StoredUser user) {
+            ops.add(user);
+        }
+
+        public StoredUser createUser(String username, String email, String password, Role role) {
+            StoredUser user = new StoredUser(nextUser++, username, email, password, role, now);
+            putUser(user);
+            return user;
+        }
+
+        // Sees users created earlier in this transaction
+        public StoredUser findUserByUsername(String username) {
+            return findUser(username, StoredUser::username, userIdsByUsername);
+        }
+
+        public StoredUser findUserByEmail(String email) {
+            return findUser(email, StoredUser::email, userIdsByEmail);
+        }
+
+        private StoredUser findUser(String key, Function<StoredUser, String> field, Map<String, Long> index) {
+            for (Object op : ops) {
+                if (op instanceof StoredUser user && key != null && key.equalsIgnoreCase(field.apply(user))) {
+                    return user;
+                }
+            }
+            return userByKey(index, key);
+        }
+
+        // The returned event has its id; it is only stored if the transaction commits
+        public OutboxEvent audit(String type, Long userId, Long entityId, String payload) {
+            OutboxEvent event = new OutboxEvent(type, userId, entityId, payload, now);
+            event.setId(nextAudit++);
+            ops.add(event);
+            return event;
+        }
+
+        public void acknowledgeAudit(Collection<Long> ids) {
+            if (!ids.isEmpty()) {
+                ops.add(new AuditAck(List.copyOf(ids)));
+            }
+        }
+
+        // Runs after the transaction committed and the write lock was released; not at all if it failed
+        public void afterCommit(Runnable action) {
+            afterCommit.add(action);
+        }
+
+        // Returns how many tombstones exist before the cut-off now; they go when the transaction commits
+        public int compactTombstones(LocalDateTime before) {
+            int[] count = new int[1];
+            tombstones.forEachValue(deleted -> {
+                for (TaskTombstone tombstone : deleted) {
+                    if (!tombstone.getDeletedAt().isBefore(before)) {
+                        break;
+                    }
+                    count[0]++;
+                }
+            });
+            if (count[0] > 0) {
+                ops.add(before);
+            }
+            return count[0];
+        }
+
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(ops.size());
+            for (Object op : ops) {
+                if (op instanceof StoredTask task) {
+                    out.writeByte(OP_PUT_TASK_LABELED);
+                    StoreCodec.writeTask(out, task);
+                } else if (op instanceof Long taskId) {
+                    out.writeByte(OP_DELETE_TASK);
+                    out.writeLong(taskId);
+                    StoreCodec.writeTime(out, now);
+                } else if (op instanceof StoredUser user) {
+                    out.writeByte(OP_PUT_USER_CREDENTIALS);
+                    StoreCodec.writeUser(out, user);
+                } else if (op instanceof LocalDateTime before) {
+                    out.writeByte(OP_COMPACT_TOMBSTONES);
+                    StoreCodec.writeTime(out, before);
+                } else if (op instanceof OutboxEvent event) {
+                    out.writeByte(OP_PUT_AUDIT);
+                    StoreCodec.writeAuditEvent(out, event);
+                } else if (op instanceof AuditAck ack) {
+                    out.writeByte(OP_ACK_AUDIT);
+                    out.writeInt(ack.ids().size());
+                    for (long id : ack.ids()) {
+                        out.writeLong(id);
+                    }
+                }
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskmanager.store;
+
+import java.util.Arrays;
+
+/**
+ * Ascending, duplicate-free list of primitive longs: the task ids of one user, or of everyone, or
+ * the ids of pending audit events. New ids are always the largest so far, which makes
+ * {@link #add} an append; removal is a binary search and one array copy. Not thread-safe.
+ */
+final class SortedLongList {
+
+    private long[] elements;
+    private int size;
+
+    SortedLongList(int capacity) {
+        elements = new long[Math.max(4, capacity)];
+    }
+
+    void add(long value) {
+        if (size > 0 && elements[size - 1] >= value) {
+            // Out of order only during recovery, when records replay in log order
+            int index = Arrays.binarySearch(elements, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            insertAt(-index - 1, value);
+            return;
+        }
+        insertAt(size, value);
+    }
+
+    boolean remove(long value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    long get(int index) {
+        return elements[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Index of the largest element below value, or -1; where a descending page after value starts
+    int lastIndexBelow(long value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    private void insertAt(int index, long value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size + (size >> 1));
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+    }
+}
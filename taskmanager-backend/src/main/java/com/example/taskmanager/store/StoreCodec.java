@@ -0,0 +1,147 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.model.Role;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of store records, shared by write-ahead log entries and snapshots. Strings are
+ * length-prefixed UTF-8 (not {@code writeUTF}, which stops at 64 KB); timestamps are the UTC
+ * epoch second and nano of the zone-less {@link LocalDateTime}, which round-trips it exactly.
+ */
+final class StoreCodec {
+
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private StoreCodec() {
+    }
+
+    static void writeTask(DataOutput out, StoredTask task) throws IOException {
+        out.writeLong(task.id());
+        out.writeLong(task.userId());
+        writeString(out, task.title());
+        writeString(out, task.description());
+        out.writeBoolean(task.completed());
+        writeTime(out, task.dueAt());
+        writeTime(out, task.remindAt());
+        writeTime(out, task.createdAt());
+        writeTime(out, task.updatedAt());
+        out.writeLong(task.version());
+        out.writeInt(task.labels().size());
+        for (String label : task.labels()) {
+            writeString(out, label);
+        }
+    }
+
+    // withSchedule and withLabels are false for records written before tasks had those fields
+    static StoredTask readTask(DataInput in, boolean withSchedule, boolean withLabels) throws IOException {
+        long id = in.readLong();
+        long userId = in.readLong();
+        String title = readString(in);
+        String description = readString(in);
+        boolean completed = in.readBoolean();
+        LocalDateTime dueAt = withSchedule ? readTime(in) : null;
+        LocalDateTime remindAt = withSchedule ? readTime(in) : null;
+        LocalDateTime createdAt = readTime(in);
+        LocalDateTime updatedAt = readTime(in);
+        long version = in.readLong();
+        List<String> labels = List.of();
+        if (withLabels) {
+            int count = in.readInt();
+            List<String> read = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                read.add(readString(in));
+            }
+            labels = List.copyOf(read);
+        }
+        return new StoredTask(id, userId, title, description, completed, dueAt, remindAt, labels, createdAt,
+                updatedAt, version);
+    }
+
+    static void writeUser(DataOutput out, StoredUser user) throws IOException {
+        out.writeLong(user.id());
+        writeString(out, user.username());
+        writeString(out, user.email());
+        writeString(out, user.role() == null ? null : user.role().name());
+        writeTime(out, user.createdAt());
+        writeString(out, user.password());
+    }
+
+    // Records written before the store held credentials end after createdAt; their password is null
+    static StoredUser readUser(DataInput in, boolean withPassword) throws IOException {
+        long id = in.readLong();
+        String username = readString(in);
+        String email = readString(in);
+        String role = readString(in);
+        LocalDateTime createdAt = readTime(in);
+        String password = withPassword ? readString(in) : null;
+        return new StoredUser(id, username, email, password, role == null ? null : Role.valueOf(role), createdAt);
+    }
+
+    static void writeAuditEvent(DataOutput out, OutboxEvent event) throws IOException {
+        out.writeLong(event.getId());
+        writeString(out, event.getType());
+        out.writeLong(event.getUserId() == null ? 0 : event.getUserId());
+        out.writeLong(event.getEntityId() == null ? 0 : event.getEntityId());
+        writeString(out, event.getPayload());
+        writeTime(out, event.getOccurredAt());
+    }
+
+    // Ids are positive, so 0 stands for null (a failed login for an unknown user has neither)
+    static OutboxEvent readAuditEvent(DataInput in) throws IOException {
+        long id = in.readLong();
+        String type = readString(in);
+        long userId = in.readLong();
+        long entityId = in.readLong();
+        OutboxEvent event = new OutboxEvent(type, userId == 0 ? null : userId, entityId == 0 ? null : entityId,
+                readString(in), readTime(in));
+        event.setId(id);
+        return event;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(NULL_TIME);
+            return;
+        }
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    static LocalDateTime readTime(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        if (seconds == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
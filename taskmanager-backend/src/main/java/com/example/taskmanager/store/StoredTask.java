@@ -0,0 +1,43 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.dto.response.AdminTaskResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A task as {@link EmbeddedTaskStore} holds it. Immutable: an update replaces the whole record,
+ * so readers never see a half-applied change and need no copy. {@code labels} are normalized
+ * names in name order, never null.
+ */
+public record StoredTask(long id, long userId, String title, String description, boolean completed,
+                         LocalDateTime dueAt, LocalDateTime remindAt, List<String> labels,
+                         LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+
+    // Null title, description or labels keeps the current ones; dueAt and remindAt are taken as given
+    public StoredTask withContent(String newTitle, String newDescription, LocalDateTime newDueAt,
+                                  LocalDateTime newRemindAt, List<String> newLabels, LocalDateTime now) {
+        return new StoredTask(id, userId, newTitle == null ? title : newTitle,
+                newDescription == null ? description : newDescription, completed, newDueAt, newRemindAt,
+                newLabels == null ? labels : newLabels, createdAt, now, version + 1);
+    }
+
+    public StoredTask withCompleted(boolean newCompleted, LocalDateTime now) {
+        return new StoredTask(id, userId, title, description, newCompleted, dueAt, remindAt, labels, createdAt, now,
+                version + 1);
+    }
+
+    public TaskResponse toResponse() {
+        TaskResponse response = new TaskResponse(id, title, description, completed, dueAt, remindAt, createdAt,
+                updatedAt, version, userId);
+        response.setLabels(labels);
+        return response;
+    }
+
+    // owner may be null when the user summary has not reached the store yet
+    public AdminTaskResponse toAdminResponse(StoredUser owner) {
+        return new AdminTaskResponse(id, title, description, completed, createdAt, updatedAt, userId,
+                owner == null ? null : owner.username(), owner == null ? null : owner.email());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.dto.response.UserResponse;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.User;
+
+import java.time.LocalDateTime;
+
+// A user with the password hash they log in with; responses and toString leave the hash out
+public record StoredUser(long id, String username, String email, String password, Role role,
+                         LocalDateTime createdAt) {
+
+    public static StoredUser from(User user) {
+        return new StoredUser(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole(),
+                user.getCreatedAt());
+    }
+
+    public StoredUser withPassword(String newPassword) {
+        return new StoredUser(id, username, email, newPassword, role, createdAt);
+    }
+
+    public UserResponse toResponse() {
+        return new UserResponse(id, username, email, role, createdAt);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredUser[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.taskmanager.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of committed store transactions in memory-mapped segment files.
+ * <p>
+ * Each segment is a file of fixed size mapped read-write, named after the sequence number of its
+ * first record. A record is {@code [int length][int crc32c][long seq][payload]}; the length is
+ * written last, so a record whose length is visible has its body in place, and the checksum
+ * catches pages a power loss wrote out of order. A zero length marks the end of a segment.
+ * <p>
+ * Appends land in the page cache and survive a crash of the process; {@link #force} flushes the
+ * written range to the device for power-loss durability. Not thread-safe: the store calls it
+ * under its write lock.
+ */
+@Slf4j
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 16;
+
+    interface RecordHandler {
+        void accept(long seq, ByteBuffer payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment current;
+    private long lastSeq;
+    private volatile long bytes;
+
+    WriteAheadLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Maps the existing segments, hands every intact record after {@code afterSeq} to the handler
+     * and positions the log for appending. A torn record at the end of the last segment is the
+     * trace of a crash mid-append and is cut off; damage anywhere else fails the recovery.
+     */
+    long recover(long afterSeq, RecordHandler handler) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().matches("wal-\\d{20}\\.log")).sorted().toList();
+        }
+
+        lastSeq = afterSeq;
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i), segmentBytes);
+            segments.add(segment);
+            boolean last = i == files.size() - 1;
+            replay(segment, afterSeq, handler, last);
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            current = segments.get(segments.size() - 1);
+        }
+        bytes = segments.stream().mapToLong(segment -> segment.position).sum();
+        return lastSeq;
+    }
+
+    private void replay(Segment segment, long afterSeq, RecordHandler handler, boolean last) throws IOException {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            String damage = null;
+            if (length < 0 || (long) position + HEADER_BYTES + length > buffer.capacity()) {
+                damage = "bad record length " + length;
+            } else if (checksum(buffer, position + 8, length + 8) != buffer.getInt(position + 4)) {
+                damage = "checksum mismatch";
+            }
+            if (damage != null) {
+                if (!last) {
+                    throw new IOException("Write-ahead log " + segment.path + " is damaged at offset " + position + ": " + damage);
+                }
+                log.warn("Discarding torn write-ahead log tail in {} at offset {}: {}", segment.path, position, damage);
+                // Zero to the end: leftovers past the next appends would read as damage once this segment is not the last
+                for (int i = position; i < buffer.capacity(); i++) {
+                    if (buffer.get(i) != 0) {
+                        buffer.put(i, (byte) 0);
+                    }
+                }
+                buffer.force();
+                break;
+            }
+
+            long seq = buffer.getLong(position + 8);
+            if (seq > afterSeq) {
+                handler.accept(seq, buffer.slice(position + HEADER_BYTES, length));
+            }
+            lastSeq = Math.max(lastSeq, seq);
+            position += HEADER_BYTES + length;
+        }
+        segment.position = position;
+    }
+
+    // Returns the sequence number of the appended record
+    long append(byte[] payload) throws IOException {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes) {
+            throw new IOException("Store record of " + payload.length + " bytes exceeds the segment size " + segmentBytes);
+        }
+        if (current.position + size > current.buffer.capacity()) {
+            roll();
+        }
+
+        long seq = lastSeq + 1;
+        MappedByteBuffer buffer = current.buffer;
+        int position = current.position;
+        buffer.putLong(position + 8, seq);
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position + 4, checksum(buffer, position + 8, payload.length + 8));
+        buffer.putInt(position, payload.length);
+
+        current.position += size;
+        current.unforced += size;
+        bytes += size;
+        lastSeq = seq;
+        return seq;
+    }
+
+    // msync of what was appended since the last call
+    void force() {
+        if (current.unforced > 0) {
+            current.buffer.force(current.position - current.unforced, current.unforced);
+            current.unforced = 0;
+        }
+    }
+
+    /**
+     * Starts a new segment; records appended from now on are not in the previous ones. Called
+     * before a snapshot so the segments it covers can be deleted as a whole afterwards.
+     */
+    long roll() throws IOException {
+        if (current != null) {
+            force();
+            if (current.position == 0) {
+                return lastSeq;
+            }
+        }
+        Path path = directory.resolve(String.format("wal-%020d.log", lastSeq + 1));
+        current = Segment.open(path, segmentBytes);
+        segments.add(current);
+        return lastSeq;
+    }
+
+    // Deletes segments whose records are all at or below seq, i.e. covered by a snapshot
+    void deleteThrough(long seq) throws IOException {
+        while (segments.size() > 1 && segments.get(1).firstSeq <= seq + 1) {
+            Segment segment = segments.remove(0);
+            bytes -= segment.position;
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            force();
+        }
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long firstSeq;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int unforced;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            String name = path.getFileName().toString();
+            this.firstSeq = Long.parseLong(name.substring(4, name.length() - 4));
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // Mapping past the end grows the file, and the new space reads as zeros. A segment written
+        // with a larger segment size keeps its own size
+        static Segment open(Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long mapped = Math.min(Integer.MAX_VALUE, Math.max(size, channel.size()));
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+        }
+
+        // The mapping itself is released when the buffer is collected
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
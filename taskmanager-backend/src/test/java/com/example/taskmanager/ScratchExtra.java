@@ -0,0 +1,31 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.dto.request.SyncToken;
+import com.example.taskmanager.service.TaskSyncService;
+import org.springframework.http.MediaType;
+import java.time.LocalDateTime;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class ScratchExtra {
+    static void run(ScratchSmokeTest t, String a, String b, String r, long first) throws Exception {
+        System.out.println("SMOKE ---- sync");
+        String token = null;
+        boolean more = true;
+        while (more) {
+            var rb = get("/api/tasks/changes").param("limit", "2").header("Authorization", a);
+            if (token != null) rb.param("since", token);
+            var node = t.om.readTree(t.call(rb));
+            token = node.path("nextToken").asText();
+            more = node.path("hasMore").asBoolean();
+        }
+        t.call(put("/api/tasks/" + first).contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}").header("Authorization", a));
+        t.call(delete("/api/tasks/" + (first + 2)).header("Authorization", a));
+        t.call(delete("/api/tasks/batch").contentType(MediaType.APPLICATION_JSON).content("[" + (first + 3) + "]").header("Authorization", a));
+        t.call(get("/api/tasks/changes").param("since", token).header("Authorization", a));
+        t.call(get("/api/tasks/changes").param("since", token).header("Authorization", b));
+        String old = new SyncToken(LocalDateTime.of(2000, 1, 1, 0, 0), 0L, LocalDateTime.of(2000, 1, 1, 0, 0), 0L, null).encode();
+        t.call(get("/api/tasks/changes").param("since", old).header("Authorization", a));
+        t.call(get("/api/tasks/changes").param("since", "garbage").header("Authorization", a));
+        System.out.println("SMOKE compacted " + t.ctx.getBean(TaskSyncService.class).compactTombstones());
+    }
+}
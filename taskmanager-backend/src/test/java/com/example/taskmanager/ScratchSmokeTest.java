@@ -0,0 +1,85 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability
+class ScratchSmokeTest {
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper om;
+    @Autowired UserRepository users;
+    @Autowired PasswordEncoder enc;
+    @Autowired org.springframework.context.ApplicationContext ctx;
+
+    String call(org.springframework.test.web.servlet.RequestBuilder rb) throws Exception {
+        MvcResult r0 = mvc.perform(rb).andReturn();
+        final MvcResult r = r0.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(r0)).andReturn() : r0;
+        String body = r.getResponse().getContentAsString();
+        System.out.println("SMOKE " + r.getRequest().getMethod() + " " + r.getRequest().getRequestURI() + "?" + r.getRequest().getQueryString()
+                + " -> " + r.getResponse().getStatus() + " hdr=" + r.getResponse().getHeaderNames().stream().filter(h -> h.startsWith("X-") || h.equals("ETag") || h.equals("Retry-After")).map(h -> h + ":" + r.getResponse().getHeader(h)).toList()
+                + " " + (body.length() > 600 ? body.substring(0, 600) + "..." : body));
+        return body;
+    }
+
+    String login(String u, String p) throws Exception {
+        String b = call(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"" + u + "\",\"password\":\"" + p + "\"}"));
+        return om.readTree(b).path("token").asText();
+    }
+
+    @Test
+    void smoke() throws Exception {
+        call(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"alice\",\"email\":\"a@x.com\",\"password\":\"secret1\"}"));
+        call(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"bob\",\"email\":\"b@x.com\",\"password\":\"secret2\"}"));
+        User admin = new User(); admin.setUsername("root"); admin.setEmail("r@x.com"); admin.setPassword(enc.encode("adminpw")); admin.setRole(Role.ROLE_ADMIN); users.save(admin);
+        String a = "Bearer " + login("alice", "secret1");
+        String b = "Bearer " + login("bob", "secret2");
+        String r = "Bearer " + login("root", "adminpw");
+        long first = 0;
+        for (int i = 0; i < 5; i++) {
+            JsonNode t = om.readTree(call(post("/api/tasks").header("Authorization", a).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Task " + i + " alpha\",\"description\":\"desc beta " + i + "\"}")));
+            if (i == 0) first = t.path("id").asLong();
+        }
+        call(post("/api/tasks").header("Authorization", b).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Bob task\",\"description\":\"x\"}"));
+        call(get("/api/tasks").header("Authorization", a).param("limit", "2"));
+        call(get("/api/tasks").header("Authorization", a).param("completed", "false").param("titlePrefix", "Task 1"));
+        call(get("/api/tasks/" + first).header("Authorization", a));
+        call(get("/api/tasks/" + first).header("Authorization", b));
+        call(put("/api/tasks/" + first).header("Authorization", a).contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"));
+        call(put("/api/tasks/" + first).header("Authorization", b).contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"));
+        call(put("/api/tasks/" + first).header("Authorization", a).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Renamed gamma\",\"completed\":false}"));
+        call(delete("/api/tasks/" + (first + 1)).header("Authorization", b));
+        call(delete("/api/tasks/" + (first + 1)).header("Authorization", a));
+        call(delete("/api/tasks/99999").header("Authorization", a));
+        call(get("/api/tasks/all").header("Authorization", r).param("limit", "3"));
+        call(get("/api/tasks/all").header("Authorization", a));
+        call(get("/api/admin/users").header("Authorization", r));
+        call(get("/api/admin/tasks").header("Authorization", r));
+        call(get("/api/admin/users/1/tasks").header("Authorization", r));
+        call(get("/api/admin/stats").header("Authorization", r));
+        call(get("/api/admin/audit-stats").header("Authorization", r));
+        call(get("/api/admin/tasks/export").header("Authorization", r));
+        call(get("/api/admin/tasks/export").header("Authorization", r).param("format", "csv"));
+        call(get("/api/tasks").header("Authorization", a));
+        ScratchExtra.run(this, a, b, r, first);
+        call(get("/actuator/prometheus").header("Authorization", a));
+        call(get("/actuator/health"));
+        String prom = call(get("/actuator/prometheus").header("Authorization", r));
+        prom.lines().filter(l -> l.startsWith("app_") || l.startsWith("hikaricp_connections_acquire_seconds_count") || (l.startsWith("http_server_requests_seconds_count") && l.contains("/api/tasks")))
+            .filter(l -> !l.contains("_bucket")).forEach(l -> System.out.println("PROM " + l));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskmanager.audit;
+
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * An event that cannot be serialized is left out of its batch and marked poisoned; the writer
+ * thread keeps running and writes the batches after it.
+ */
+class AuditLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void poisonedEventDoesNotStopTheWriter() throws Exception {
+        AuditLogWriter writer = new AuditLogWriter();
+        ReflectionTestUtils.setField(writer, "outboxEventRepository", mock(OutboxEventRepository.class));
+        ReflectionTestUtils.setField(writer, "objectMapper", new FailingMapper());
+        ReflectionTestUtils.setField(writer, "directory", directory.toString());
+        ReflectionTestUtils.setField(writer, "maxFileSizeMb", 64L);
+        ReflectionTestUtils.setField(writer, "fsync", false);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        writer.start();
+        try {
+            assertTrue(writer.offer(event(1L, "task.created")));
+            assertTrue(writer.offer(event(2L, "poison")));
+            await(() -> writer.getWrittenCount() == 1 && writer.getPoisonedCount() == 1);
+
+            assertTrue(writer.offer(event(3L, "task.updated")));
+            await(() -> writer.getWrittenCount() == 2);
+
+            // The poisoned row is not queued again by the sweep
+            assertTrue(writer.isPending(2L));
+            assertFalse(writer.isPending(3L));
+            assertEquals(0, writer.getWriteErrorCount());
+        } finally {
+            writer.stop();
+        }
+
+        List<String> lines = Files.readAllLines(directory.resolve("audit.log"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":1"));
+        assertTrue(lines.get(1).contains("\"id\":3"));
+    }
+
+    private static OutboxEvent event(Long id, String type) {
+        OutboxEvent event = new OutboxEvent(type, 7L, id, "{\"taskId\":" + id + "}", LocalDateTime.now());
+        event.setId(id);
+        return event;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Audit writer did not catch up");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    // Fails on any record of type "poison"
+    private static class FailingMapper extends ObjectMapper {
+        FailingMapper() {
+            registerModule(new JavaTimeModule());
+        }
+
+        @Override
+        public String writeValueAsString(Object value) throws JsonProcessingException {
+            if (value.toString().contains("type=poison")) {
+                throw new JsonProcessingException("unserializable payload") {
+                };
+            }
+            return super.writeValueAsString(value);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.metrics.StatementBudget;
+import com.example.taskmanager.metrics.StatementCounter;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each endpoint runs against the embedded database, so an
+ * N+1 regression fails the build instead of showing up as latency. Counts exclude sequence
+ * fetches, which happen once per 50 ids and depend on what earlier tests inserted; every
+ * request is also checked against its {@link StatementBudget}, which does include them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementCountIntegrationTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+
+    @BeforeEach
+    void loginAsNewUser() throws Exception {
+        token = login(register());
+    }
+
+    @Test
+    void createTask() throws Exception {
+        // insert task, insert outbox event
+        assertStatements(2, post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"t\"}"));
+    }
+
+    @Test
+    void listTasksIsThreeQueriesWhateverTheNumberOfTasks() throws Exception {
+        // collection tag, page, the page's labels
+        createTasks(1);
+        assertStatements(3, get("/api/tasks").header("Authorization", token));
+
+        createTasks(25);
+        assertStatements(3, get("/api/tasks").header("Authorization", token));
+        // Page cache: only the tag
+        assertStatements(1, get("/api/tasks").header("Authorization", token));
+    }
+
+    @Test
+    void getTaskById() throws Exception {
+        long id = createTasks(1).get(0);
+        // task, its labels
+        assertStatements(2, get("/api/tasks/" + id).header("Authorization", token));
+        assertStatements(0, get("/api/tasks/" + id).header("Authorization", token));
+    }
+
+    @Test
+    void updateTask() throws Exception {
+        long id = createTasks(1).get(0);
+        // conditional update, read back, its labels, insert outbox event
+        assertStatements(4, put("/api/tasks/" + id).header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"));
+        assertStatements(4, put("/api/tasks/" + id).header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"renamed\"}"));
+        // No read back
+        assertStatements(2, put("/api/tasks/" + id).header("Authorization", token).header("Prefer", "return=minimal")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":false}"));
+        // Nothing changed: the update matches no row, the probe tells why, no event
+        assertStatements(4, put("/api/tasks/" + id).header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":false}"));
+    }
+
+    @Test
+    void deleteTask() throws Exception {
+        List<Long> ids = createTasks(2);
+        mockMvc.perform(put("/api/tasks/" + ids.get(0)).header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"));
+        // conditional delete, insert tombstone, insert outbox event; completed or not
+        assertStatements(3, delete("/api/tasks/" + ids.get(0)).header("Authorization", token));
+        assertStatements(3, delete("/api/tasks/" + ids.get(1)).header("Authorization", token));
+    }
+
+    @Test
+    void batchWritesDoNotGrowWithTheBatch() throws Exception {
+        // One JDBC batch per table
+        assertStatements(2, post("/api/tasks/batch").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content(titles(3)));
+        assertStatements(2, post("/api/tasks/batch").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content(titles(120)));
+
+        List<Long> ids = createTasks(2);
+        // select by ids, batched update, labels of the updated tasks, batched outbox insert
+        assertStatements(4, patch("/api/tasks/batch").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":" + ids.get(0) + ",\"completed\":true},{\"id\":" + ids.get(1) + ",\"title\":\"z\"}]"));
+        // select by ids, delete by ids, batched tombstones, batched outbox insert
+        assertStatements(4, delete("/api/tasks/batch").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content(ids.toString()));
+    }
+
+    @Test
+    void searchLoadsAllMatchesInTwoQueries() throws Exception {
+        // matches, their labels
+        createTasks(1);
+        assertStatements(2, get("/api/tasks/search").param("q", "task").header("Authorization", token));
+
+        createTasks(20);
+        assertStatements(2, get("/api/tasks/search").param("q", "task").header("Authorization", token));
+    }
+
+    @Test
+    void dueDateListsAreOneQuery() throws Exception {
+        createTasks(3);
+        assertStatements(1, get("/api/tasks/overdue").header("Authorization", token));
+        assertStatements(1, get("/api/tasks/due-soon").param("hours", "48").header("Authorization", token));
+    }
+
+    @Test
+    void labelFiltersUseTheBitmapIndex() throws Exception {
+        // insert task, label lookup, batched label inserts, batched task_labels insert, insert outbox event
+        MvcResult created = mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"t\",\"labels\":[\"Work\",\"urgent\",\"home\"]}")).andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        createTasks(5);
+
+        // rows by id, their labels
+        assertStatements(2, get("/api/tasks/by-labels").param("all", "work,urgent").param("none", "later")
+                .header("Authorization", token));
+        assertStatements(0, get("/api/tasks/labels").header("Authorization", token));
+        // conditional update, delete task_labels, label lookup, batched task_labels insert, outbox event,
+        // read back, its labels
+        assertStatements(7, put("/api/tasks/" + id).header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"labels\":[\"work\",\"home\"]}"));
+        assertStatements(3, get("/api/tasks").header("Authorization", token));
+    }
+
+    @Test
+    void taskChanges() throws Exception {
+        createTasks(3);
+        // changed tasks, their labels, tombstones
+        assertStatements(3, get("/api/tasks/changes").header("Authorization", token));
+    }
+
+    @Test
+    void registerAndLogin() throws Exception {
+        String name = "user" + USERS.incrementAndGet();
+        // username and email uniqueness checks, insert user, insert outbox event
+        assertStatements(4, post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"email\":\"" + name + "@example.com\",\"password\":\"secret1\"}"));
+        // load user, insert outbox event; a failed login is audited too
+        assertStatements(2, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"password\":\"secret1\"}"));
+        assertStatements(2, status().isBadRequest(), post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"password\":\"wrong\"}"));
+    }
+
+    @Test
+    void adminListsJoinOwnersInsteadOfLoadingThem() throws Exception {
+        String admin = loginAsAdmin();
+        createTasks(3);
+        token = login(register());
+        createTasks(3);
+
+        assertStatements(1, get("/api/tasks/all").header("Authorization", admin));
+        assertStatements(1, get("/api/admin/tasks").header("Authorization", admin));
+        assertStatements(1, get("/api/admin/users").header("Authorization", admin));
+    }
+
+    @Test
+    void adminEndpoints() throws Exception {
+        String admin = loginAsAdmin();
+        String owner = register();
+        token = login(owner);
+        createTasks(3);
+        Long ownerId = userRepository.findByUsername(owner).orElseThrow().getId();
+
+        // collection tag, tasks, their labels, owner
+        assertStatements(4, get("/api/admin/users/" + ownerId + "/tasks").header("Authorization", admin));
+        assertStatements(0, get("/api/admin/stats").header("Authorization", admin));
+        assertStatements(0, get("/api/admin/cache-stats").header("Authorization", admin));
+        assertStatements(1, get("/api/admin/audit-stats").header("Authorization", admin));
+    }
+
+    private void assertStatements(int expected, MockHttpServletRequestBuilder request) throws Exception {
+        assertStatements(expected, status().is2xxSuccessful(), request);
+    }
+
+    private void assertStatements(int expected, ResultMatcher status, MockHttpServletRequestBuilder request)
+            throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status).andReturn();
+
+        StatementCounter.Recording recording =
+                (StatementCounter.Recording) result.getRequest().getAttribute(StatementCounter.REQUEST_ATTRIBUTE);
+        assertNotNull(recording, "No statement count for " + result.getRequest().getRequestURI());
+        List<String> statements = recording.getStatements().stream()
+                .filter(sql -> !sql.startsWith("select next value for"))
+                .toList();
+        assertEquals(expected, statements.size(),
+                () -> result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " ran:\n  "
+                        + String.join("\n  ", statements));
+
+        StatementBudget budget = ((HandlerMethod) result.getHandler()).getMethodAnnotation(StatementBudget.class);
+        assertNotNull(budget, "No @StatementBudget on " + result.getHandler());
+        assertTrue(recording.getCount() <= budget.value(),
+                () -> recording.getCount() + " statements over budget " + budget.value() + ": " + recording.getStatements());
+    }
+
+    private List<Long> createTasks(int count) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content(titles(count))).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).findValues("id").stream()
+                .map(id -> id.asLong())
+                .toList();
+    }
+
+    private static String titles(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append("{\"title\":\"task ").append(i).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private String register() throws Exception {
+        String name = "user" + USERS.incrementAndGet();
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"email\":\"" + name + "@example.com\",\"password\":\"secret1\"}"));
+        return name;
+    }
+
+    private String login(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}")).andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).path("token").asText();
+    }
+
+    // Registration only creates plain users; the role is in the token, so log in after promoting
+    private String loginAsAdmin() throws Exception {
+        String name = register();
+        User user = userRepository.findByUsername(name).orElseThrow();
+        user.setRole(Role.ROLE_ADMIN);
+        userRepository.save(user);
+        return login(name);
+    }
+}
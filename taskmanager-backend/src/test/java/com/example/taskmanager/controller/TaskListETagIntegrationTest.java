@@ -0,0 +1,95 @@
+package com.example.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Task list ETags come from the rows themselves. Changes written straight to the database stand
+ * in for another instance: no event reaches this one, and the clock they used is behind ours.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskListETagIntegrationTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private long taskId;
+
+    @BeforeEach
+    void createTask() throws Exception {
+        String name = "etag" + USERS.incrementAndGet();
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"email\":\"" + name + "@example.com\",\"password\":\"secret1\"}"));
+        MvcResult login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + name + "\",\"password\":\"secret1\"}")).andReturn();
+        token = "Bearer " + objectMapper.readTree(login.getResponse().getContentAsString()).path("token").asText();
+        MvcResult created = mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"first\"}")).andReturn();
+        taskId = objectMapper.readTree(created.getResponse().getContentAsString()).path("id").asLong();
+    }
+
+    @Test
+    void updateFromAnotherInstanceChangesTheTag() throws Exception {
+        String etag = listTag();
+        mockMvc.perform(get("/api/tasks").header("Authorization", token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        jdbcTemplate.update("update tasks set title = 'renamed', version = version + 1, "
+                + "updated_at = dateadd('SECOND', -30, updated_at) where id = ?", taskId);
+        mockMvc.perform(get("/api/tasks").header("Authorization", token).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteFromAnotherInstanceChangesTheTag() throws Exception {
+        String etag = listTag();
+
+        Long userId = jdbcTemplate.queryForObject("select user_id from tasks where id = ?", Long.class, taskId);
+        jdbcTemplate.update("delete from tasks where id = ?", taskId);
+        jdbcTemplate.update("insert into task_tombstones (task_id, user_id, deleted_at) "
+                + "values (?, ?, dateadd('HOUR', -1, now()))", taskId, userId);
+        mockMvc.perform(get("/api/tasks").header("Authorization", token).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void queriesNeverShareATag() throws Exception {
+        String combined = mockMvc.perform(get("/api/tasks").header("Authorization", token)
+                .param("titlePrefix", "f&limit=5")).andReturn().getResponse().getHeader("ETag");
+        String separate = mockMvc.perform(get("/api/tasks").header("Authorization", token)
+                .param("titlePrefix", "f").param("limit", "5")).andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(combined, separate);
+    }
+
+    private String listTag() throws Exception {
+        return mockMvc.perform(get("/api/tasks").header("Authorization", token)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+}
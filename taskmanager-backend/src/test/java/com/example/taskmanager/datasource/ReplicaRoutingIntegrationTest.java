@@ -0,0 +1,155 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing against two separate embedded databases with no replication between them, so the
+ * data in a response shows which one served it. A third replica URL points at nothing and
+ * must be skipped.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "db.replicas.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL + ",jdbc:h2:tcp://localhost:1/unreachable",
+        "db.replicas.connection-timeout-ms=250",
+        "db.replicas.max-lag-seconds=0",
+        "db.replicas.read-your-writes-ms=" + ReplicaRoutingIntegrationTest.WINDOW_MS,
+        "tasks.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final long WINDOW_MS = 1000;
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static boolean replicaSchemaCreated;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    // Same tables as the primary, which Hibernate created; no rows
+    @BeforeEach
+    void createReplicaSchema() throws SQLException {
+        if (replicaSchemaCreated) {
+            return;
+        }
+        List<String> ddl = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            for (String sql : ddl) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        replicaSchemaCreated = true;
+    }
+
+    @Test
+    void readsStayOnThePrimaryRightAfterTheUsersOwnWrite() throws Exception {
+        String token = login(register());
+        mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"written\"}"))
+                .andExpect(status().isCreated());
+
+        assertEquals(List.of("written"), taskTitles(token));
+
+        // Window over: the replica never received the task
+        Thread.sleep(WINDOW_MS + 200);
+        assertEquals(List.of(), taskTitles(token));
+    }
+
+    @Test
+    void usersWithoutRecentWritesReadFromTheReplica() throws Exception {
+        String username = register();
+        String token = login(username);
+        insertOnReplica(username, "only on the replica");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(List.of("only on the replica"), taskTitles(token));
+        }
+    }
+
+    @Test
+    void unreachableReplicaIsTakenOutOfRotation() throws Exception {
+        String username = register();
+        String token = login(username);
+        insertOnReplica(username, "replica");
+
+        long fallbacks = replicaDataSource.getFallbackConnectionCount();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(List.of("replica"), taskTitles(token));
+        }
+        assertEquals(1, replicaDataSource.getHealthyReplicaCount());
+        assertEquals(fallbacks, replicaDataSource.getFallbackConnectionCount());
+    }
+
+    private List<String> taskTitles(String token) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks").header("Authorization", token))
+                .andExpect(status().isOk()).andReturn();
+        JsonNode tasks = objectMapper.readTree(result.getResponse().getContentAsString());
+        return tasks.findValues("title").stream().map(JsonNode::asText).toList();
+    }
+
+    private void insertOnReplica(String username, String title) throws SQLException {
+        Long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("insert into users (id, username, email, password, role, created_at, updated_at) values ("
+                    + userId + ", '" + username + "', '" + username + "@example.com', 'x', 'ROLE_USER', now(), now())");
+            statement.execute("insert into tasks (id, title, completed, created_at, updated_at, version, user_id) values ("
+                    + (100000 + userId) + ", '" + title + "', false, now(), now(), 0, " + userId + ")");
+        }
+    }
+
+    private String register() throws Exception {
+        String name = "reader" + USERS.incrementAndGet();
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + name + "\",\"email\":\"" + name + "@example.com\",\"password\":\"secret1\"}"))
+                .andExpect(status().isCreated());
+        return name;
+    }
+
+    private String login(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}")).andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).path("token").asText();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.taskmanager.label;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bitmaps agree with plain sorted sets through every operation, including containers that switch
+ * between the array and bitmap forms as they grow and shrink.
+ */
+class RoaringBitmapTest {
+
+    @Test
+    void setOperationsMatchSortedSets() {
+        Random random = new Random(7);
+        TreeSet<Long> expectedA = new TreeSet<>();
+        TreeSet<Long> expectedB = new TreeSet<>();
+        RoaringBitmap a = new RoaringBitmap();
+        RoaringBitmap b = new RoaringBitmap();
+        // Dense around the start so some containers pass ARRAY_MAX, sparse across many containers after
+        for (int i = 0; i < 20_000; i++) {
+            long id = i % 2 == 0 ? random.nextInt(70_000) : random.nextInt(5_000_000);
+            expectedA.add(id);
+            a.add(id);
+            long other = random.nextInt(100_000);
+            expectedB.add(other);
+            b.add(other);
+        }
+        for (int i = 0; i < 8_000; i++) {
+            long id = random.nextInt(70_000);
+            expectedA.remove(id);
+            a.remove(id);
+        }
+
+        assertEquals(expectedA.size(), a.cardinality());
+        assertSame(expectedA, a);
+
+        TreeSet<Long> and = new TreeSet<>(expectedA);
+        and.retainAll(expectedB);
+        assertSame(and, a.and(b));
+        assertEquals(and.size(), a.andCardinality(b));
+
+        TreeSet<Long> or = new TreeSet<>(expectedA);
+        or.addAll(expectedB);
+        assertSame(or, a.or(b));
+
+        TreeSet<Long> andNot = new TreeSet<>(expectedA);
+        andNot.removeAll(expectedB);
+        assertSame(andNot, a.andNot(b));
+    }
+
+    @Test
+    void descendingPagesFromTheTop() {
+        RoaringBitmap bitmap = RoaringBitmap.of(3, 70_000, 5, 1L << 40, 65_535, 65_536);
+        assertArrayEquals(new long[]{1L << 40, 70_000, 65_536}, bitmap.descending(Long.MAX_VALUE, 3));
+        assertArrayEquals(new long[]{65_535, 5, 3}, bitmap.descending(65_536, 10));
+        assertArrayEquals(new long[0], bitmap.descending(3, 10));
+    }
+
+    private static void assertSame(TreeSet<Long> expected, RoaringBitmap actual) {
+        List<Long> ids = expected.descendingSet().stream().toList();
+        long[] expectedIds = ids.stream().mapToLong(Long::longValue).toArray();
+        assertArrayEquals(expectedIds, actual.descending(Long.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(expected.size(), actual.cardinality());
+    }
+}
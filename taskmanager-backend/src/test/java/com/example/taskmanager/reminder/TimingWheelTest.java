@@ -0,0 +1,77 @@
+package com.example.taskmanager.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entries fire on their exact tick whichever level they start on, including deadlines that
+ * cascade through every level and ones beyond the wheel's range.
+ */
+class TimingWheelTest {
+
+    @Test
+    void firesEachEntryOnItsDeadline() {
+        long start = 1_000_003;
+        TimingWheel<Long> wheel = new TimingWheel<>(start);
+        Random random = new Random(42);
+        int count = 5000;
+        for (long key = 0; key < count; key++) {
+            // Spread over all four levels
+            long delay = 1 + (long) Math.pow(64, random.nextInt(4)) * random.nextInt(64) + random.nextInt(64);
+            wheel.schedule(key, start + delay, start + delay);
+        }
+
+        List<Long> late = new ArrayList<>();
+        long[] fired = new long[1];
+        wheel.advance(start + (1L << 24), (key, deadline) -> {
+            fired[0]++;
+            if (deadline != wheel.currentTick()) {
+                late.add(key);
+            }
+        });
+        assertEquals(count, fired[0]);
+        assertTrue(late.isEmpty(), "fired off their deadline: " + late);
+    }
+
+    @Test
+    void cancelAndRescheduleMoveEntries() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule(1, 100, "a");
+        wheel.schedule(2, 5_000, "b");
+        wheel.schedule(3, 200_000, "c");
+        wheel.schedule(2, 10, "b");
+        assertTrue(wheel.cancel(3));
+        assertFalse(wheel.cancel(3));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10, (key, value) -> fired.add(value));
+        assertEquals(List.of("b"), fired);
+        wheel.advance(300_000, (key, value) -> fired.add(value));
+        assertEquals(List.of("b", "a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastAndFarDeadlines() {
+        long horizon = 1L << (TimingWheel.SLOT_BITS * TimingWheel.LEVELS);
+        TimingWheel<Long> wheel = new TimingWheel<>(500);
+        wheel.schedule(1, 10, 10L);
+        wheel.schedule(2, 500 + horizon + 77, 500 + horizon + 77);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(501, (key, value) -> fired.add(key));
+        assertEquals(List.of(1L), fired);
+
+        wheel.advance(500 + horizon + 76, (key, value) -> fired.add(key));
+        assertEquals(List.of(1L), fired);
+        wheel.advance(500 + horizon + 77, (key, value) -> fired.add(key));
+        assertEquals(List.of(1L, 2L), fired);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.taskmanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prefix expansion and top-k ranking: exact terms over prefix matches, title over description,
+ * newer ids on ties, every query term required, and the index following puts and removes.
+ */
+class InvertedIndexTest {
+
+    @Test
+    void queryTermsMatchTheTermsTheyPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Quarterly report", null);
+        index.put(2, "Repository cleanup", null);
+        index.put(3, "Reply to Anna", null);
+        index.put(4, "Groceries", "milk, bread");
+
+        assertArrayEquals(new long[]{3, 2, 1}, index.search("rep", 10, 10));
+        assertArrayEquals(new long[]{2, 1}, index.search("REPO", 10, 10));
+        assertArrayEquals(new long[0], index.search("repair", 10, 10));
+        // Expansions follow term order (reply, report, repository) and stop at the cap
+        assertArrayEquals(new long[]{3}, index.search("rep", 10, 1));
+    }
+
+    @Test
+    void exactTermsRankAbovePrefixMatches() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "plan", null);
+        index.put(2, "planning", null);
+        index.put(3, "planner", null);
+        // The older exact match still comes first
+        assertArrayEquals(new long[]{1, 3, 2}, index.search("plan", 10, 10));
+    }
+
+    @Test
+    void topKRanksByWeightedFrequencyThenNewestId() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "alpha", null);
+        index.put(2, null, "alpha");
+        index.put(3, "alpha alpha", null);
+        index.put(4, "alpha", null);
+        index.put(5, "beta", null);
+
+        assertArrayEquals(new long[]{3, 4, 1, 2}, index.search("alpha", 10, 10));
+        assertArrayEquals(new long[]{3, 4}, index.search("alpha", 2, 10));
+        assertArrayEquals(new long[0], index.search("alpha", 0, 10));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Write report", "for the board");
+        index.put(2, "Write code", null);
+        index.put(3, "Read report", null);
+
+        assertArrayEquals(new long[]{1}, index.search("write rep", 10, 10));
+        assertArrayEquals(new long[]{1}, index.search("board report", 10, 10));
+        assertArrayEquals(new long[0], index.search("read code", 10, 10));
+        assertArrayEquals(new long[0], index.search("  ,. ", 10, 10));
+    }
+
+    @Test
+    void putsAndRemovesKeepTheIndexCurrent() {
+        InvertedIndex index = new InvertedIndex();
+        index.load(() -> List.of(new InvertedIndex.Document(1, "old title", "notes"),
+                new InvertedIndex.Document(2, "other", null)));
+        assertEquals(2, index.size());
+
+        // A null description keeps the indexed one
+        index.put(1, "new title", null);
+        assertArrayEquals(new long[0], index.search("old", 10, 10));
+        assertArrayEquals(new long[]{1}, index.search("new notes", 10, 10));
+
+        index.remove(1);
+        assertArrayEquals(new long[0], index.search("title", 10, 10));
+        assertEquals(1, index.size());
+    }
+}
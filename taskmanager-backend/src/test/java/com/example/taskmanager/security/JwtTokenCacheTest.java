@@ -0,0 +1,95 @@
+package com.example.taskmanager.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cached tokens stop resolving at their expiry, the cache never grows past its limit, and a
+ * user's tokens can be invalidated together.
+ */
+class JwtTokenCacheTest {
+
+    private static final UserDetails ALICE = User.withUsername("alice").password("x").roles("USER").build();
+    private static final UserDetails BOB = User.withUsername("bob").password("x").roles("USER").build();
+
+    @Test
+    void tokensResolveUntilTheyExpire() {
+        JwtTokenCache cache = cache(10);
+        cache.put("live", ALICE, inSeconds(60));
+        cache.put("expired", ALICE, inSeconds(-1));
+        cache.put("no-expiry", ALICE, null);
+
+        assertSame(ALICE, cache.get("live"));
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("no-expiry"));
+        assertNull(cache.get("unknown"));
+        // Tokens that have already expired are not stored at all
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void entriesExpireWithTheirToken() throws InterruptedException {
+        JwtTokenCache cache = cache(10);
+        cache.put("short", ALICE, new Date(System.currentTimeMillis() + 200));
+        cache.put("long", BOB, inSeconds(60));
+        assertSame(ALICE, cache.get("short"));
+
+        Thread.sleep(300);
+        assertNull(cache.get("short"));
+        assertSame(BOB, cache.get("long"));
+    }
+
+    @Test
+    void fullCacheOfLiveTokensStaysWithinItsLimit() {
+        JwtTokenCache cache = cache(3);
+        for (int i = 0; i < 200; i++) {
+            cache.put("token-" + i, ALICE, inSeconds(60));
+            cache.cleanUp();
+            assertTrue(cache.size() <= 3);
+        }
+    }
+
+    @Test
+    void invalidatesOneUsersTokens() {
+        JwtTokenCache cache = cache(10);
+        cache.put("a1", ALICE, inSeconds(60));
+        cache.put("a2", ALICE, inSeconds(60));
+        cache.put("b1", BOB, inSeconds(60));
+
+        cache.invalidateUser("alice");
+        assertNull(cache.get("a1"));
+        assertNull(cache.get("a2"));
+        assertSame(BOB, cache.get("b1"));
+
+        cache.invalidateAll();
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void disabledCacheKeepsNothing() {
+        JwtTokenCache cache = cache(0);
+        cache.put("live", ALICE, inSeconds(60));
+        assertNull(cache.get("live"));
+    }
+
+    private static JwtTokenCache cache(int maxSize) {
+        JwtTokenCache cache = new JwtTokenCache();
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        cache.init();
+        return cache;
+    }
+
+    private static Date inSeconds(long seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000);
+    }
+}
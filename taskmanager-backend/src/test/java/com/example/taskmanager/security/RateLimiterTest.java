@@ -0,0 +1,98 @@
+package com.example.taskmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA arithmetic on an explicit clock: the burst, the steady rate after it, refill after idle
+ * time, and how idle and surplus buckets are dropped once the key limit is reached.
+ */
+class RateLimiterTest {
+
+    // 10 per second: one permit every 100 ms
+    private static final long INTERVAL = 100_000_000L;
+    private static final long T0 = 1_000_000_000_000L;
+
+    @Test
+    void admitsTheBurstThenRejectsWithTheWait() {
+        RateLimiter limiter = new RateLimiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a", T0));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("a", T0));
+        // A rejection does not use up a permit
+        assertEquals(INTERVAL, limiter.tryAcquire("a", T0));
+    }
+
+    @Test
+    void admitsOnePermitPerIntervalOnceTheBurstIsSpent() {
+        RateLimiter limiter = new RateLimiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a", T0);
+        }
+        for (int step = 1; step <= 20; step++) {
+            long now = T0 + step * INTERVAL;
+            assertEquals(0, limiter.tryAcquire("a", now));
+            assertEquals(INTERVAL, limiter.tryAcquire("a", now));
+        }
+        // Halfway through an interval the wait is the other half
+        assertEquals(INTERVAL / 2, limiter.tryAcquire("a", T0 + 20 * INTERVAL + INTERVAL / 2));
+    }
+
+    @Test
+    void refillsAfterIdleTimeButNotBeyondTheBurst() {
+        RateLimiter limiter = new RateLimiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a", T0);
+        }
+        // Two intervals idle give back two permits
+        long later = T0 + 2 * INTERVAL;
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertTrue(limiter.tryAcquire("a", later) > 0);
+
+        // A long idle time refills to the burst and no further
+        long muchLater = T0 + 1000 * INTERVAL;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a", muchLater));
+        }
+        assertTrue(limiter.tryAcquire("a", muchLater) > 0);
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() {
+        RateLimiter limiter = new RateLimiter(10, 5, 100);
+        limiter.tryAcquire("idle", T0);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("busy", T0 + 5 * INTERVAL);
+        }
+        assertEquals(1, limiter.sweep(T0 + 5 * INTERVAL));
+        assertEquals(1, limiter.size());
+        // The busy key kept its debt
+        assertTrue(limiter.tryAcquire("busy", T0 + 5 * INTERVAL) > 0);
+    }
+
+    @Test
+    void newKeysPastTheLimitEvictTheBucketClosestToFull() {
+        RateLimiter limiter = new RateLimiter(10, 5, 2);
+        limiter.tryAcquire("light", T0);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("heavy", T0);
+        }
+
+        // Neither bucket is full yet, so nothing can be swept: the new key evicts "light"
+        assertEquals(0, limiter.tryAcquire("new", T0));
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire("heavy", T0) > 0);
+
+        // Rotating keys each get their own burst and never throttle one another
+        for (int key = 0; key < 50; key++) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(0, limiter.tryAcquire("rotating-" + key, T0));
+            }
+            assertTrue(limiter.size() <= 2);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.config.CacheConfig;
+import com.example.taskmanager.dto.request.TaskQuery;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reads are cached, but a page or task loaded while a change committed is returned without being
+ * stored, so the next read goes back to the database instead of serving the stale copy. Misses
+ * load in a read-write transaction so they are never answered by a lagging replica.
+ */
+class CachingTaskServiceTest {
+
+    private static final Long USER = 7L;
+
+    private CachingTaskService service;
+    private TaskService delegate;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(TaskService.class);
+        TaskVersionService versions = mock(TaskVersionService.class);
+        when(versions.collectionTag(USER)).thenReturn("tag-1");
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new CachingTaskService();
+        ReflectionTestUtils.setField(service, "delegate", delegate);
+        ReflectionTestUtils.setField(service, "taskVersionService", versions);
+        ReflectionTestUtils.setField(service, "cacheManager",
+                new ConcurrentMapCacheManager(CacheConfig.TASK_PAGES, CacheConfig.TASKS));
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        service.init();
+    }
+
+    @Test
+    void pagesAreCachedUntilTheyCanBeStale() {
+        CursorPage<TaskResponse> page = new CursorPage<>(List.of(task(1)), null);
+        when(delegate.getUserTasks(any(), any())).thenReturn(page);
+
+        TaskQuery query = new TaskQuery();
+        assertSame(page, service.getUserTasks(USER, query));
+        assertSame(page, service.getUserTasks(USER, query));
+        verify(delegate, times(1)).getUserTasks(USER, query);
+    }
+
+    @Test
+    void pageLoadedDuringACommitIsNotCached() {
+        CursorPage<TaskResponse> stale = new CursorPage<>(List.of(task(1)), null);
+        CursorPage<TaskResponse> fresh = new CursorPage<>(List.of(task(1), task(2)), null);
+        // The change commits while the first read is still loading
+        when(delegate.getUserTasks(any(), any())).thenAnswer(invocation -> {
+            service.onTaskChanged(TaskChangedEvent.created(2L, USER, false, "t", null, null, List.of()));
+            return stale;
+        }).thenReturn(fresh);
+
+        TaskQuery query = new TaskQuery();
+        assertSame(stale, service.getUserTasks(USER, query));
+        assertSame(fresh, service.getUserTasks(USER, query));
+        assertSame(fresh, service.getUserTasks(USER, query));
+        verify(delegate, times(2)).getUserTasks(USER, query);
+    }
+
+    @Test
+    void taskLoadedDuringAnEvictionIsNotCached() {
+        TaskResponse stale = task(1);
+        TaskResponse fresh = task(1);
+        fresh.setTitle("renamed");
+        when(delegate.getTaskById(1L)).thenAnswer(invocation -> {
+            service.onTaskChanged(TaskChangedEvent.updated(1L, USER, false, false, false, "renamed", null, false, null));
+            return stale;
+        }).thenReturn(fresh);
+
+        assertSame(stale, service.getTaskById(1L));
+        assertSame(fresh, service.getTaskById(1L));
+        assertSame(fresh, service.getTaskById(1L));
+        verify(delegate, times(2)).getTaskById(1L);
+
+        // A later change evicts the cached copy
+        service.onTaskChanged(TaskChangedEvent.deleted(1L, USER));
+        service.getTaskById(1L);
+        verify(delegate, times(3)).getTaskById(1L);
+    }
+
+    @Test
+    void missesLoadInAReadWriteTransaction() {
+        when(delegate.getTaskById(1L)).thenReturn(task(1));
+
+        service.getTaskById(1L);
+        service.getTaskById(1L);
+        // Only the miss opened a transaction, and it was not a read-only one the replicas could take
+        verify(transactionManager, times(1)).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    private static TaskResponse task(long id) {
+        TaskResponse task = new TaskResponse();
+        task.setId(id);
+        task.setTitle("task " + id);
+        task.setUserId(USER);
+        return task;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A delete that does not know the task's completed state recounts only its owner's completed
+ * tasks on the next tick, and corrects the total by the difference.
+ */
+class StatsServiceImplTest {
+
+    private static final Long USER = 7L;
+    private static final Long OTHER = 8L;
+
+    private StatsServiceImpl service;
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.count()).thenReturn(5L);
+        when(taskRepository.countByCompleted(true)).thenReturn(3L);
+        when(taskRepository.countTasksPerUser()).thenReturn(List.of(row(USER, 3, 2), row(OTHER, 2, 1)));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new StatsServiceImpl();
+        ReflectionTestUtils.setField(service, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(service, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        service.init();
+        service.reconcile();
+    }
+
+    @Test
+    void unknownDeleteRecountsOnlyItsOwner() {
+        // One of the user's two completed tasks was deleted
+        when(taskRepository.countCompletedByUserId(USER)).thenReturn(1L);
+        service.onTaskChanged(TaskChangedEvent.deleted(10L, USER));
+        service.recountCompleted();
+
+        assertEquals(4, service.getStats().getTotalTasks());
+        assertEquals(2, service.getStats().getCompletedTasks());
+        verify(taskRepository).countCompletedByUserId(USER);
+        verify(taskRepository, never()).countCompletedByUserId(OTHER);
+        verify(taskRepository, times(1)).countByCompleted(true);
+
+        // Nothing is stale any more, so the next tick reads nothing
+        service.recountCompleted();
+        verify(taskRepository, times(1)).countCompletedByUserId(USER);
+    }
+
+    @Test
+    void knownDeletesAdjustTheCountersDirectly() {
+        service.onTaskChanged(TaskChangedEvent.deleted(10L, OTHER, true));
+        service.recountCompleted();
+
+        assertEquals(2, service.getStats().getCompletedTasks());
+        verify(taskRepository, never()).countCompletedByUserId(any());
+    }
+
+    private static TaskRepository.UserTaskCount row(Long userId, long tasks, long completed) {
+        return new TaskRepository.UserTaskCount() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public long getTaskCount() {
+                return tasks;
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return completed;
+            }
+        };
+    }
+}
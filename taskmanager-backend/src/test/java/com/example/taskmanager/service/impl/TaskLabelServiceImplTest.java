@@ -0,0 +1,107 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.LabelQuery;
+import com.example.taskmanager.dto.response.CursorPage;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskLabelRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Label filters page through the bitmap index, but the rows and their labels come from the
+ * database: a page whose rows were all deleted is read past, and labels the index has not caught
+ * up with are never returned.
+ */
+class TaskLabelServiceImplTest {
+
+    private static final Long USER = 7L;
+
+    private TaskLabelServiceImpl service;
+    private TaskRepository taskRepository;
+    private TaskLabelRepository taskLabelRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        taskLabelRepository = mock(TaskLabelRepository.class);
+        service = new TaskLabelServiceImpl();
+        ReflectionTestUtils.setField(service, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(service, "taskLabelRepository", taskLabelRepository);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        for (long id = 1; id <= 5; id++) {
+            service.onTaskChanged(TaskChangedEvent.created(id, USER, false, "task " + id, null, null, List.of("work")));
+        }
+    }
+
+    @Test
+    void readsPastAPageWhoseRowsWereAllDeleted() {
+        // 5 and 4 are gone from the database; their delete events have not reached the index yet
+        returnRowsExcept(Set.of(5L, 4L));
+
+        CursorPage<TaskResponse> page = service.findTasks(USER, query());
+
+        assertEquals(List.of(3L, 2L), page.getItems().stream().map(TaskResponse::getId).toList());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void labelsComeFromTheDatabase() {
+        returnRowsExcept(Set.of());
+        when(taskLabelRepository.findRowsByTaskIdIn(any())).thenReturn(List.of(label(5L, "home")));
+
+        CursorPage<TaskResponse> page = service.findTasks(USER, query());
+
+        assertEquals(List.of("home"), page.getItems().get(0).getLabels());
+        assertEquals(List.of(), page.getItems().get(1).getLabels());
+    }
+
+    private void returnRowsExcept(Set<Long> deleted) {
+        when(taskRepository.findResponsesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !deleted.contains(id)).map(TaskLabelServiceImplTest::row).toList();
+        });
+    }
+
+    private static LabelQuery query() {
+        LabelQuery query = new LabelQuery();
+        query.setAll(List.of("work"));
+        return query;
+    }
+
+    private static TaskResponse row(Long id) {
+        TaskResponse task = new TaskResponse();
+        task.setId(id);
+        task.setUserId(USER);
+        task.setCreatedAt(LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(id));
+        return task;
+    }
+
+    private static TaskLabelRepository.TaskLabelRow label(Long taskId, String name) {
+        return new TaskLabelRepository.TaskLabelRow() {
+            @Override
+            public Long getTaskId() {
+                return taskId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
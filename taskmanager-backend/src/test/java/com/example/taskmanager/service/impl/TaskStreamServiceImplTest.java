@@ -0,0 +1,163 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskLabelService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A client that stops reading is disconnected once it falls a full buffer behind, while another
+ * connection of the same user keeps receiving every event, in the order the changes committed.
+ */
+class TaskStreamServiceImplTest {
+
+    private static final Long USER = 7L;
+    private static final int BUFFER = 4;
+
+    @Test
+    void slowConsumerIsDisconnectedWithoutAffectingOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        Deque<SseEmitter> emitters = new ArrayDeque<>();
+        emitters.add(slow);
+        emitters.add(fast);
+
+        TaskStreamServiceImpl service = newService(emitters, BUFFER);
+        try {
+            service.subscribe(USER);
+            service.subscribe(USER);
+            assertEquals(2, service.getConnectionCount());
+            // Both got the "connected" comment; the slow one is now stuck writing it
+            await(() -> slow.attempts.get() == 1 && fast.attempts.get() == 1);
+
+            // One at a time, so the fast consumer's own buffer never fills
+            for (long taskId = 1; taskId <= BUFFER + 1; taskId++) {
+                service.onTaskChanged(TaskChangedEvent.deleted(taskId, USER));
+                long sent = taskId + 1;
+                await(() -> fast.attempts.get() == sent);
+            }
+
+            await(() -> service.getConnectionCount() == 1);
+            assertEquals(1, slow.completions.get());
+            assertFalse(fast.completed.get());
+
+            // Later events still reach the remaining connection
+            service.onTaskChanged(TaskChangedEvent.deleted(100L, USER));
+            await(() -> fast.attempts.get() == BUFFER + 3);
+            assertEquals(1, slow.attempts.get());
+        } finally {
+            unblock.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void eachUsersChangesArriveInCommitOrder() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        Deque<SseEmitter> emitters = new ArrayDeque<>();
+        emitters.add(emitter);
+        int events = 200;
+        TaskStreamServiceImpl service = newService(emitters, events + 1);
+        try {
+            service.subscribe(USER);
+            for (long taskId = 1; taskId <= events; taskId++) {
+                service.onTaskChanged(TaskChangedEvent.deleted(taskId, USER));
+            }
+            // Other users' changes share lanes with this one but do not reorder it
+            for (long taskId = 1; taskId <= events; taskId++) {
+                service.onTaskChanged(TaskChangedEvent.deleted(taskId, USER + taskId));
+            }
+
+            await(() -> emitter.data.size() == events);
+            for (int i = 0; i < events; i++) {
+                assertTrue(emitter.data.get(i).contains("\"taskId\":" + (i + 1) + ","), emitter.data.get(i));
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static TaskStreamServiceImpl newService(Deque<SseEmitter> emitters, int bufferSize) {
+        TaskStreamServiceImpl service = new TaskStreamServiceImpl() {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.poll();
+            }
+        };
+        ReflectionTestUtils.setField(service, "taskRepository", mock(TaskRepository.class));
+        ReflectionTestUtils.setField(service, "taskLabelService", mock(TaskLabelService.class));
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(service, "maxPerUser", 5);
+        ReflectionTestUtils.setField(service, "maxConnections", 100);
+        ReflectionTestUtils.setField(service, "laneCount", 4);
+        service.init();
+        return service;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Task stream did not reach the expected state");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // Counts writes instead of sending them; with a latch, every write blocks until it opens
+    private static class RecordingEmitter extends SseEmitter {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicInteger completions = new AtomicInteger();
+        final AtomicBoolean completed = new AtomicBoolean();
+        // The data of each event sent, in order; comments carry none
+        final List<String> data = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        RecordingEmitter(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts.incrementAndGet();
+            // Field names and comments are plain text parts; the event data is the one without a media type
+            builder.build().stream()
+                    .filter(part -> part.getMediaType() == null)
+                    .forEach(part -> data.add(part.getData().toString()));
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completions.incrementAndGet();
+            completed.set(true);
+        }
+    }
+}
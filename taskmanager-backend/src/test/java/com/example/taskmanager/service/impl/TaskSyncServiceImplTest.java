@@ -0,0 +1,145 @@
+package com.example.taskmanager.service.impl;
+
+import com.example.taskmanager.dto.request.SyncToken;
+import com.example.taskmanager.dto.response.TaskChangesResponse;
+import com.example.taskmanager.dto.response.TaskResponse;
+import com.example.taskmanager.exception.SyncTokenExpiredException;
+import com.example.taskmanager.model.TaskTombstone;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.service.TaskLabelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sync tokens survive encoding, a caught-up token restarts a skew window before the call (or
+ * earlier, where a paged sync began), and tokens older than the tombstone retention expire.
+ */
+class TaskSyncServiceImplTest {
+
+    private static final long SKEW_MS = 60_000;
+    private static final Long USER = 7L;
+
+    private TaskSyncServiceImpl service;
+    private TaskRepository taskRepository;
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskSyncServiceImpl();
+        taskRepository = mock(TaskRepository.class);
+        tombstoneRepository = mock(TaskTombstoneRepository.class);
+        ReflectionTestUtils.setField(service, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(service, "taskTombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(service, "taskLabelService", mock(TaskLabelService.class));
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 10);
+        ReflectionTestUtils.setField(service, "skewWindowMs", SKEW_MS);
+        ReflectionTestUtils.setField(service, "retentionDays", 30);
+    }
+
+    @Test
+    void tokensRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000);
+        SyncToken paging = new SyncToken(time, 42L, time.minusSeconds(5), 17L, time.minusMinutes(1));
+        assertEquals(paging, SyncToken.decode(paging.encode()));
+
+        SyncToken caughtUp = new SyncToken(time, 0L, time, 0L, null);
+        assertEquals(caughtUp, SyncToken.decode(caughtUp.encode()));
+
+        assertThrows(IllegalArgumentException.class, () -> SyncToken.decode("not-a-token"));
+    }
+
+    @Test
+    void caughtUpTokenRestartsOneSkewWindowBeforeTheCall() {
+        when(taskRepository.findChangedSince(eq(USER), any(), any(), any())).thenReturn(List.of(task(1)));
+        when(tombstoneRepository.findDeletedSince(eq(USER), any(), any(), any())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        TaskChangesResponse response = service.getChanges(USER, null, null);
+        LocalDateTime after = LocalDateTime.now();
+
+        assertFalse(response.isHasMore());
+        SyncToken next = SyncToken.decode(response.getNextToken());
+        assertWithin(before.minusNanos(SKEW_MS * 1_000_000), after.minusNanos(SKEW_MS * 1_000_000), next.upsertsAfter());
+        assertEquals(next.upsertsAfter(), next.deletesAfter());
+        assertEquals(0L, next.upsertsAfterId());
+        assertNull(next.resumeFrom());
+    }
+
+    @Test
+    void pagingKeepsWhereTheSyncBeganForTheCatchUp() {
+        // A full page plus one: more to come
+        when(taskRepository.findChangedSince(eq(USER), any(), any(), eq(Limit.of(3))))
+                .thenReturn(new ArrayList<>(List.of(task(1), task(2), task(3))));
+        when(tombstoneRepository.findDeletedSince(eq(USER), any(), any(), any())).thenReturn(List.of());
+
+        TaskChangesResponse first = service.getChanges(USER, null, null);
+        assertTrue(first.isHasMore());
+        assertEquals(2, first.getUpserts().size());
+        SyncToken paging = SyncToken.decode(first.getNextToken());
+        assertEquals(2L, paging.upsertsAfterId());
+        assertEquals(task(2).getUpdatedAt(), paging.upsertsAfter());
+
+        // The last page: the catch-up token goes back to the first page's window, not this call's
+        when(taskRepository.findChangedSince(eq(USER), any(), any(), eq(Limit.of(3)))).thenReturn(List.of(task(3)));
+        when(tombstoneRepository.findDeletedSince(eq(USER), any(), any(), any()))
+                .thenReturn(List.of(new TaskTombstone(9L, USER, LocalDateTime.now().minusSeconds(1))));
+        TaskChangesResponse last = service.getChanges(USER, first.getNextToken(), null);
+        assertFalse(last.isHasMore());
+        assertEquals(List.of(9L), last.getDeletes());
+        SyncToken next = SyncToken.decode(last.getNextToken());
+        assertEquals(paging.resumeFrom(), next.upsertsAfter());
+        assertEquals(paging.resumeFrom(), next.deletesAfter());
+
+        verify(taskRepository).findChangedSince(USER, paging.upsertsAfter(), 2L, Limit.of(3));
+    }
+
+    @Test
+    void tokensOlderThanTheTombstoneRetentionExpire() {
+        LocalDateTime old = LocalDateTime.now().minusDays(31);
+        LocalDateTime recent = LocalDateTime.now().minusDays(1);
+
+        String stale = new SyncToken(old, 0L, old, 0L, null).encode();
+        assertThrows(SyncTokenExpiredException.class, () -> service.getChanges(USER, stale, null));
+
+        // A paging token expires by where the sync began, even with recent positions
+        String stalePaging = new SyncToken(recent, 5L, recent, 0L, old).encode();
+        assertThrows(SyncTokenExpiredException.class, () -> service.getChanges(USER, stalePaging, null));
+
+        when(taskRepository.findChangedSince(eq(USER), any(), any(), any())).thenReturn(List.of());
+        when(tombstoneRepository.findDeletedSince(eq(USER), any(), any(), any())).thenReturn(List.of());
+        String fresh = new SyncToken(recent, 0L, recent, 0L, null).encode();
+        assertFalse(service.getChanges(USER, fresh, null).isHasMore());
+    }
+
+    private static TaskResponse task(long id) {
+        TaskResponse task = new TaskResponse();
+        task.setId(id);
+        task.setTitle("task " + id);
+        task.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id));
+        task.setUserId(USER);
+        return task;
+    }
+
+    private static void assertWithin(LocalDateTime from, LocalDateTime to, LocalDateTime actual) {
+        assertTrue(!actual.isBefore(from) && !actual.isAfter(to), actual + " not within " + from + " and " + to);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The task and auth API end to end with storage.engine=embedded, where users and audit events live in the store too
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:embedded-engine;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "storage.engine=embedded",
+        "storage.embedded.fsync=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmbeddedStoreIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmbeddedTaskStore store;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void storeDirectory(DynamicPropertyRegistry registry) throws Exception {
+        Path dir = Files.createTempDirectory("embedded-store");
+        registry.add("storage.embedded.dir", dir::toString);
+    }
+
+    @Test
+    void taskLifecycle() throws Exception {
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"embedded\",\"email\":\"embedded@example.com\",\"password\":\"secret1\"}"));
+        JsonNode login = read(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"embedded\",\"password\":\"secret1\"}")).andReturn().getResponse()
+                .getContentAsString());
+        String token = "Bearer " + login.path("token").asText();
+
+        long first = read(mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"first\"}"))
+                .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString()).path("id").asLong();
+        long second = read(mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"second\"}"))
+                .andReturn().getResponse().getContentAsString()).path("id").asLong();
+
+        mockMvc.perform(put("/api/tasks/" + first).header("Authorization", token).header("If-Match", "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"))
+                .andExpect(status().isPreconditionFailed());
+        JsonNode updated = read(mockMvc.perform(put("/api/tasks/" + first).header("Authorization", token)
+                .header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertTrue(updated.path("completed").asBoolean());
+        assertEquals(1, updated.path("version").asLong());
+
+        mockMvc.perform(delete("/api/tasks/" + second).header("Authorization", token))
+                .andExpect(status().is2xxSuccessful());
+
+        JsonNode page = read(mockMvc.perform(get("/api/tasks").header("Authorization", token))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertEquals(1, page.findValues("id").size());
+        assertEquals(first, page.findValues("id").get(0).asLong());
+
+        assertEquals(1, store.count());
+        assertEquals(1, store.countCompleted());
+        // The account and its credentials are only in the store
+        assertTrue(store.findUserByUsername("embedded").password().startsWith("$2"));
+        assertTrue(userRepository.findByUsername("embedded").isEmpty());
+    }
+
+    private JsonNode read(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+}
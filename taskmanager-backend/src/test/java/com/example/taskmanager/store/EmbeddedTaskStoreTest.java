@@ -0,0 +1,142 @@
+package com.example.taskmanager.store;
+
+import com.example.taskmanager.model.OutboxEvent;
+import com.example.taskmanager.model.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recovery of the embedded store from its files. A store that is dropped without {@code close()}
+ * stands in for a crashed process: its writes are in the mapped log but no snapshot covers them.
+ */
+class EmbeddedTaskStoreTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysLogAfterCrash() throws IOException {
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        StoredTask first = store.write(tx -> tx.create(1, "first", null,
+                LocalDateTime.of(2030, 1, 1, 9, 0), LocalDateTime.of(2030, 1, 1, 8, 0), List.of("home", "work")));
+        StoredTask second = store.write(tx -> tx.create(1, "second", "with description", null, null));
+        store.write(tx -> {
+            tx.put(tx.get(first.id()).withCompleted(true, tx.now()));
+            tx.delete(second.id());
+            return null;
+        });
+
+        EmbeddedTaskStore recovered = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals(1, recovered.count());
+        assertEquals(1, recovered.countCompleted());
+        assertEquals(store.findTask(first.id()), recovered.findTask(first.id()));
+        assertNull(recovered.findTask(second.id()));
+        assertEquals(1, recovered.findDeletedSince(1, first.createdAt().minusDays(1), 0, 10).size());
+        // Ids continue after the recovered ones
+        assertTrue(recovered.write(tx -> tx.create(1, "third", null, null, null)).id() > second.id());
+    }
+
+    @Test
+    void snapshotPlusLaterLogRecords() throws IOException {
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            store.write(tx -> tx.create(n % 3, "task " + n, null, null, null, n % 2 == 0 ? List.of("even") : List.of()));
+        }
+        store.snapshot();
+        assertEquals(1, countFiles("wal-"));
+        StoredTask after = store.write(tx -> tx.create(7, "after snapshot", null, null, null));
+
+        EmbeddedTaskStore recovered = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals(101, recovered.count());
+        assertEquals(after, recovered.findTask(after.id()));
+        assertEquals(store.findByUser(1), recovered.findByUser(1));
+        recovered.close();
+
+        // close() snapshots, so nothing is left to replay
+        EmbeddedTaskStore reopened = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals(101, reopened.count());
+        assertEquals(0, reopened.getWalBytes());
+    }
+
+    @Test
+    void recoversUsersAndUnacknowledgedAuditEvents() throws IOException {
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        StoredUser alice = store.write(tx -> {
+            StoredUser user = tx.createUser("Alice", "alice@example.com", "hash-1", Role.ROLE_USER);
+            tx.audit("USER_REGISTERED", user.id(), user.id(), "{}");
+            return user;
+        });
+        OutboxEvent created = store.write(tx -> {
+            StoredTask task = tx.create(alice.id(), "task", null, null, null);
+            return tx.audit("TASK_CREATED", alice.id(), task.id(), "{}");
+        });
+        store.snapshot();
+        store.putUser(store.findUser(alice.id()).withPassword("hash-2"));
+        store.acknowledgeAudit(List.of(created.getId()));
+
+        EmbeddedTaskStore recovered = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals("hash-2", recovered.findUserByUsername("alice").password());
+        assertEquals(alice.id(), recovered.findUserByEmail("ALICE@example.com").id());
+        List<OutboxEvent> pending = recovered.findAuditEvents(LocalDateTime.now().plusMinutes(1), 10);
+        assertEquals(1, pending.size());
+        assertEquals("USER_REGISTERED", pending.get(0).getType());
+        // Ids continue after the recovered ones
+        assertTrue(recovered.write(tx -> tx.createUser("bob", "bob@example.com", "hash", Role.ROLE_USER)).id() > alice.id());
+        assertTrue(recovered.write(tx -> tx.audit("X", null, null, "{}")).getId() > created.getId());
+    }
+
+    @Test
+    void discardsTornTail() throws IOException {
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        StoredTask kept = store.write(tx -> tx.create(1, "kept", null, null, null));
+        StoredTask torn = store.write(tx -> tx.create(1, "torn", null, null, null));
+
+        // Flip a payload byte of the last record, as if the crash hit before its page was written
+        Path wal;
+        try (Stream<Path> files = Files.list(dir)) {
+            wal = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            long last = 16 + header.getInt(0);
+            ByteBuffer body = ByteBuffer.allocate(1);
+            channel.read(body, last + 20);
+            body.put(0, (byte) ~body.get(0)).rewind();
+            channel.write(body, last + 20);
+        }
+
+        EmbeddedTaskStore recovered = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals(List.of(kept), recovered.findByUser(1));
+        assertNull(recovered.findTask(torn.id()));
+        StoredTask next = recovered.write(tx -> tx.create(1, "next", null, null, null));
+
+        EmbeddedTaskStore again = EmbeddedTaskStore.open(dir, SEGMENT_BYTES, false);
+        assertEquals(List.of(next, kept), again.findByUser(1));
+        assertFalse(again.findTasks(List.of(torn.id())).stream().anyMatch(task -> task.title().equals("torn")));
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
-import { taskAPI } from '../services/api';
+import { taskAPI, streamTaskChanges } from '../services/api';
 import TaskForm from './TaskForm';
 import TaskList from './TaskList';
 
@@ -9,6 +9,7 @@ const Dashboard = () => {
   const { user, logout } = useAuth();
   const [tasks, setTasks] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
   const [showTaskForm, setShowTaskForm] = useState(false);
 
   // Fetch tasks when component loads
@@ -16,10 +17,64 @@ const Dashboard = () => {
     fetchTasks();
   }, []);
 
+  // Apply changes pushed by the server (including ones made in other tabs) instead of re-fetching
+  useEffect(() => {
+    const controller = new AbortController();
+    let retryDelay = 1000;
+
+    const applyChange = (change) => {
+      setTasks((current) => {
+        if (change.type === 'deleted') {
+          return current.filter((task) => task.id !== change.taskId);
+        }
+        const existing = current.find((task) => task.id === change.taskId);
+        if (!existing) {
+          return change.type === 'created' ? [change.task, ...current] : current;
+        }
+        // Changes can arrive out of order; keep whichever version is newer
+        return existing.version > change.task.version
+          ? current
+          : current.map((task) => (task.id === change.taskId ? change.task : task));
+      });
+    };
+
+    // Changes committed while disconnected were never pushed, so every reconnect reloads the list
+    // once the new stream is open; nothing committed after that point can be missed
+    let opened = false;
+    const onOpen = () => {
+      if (opened) {
+        resyncTasks();
+      }
+      opened = true;
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await streamTaskChanges((change) => {
+            retryDelay = 1000;
+            applyChange(change);
+          }, controller.signal, onOpen);
+        } catch (error) {
+          if (controller.signal.aborted) {
+            return;
+          }
+          console.error('Task stream disconnected:', error);
+        }
+        await new Promise((resolve) => setTimeout(resolve, retryDelay));
+        retryDelay = Math.min(retryDelay * 2, 30000);
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  }, []);
+
   const fetchTasks = async () => {
     try {
       const response = await taskAPI.getTasks();
       setTasks(response.data);
+      setNextCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching tasks:', error);
     } finally {
@@ -27,8 +82,33 @@ const Dashboard = () => {
     }
   };
 
+  // Reloads the first page; a task the stream already delivered in a newer version keeps that version
+  const resyncTasks = async () => {
+    try {
+      const response = await taskAPI.getTasks();
+      setTasks((current) => response.data.map((task) => {
+        const existing = current.find((item) => item.id === task.id);
+        return existing && existing.version > task.version ? existing : task;
+      }));
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error('Error resyncing tasks:', error);
+    }
+  };
+
+  const fetchMoreTasks = async () => {
+    try {
+      const response = await taskAPI.getTasks({ cursor: nextCursor });
+      setTasks([...tasks, ...response.data]);
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error('Error fetching more tasks:', error);
+    }
+  };
+
   const handleTaskCreated = (newTask) => {
-    setTasks([...tasks, newTask]);
+    // The stream may already have delivered it
+    setTasks((current) => (current.some((task) => task.id === newTask.id) ? current : [...current, newTask]));
     setShowTaskForm(false);
   };
 
@@ -108,6 +188,24 @@ const Dashboard = () => {
         onTaskUpdated={handleTaskUpdated}
         onTaskDeleted={handleTaskDeleted}
       />
+
+      {nextCursor && (
+        <div style={{ textAlign: 'center', marginTop: '20px' }}>
+          <button
+            onClick={fetchMoreTasks}
+            style={{
+              padding: '10px 20px',
+              backgroundColor: '#007bff',
+              color: 'white',
+              border: 'none',
+              borderRadius: '4px',
+              cursor: 'pointer'
+            }}
+          >
+            Load more
+          </button>
+        </div>
+      )}
     </div>
   );
 };
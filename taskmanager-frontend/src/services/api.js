@@ -19,12 +19,52 @@ export const authAPI = {
 };
 
 export const taskAPI = {
-  getTasks: () => API.get('/tasks'),
+  // Pass { cursor } from the previous response's X-Next-Cursor header to load the next page
+  getTasks: (params) => API.get('/tasks', { params }),
   createTask: (task) => API.post('/tasks', task),
   updateTask: (id, task) => API.put(`/tasks/${id}`, task),
   deleteTask: (id) => API.delete(`/tasks/${id}`),
 };
 
+// Server-Sent Events stream of the current user's task changes. EventSource cannot send the
+// Authorization header, so this reads the stream with fetch. onOpen runs once the server has
+// accepted it, before any change is delivered. Resolves when the stream ends; abort the signal to close it.
+export const streamTaskChanges = async (onChange, signal, onOpen) => {
+  const response = await fetch(`${API.defaults.baseURL}/tasks/stream`, {
+    headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+    signal,
+  });
+  if (!response.ok) {
+    throw new Error(`Task stream failed: ${response.status}`);
+  }
+  if (onOpen) {
+    onOpen();
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) {
+      return;
+    }
+    buffer += decoder.decode(value, { stream: true });
+    // Events are separated by a blank line; comment lines (":heartbeat") carry no data
+    let end;
+    while ((end = buffer.indexOf('\n\n')) >= 0) {
+      const data = buffer.slice(0, end).split('\n')
+        .filter((line) => line.startsWith('data:'))
+        .map((line) => line.slice(5))
+        .join('\n');
+      buffer = buffer.slice(end + 2);
+      if (data) {
+        onChange(JSON.parse(data));
+      }
+    }
+  }
+};
+
 // ADD ADMIN API ENDPOINTS HERE
 export const adminAPI = {
   // User management